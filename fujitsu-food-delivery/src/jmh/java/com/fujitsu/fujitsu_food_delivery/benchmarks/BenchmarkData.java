@@ -0,0 +1,124 @@
+package com.fujitsu.fujitsu_food_delivery.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.fujitsu.fujitsu_food_delivery.entities.FeeRule;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.repositories.FeeRuleRepository;
+import com.fujitsu.fujitsu_food_delivery.seeder.DataSeeder;
+
+/**
+ * Shared fixtures of the benchmarks: realistic weather observations and fee rule tables of a given size.
+ */
+final class BenchmarkData {
+
+    /**
+     * Weather phenomena as reported by the Estonian Environment Agency feed.
+     */
+    static final String[] PHENOMENA = {
+            "Clear", "Few clouds", "Variable clouds", "Cloudy with clear spells", "Overcast",
+            "Light snow shower", "Moderate snow shower", "Heavy snow shower", "Light shower", "Moderate shower",
+            "Heavy shower", "Light rain", "Moderate rain", "Heavy rain", "Glaze", "Light sleet", "Moderate sleet",
+            "Light snowfall", "Moderate snowfall", "Heavy snowfall", "Blowing snow", "Drifting snow", "Hail",
+            "Mist", "Fog", "Thunder", "Thunderstorm"
+    };
+
+    private static final String[] RULE_TYPES = {"BASE_FEE", "AIR_TEMP", "WIND_SPEED", "PHENOMENON"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates observations spread over all temperature and wind bands.
+     *
+     * @param count            the number of observations
+     * @param stationName      the station of the observations
+     * @param allowForbidden   whether observations may forbid bikes and scooters (wind &gt; 20 m/s, glaze, hail, thunder)
+     * @return the observations, one per minute
+     */
+    static List<WeatherData> observations(int count, String stationName, boolean allowForbidden) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<WeatherData> observations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String phenomenon;
+            do {
+                phenomenon = PHENOMENA[random.nextInt(PHENOMENA.length)];
+            } while (!allowForbidden
+                    && WeatherPhenomenonCategory.classify(phenomenon) == WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER);
+
+            WeatherData weatherData = new WeatherData();
+            weatherData.setStationName(stationName);
+            weatherData.setTimestamp(1_700_000_000 + i * 60);
+            weatherData.setAirTemperature(random.nextDouble(-20, 20));
+            weatherData.setWindSpeed(random.nextDouble(0, allowForbidden ? 25 : 20));
+            weatherData.setWeatherPhenomenon(phenomenon);
+            weatherData.setPhenomenonCategory(WeatherPhenomenonCategory.classify(phenomenon));
+            observations.add(weatherData);
+        }
+        return observations;
+    }
+
+    /**
+     * Creates a fee rule table with the seeded rules first, followed by filler rules with conditions that never
+     * match (they do not parse, so the rule compilation skips them), so that the calculated fees do not depend
+     * on the table size.
+     *
+     * @param size the total number of rules (at least the number of seeded rules)
+     * @return the rules in table order
+     */
+    static List<FeeRule> feeRules(int size) {
+        List<FeeRule> rules = seededFeeRules();
+        City[] cities = City.values();
+        VehicleType[] vehicleTypes = VehicleType.values();
+        for (int i = rules.size(); i < size; i++) {
+            String ruleType = RULE_TYPES[i % RULE_TYPES.length];
+            City city = ruleType.equals("BASE_FEE") ? cities[i % cities.length] : null;
+            rules.add(new FeeRule(ruleType, city, vehicleTypes[i % vehicleTypes.length], "filler-" + i, 0.1));
+        }
+        return rules;
+    }
+
+    /**
+     * Returns the fee rules the application seeds at startup, captured by running the DataSeeder.
+     *
+     * @return the seeded rules in insertion order
+     */
+    static List<FeeRule> seededFeeRules() {
+        List<FeeRule> rules = new ArrayList<>();
+        try {
+            new DataSeeder().seedFeeRules(feeRuleRepository(rules)).run();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return rules;
+    }
+
+    /**
+     * Creates an in-memory FeeRuleRepository that only supports the operations used by the seeder
+     * and the DynamicFeeCalculationService.
+     *
+     * @param rules the backing list of rules
+     * @return the repository
+     */
+    static FeeRuleRepository feeRuleRepository(List<FeeRule> rules) {
+        return (FeeRuleRepository) Proxy.newProxyInstance(FeeRuleRepository.class.getClassLoader(),
+                new Class<?>[]{FeeRuleRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> List.copyOf(rules);
+                    case "count" -> (long) rules.size();
+                    case "save" -> {
+                        rules.add((FeeRule) args[0]);
+                        yield args[0];
+                    }
+                    case "toString" -> "FeeRuleRepository" + rules;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,71 @@
+package com.fujitsu.fujitsu_food_delivery.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.services.DynamicFeeCalculationService;
+
+/**
+ * Benchmarks of the DynamicFeeCalculationService at varying fee rule table sizes,
+ * with fees evaluated against the compiled rule intervals or read from the precomputed lookup table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicFeeCalculationBenchmark {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    @Param({"20", "200", "2000", "20000"})
+    public int ruleCount;
+
+    @Param({"false", "true"})
+    public boolean lookupTableEnabled;
+
+    @Param({"CAR", "BIKE"})
+    public VehicleType vehicleType;
+
+    private DynamicFeeCalculationService dynamicFeeCalculationService;
+    private WeatherData[] observations;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        dynamicFeeCalculationService = new DynamicFeeCalculationService(
+                BenchmarkData.feeRuleRepository(BenchmarkData.feeRules(ruleCount)), lookupTableEnabled);
+        dynamicFeeCalculationService.reloadFeeRules();
+        observations = BenchmarkData.observations(SAMPLE_SIZE, "Tartu-Tõravere", false).toArray(new WeatherData[0]);
+    }
+
+    @Benchmark
+    public double calculateDeliveryFee() {
+        WeatherData weatherData = observations[next++ & (SAMPLE_SIZE - 1)];
+        return dynamicFeeCalculationService.calculateDeliveryFee(City.TARTU, vehicleType, weatherData);
+    }
+
+    /**
+     * Measures recompiling the rule intervals and the lookup table, as done after every fee rule change.
+     */
+    @Benchmark
+    public Object reloadFeeRules() {
+        dynamicFeeCalculationService.reloadFeeRules();
+        return dynamicFeeCalculationService.getFeeLookupTable();
+    }
+}
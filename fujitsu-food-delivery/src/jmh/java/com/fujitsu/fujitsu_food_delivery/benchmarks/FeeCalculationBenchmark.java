@@ -0,0 +1,80 @@
+package com.fujitsu.fujitsu_food_delivery.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.services.FeeCalculationService;
+import com.fujitsu.fujitsu_food_delivery.services.FeeResult;
+
+/**
+ * Benchmarks of the hard-coded FeeCalculationService, which serves the REST API.
+ * Each invocation prices the next observation of a fixed sample, so that all fee branches are exercised.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeeCalculationBenchmark {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    @Param({"CAR", "SCOOTER", "BIKE"})
+    public VehicleType vehicleType;
+
+    private FeeCalculationService feeCalculationService;
+    private WeatherData[] observations;
+    private WeatherData forbiddenObservation;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        feeCalculationService = new FeeCalculationService();
+        observations = BenchmarkData.observations(SAMPLE_SIZE, "Tallinn-Harku", false).toArray(new WeatherData[0]);
+        forbiddenObservation = BenchmarkData.observations(1, "Tallinn-Harku", false).get(0);
+        forbiddenObservation.setWeatherPhenomenon("Thunderstorm");
+        forbiddenObservation.setPhenomenonCategory(WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER);
+    }
+
+    @Benchmark
+    public double calculateDeliveryFee() {
+        WeatherData weatherData = observations[next++ & (SAMPLE_SIZE - 1)];
+        return feeCalculationService.calculateDeliveryFee(City.TALLINN, vehicleType, weatherData);
+    }
+
+    /**
+     * Measures the forbidden path, which reports the forbidden usage by throwing an exception.
+     */
+    @Benchmark
+    public Object calculateForbiddenDeliveryFee() {
+        try {
+            return feeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.BIKE, forbiddenObservation);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Measures the forbidden path of the exception-free API, which returns the shared forbidden result.
+     */
+    @Benchmark
+    public FeeResult evaluateForbiddenDeliveryFee() {
+        return feeCalculationService.evaluateDeliveryFee(City.TALLINN, VehicleType.BIKE, forbiddenObservation);
+    }
+}
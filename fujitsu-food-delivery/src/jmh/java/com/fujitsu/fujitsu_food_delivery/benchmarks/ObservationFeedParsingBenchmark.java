@@ -0,0 +1,162 @@
+package com.fujitsu.fujitsu_food_delivery.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.scheduler.ObservationFeedParser;
+import com.fujitsu.fujitsu_food_delivery.scheduler.ObservationFeedParser.StationObservation;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+
+/**
+ * Benchmarks of parsing an observations document of the weather feed into WeatherData records:
+ * the previous DOM-based importer, which decoded the response to a String, re-encoded it and built a full DOM,
+ * versus the streaming ObservationFeedParser reading the raw response bytes.
+ * <p>
+ * The documents are the recordings of the load test. The real feed has about 100 stations, while the recordings
+ * have 8, so {@code stations} pads a recording with copies of its non-imported stations.
+ * Run with {@code -PjmhGc} to compare the allocation per document.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservationFeedParsingBenchmark {
+
+    private static final String[] RECORDINGS = {"observations/observations-1.xml", "observations/observations-2.xml"};
+    private static final Pattern STATION = Pattern.compile("<station>.*?</station>\\s*", Pattern.DOTALL);
+
+    @Param({"8", "100"})
+    public int stations;
+
+    private static final Set<String> STATION_NAMES = RegionRegistry.defaults().getStationNames();
+
+    private final ObservationFeedParser parser = new ObservationFeedParser(STATION_NAMES);
+    private byte[][] documents;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        documents = new byte[RECORDINGS.length][];
+        for (int i = 0; i < RECORDINGS.length; i++) {
+            documents[i] = pad(load(RECORDINGS[i]), stations).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public List<WeatherData> dom() throws Exception {
+        byte[] response = nextDocument();
+        // The previous importer received the body as a String and encoded it again before parsing
+        String body = new String(response, StandardCharsets.UTF_8);
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document document = builder.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        document.getDocumentElement().normalize();
+        long timestamp = Long.parseLong(document.getDocumentElement().getAttribute("timestamp"));
+        NodeList stationNodes = document.getElementsByTagName("station");
+        List<WeatherData> parsed = new ArrayList<>();
+        for (int i = 0; i < stationNodes.getLength(); i++) {
+            Node node = stationNodes.item(i);
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                Element station = (Element) node;
+                String stationName = station.getElementsByTagName("name").item(0).getTextContent();
+                if (STATION_NAMES.contains(stationName)) {
+                    WeatherData weatherData = new WeatherData();
+                    weatherData.setStationName(stationName);
+                    weatherData.setWmoCode(station.getElementsByTagName("wmocode").item(0).getTextContent());
+                    weatherData.setAirTemperature(domDouble(station, "airtemperature"));
+                    weatherData.setWindSpeed(domDouble(station, "windspeed"));
+                    String phenomenon = station.getElementsByTagName("phenomenon").item(0).getTextContent();
+                    weatherData.setWeatherPhenomenon(phenomenon);
+                    weatherData.setPhenomenonCategory(WeatherPhenomenonCategory.classify(phenomenon));
+                    weatherData.setTimestamp(timestamp);
+                    parsed.add(weatherData);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public List<WeatherData> stax() throws Exception {
+        ObservationFeedParser.Observations observations = parser.parse(new ByteArrayInputStream(nextDocument()));
+        List<WeatherData> parsed = new ArrayList<>(observations.stations().size());
+        for (StationObservation station : observations.stations()) {
+            parsed.add(station.toWeatherData(observations.timestamp()));
+        }
+        return parsed;
+    }
+
+    private byte[] nextDocument() {
+        byte[] document = documents[next];
+        next = next + 1 == documents.length ? 0 : next + 1;
+        return document;
+    }
+
+    private static Double domDouble(Element element, String tag) {
+        String value = element.getElementsByTagName(tag).item(0).getTextContent();
+        return value.isEmpty() ? null : Double.parseDouble(value);
+    }
+
+    /**
+     * Appends copies of the recording's non-imported stations until the document has the given number of stations.
+     */
+    private static String pad(String document, int stationCount) {
+        List<String> recorded = new ArrayList<>();
+        List<String> padding = new ArrayList<>();
+        Matcher matcher = STATION.matcher(document);
+        while (matcher.find()) {
+            recorded.add(matcher.group());
+            if (STATION_NAMES.stream().noneMatch(matcher.group()::contains)) {
+                padding.add(matcher.group());
+            }
+        }
+        StringBuilder stationsXml = new StringBuilder();
+        recorded.forEach(stationsXml::append);
+        for (int i = recorded.size(); i < stationCount; i++) {
+            stationsXml.append(padding.get(i % padding.size()));
+        }
+        int end = document.lastIndexOf("</observations>");
+        return document.substring(0, document.indexOf("<station>")) + stationsXml + document.substring(end);
+    }
+
+    private static String load(String resource) throws IOException {
+        try (InputStream in = ObservationFeedParsingBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing recording " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
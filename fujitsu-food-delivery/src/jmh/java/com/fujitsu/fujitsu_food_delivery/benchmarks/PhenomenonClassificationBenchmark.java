@@ -0,0 +1,59 @@
+package com.fujitsu.fujitsu_food_delivery.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable;
+
+/**
+ * Benchmarks of weather phenomenon classification: classifying the free-text phenomenon, as done once per
+ * imported observation, versus mapping an already classified category to its fee band, as done per quote.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhenomenonClassificationBenchmark {
+
+    private String[] phenomena;
+    private WeatherPhenomenonCategory[] categories;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        phenomena = BenchmarkData.PHENOMENA.clone();
+        categories = new WeatherPhenomenonCategory[phenomena.length];
+        for (int i = 0; i < phenomena.length; i++) {
+            categories[i] = WeatherPhenomenonCategory.classify(phenomena[i]);
+        }
+    }
+
+    @Benchmark
+    public WeatherPhenomenonCategory classify() {
+        return WeatherPhenomenonCategory.classify(phenomena[nextIndex()]);
+    }
+
+    @Benchmark
+    public int phenomenonClass() {
+        return FeeLookupTable.phenomenonClass(categories[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == phenomena.length ? 0 : index + 1;
+        return index;
+    }
+}
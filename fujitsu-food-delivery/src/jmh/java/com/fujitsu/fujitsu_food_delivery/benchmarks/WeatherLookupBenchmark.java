@@ -0,0 +1,122 @@
+package com.fujitsu.fujitsu_food_delivery.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+
+/**
+ * Benchmarks of the weather lookups behind current and historical quotes: the repository queries against an
+ * H2 database holding the given number of observations, versus the in-memory WeatherTimeSeriesIndex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherLookupBenchmark {
+
+    private static final String STATION_NAME = "Tallinn-Harku";
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000"})
+    public int observationCount;
+
+    private ConfigurableApplicationContext context;
+    private WeatherDataRepository weatherDataRepository;
+    private WeatherTimeSeriesIndex weatherTimeSeriesIndex;
+    private long[] timestamps;
+
+    /**
+     * Per-thread position in the sample of lookup timestamps.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RepositoryConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + observationCount,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        weatherDataRepository = context.getBean(WeatherDataRepository.class);
+
+        List<WeatherData> observations = BenchmarkData.observations(observationCount, STATION_NAME, true);
+        for (int from = 0; from < observations.size(); from += INSERT_BATCH_SIZE) {
+            weatherDataRepository.saveAll(observations.subList(from, Math.min(from + INSERT_BATCH_SIZE, observations.size())));
+        }
+
+        weatherTimeSeriesIndex = new WeatherTimeSeriesIndex(weatherDataRepository);
+        weatherTimeSeriesIndex.append(observations);
+
+        SplittableRandom random = new SplittableRandom(7);
+        long first = observations.get(0).getTimestamp();
+        long last = observations.get(observations.size() - 1).getTimestamp();
+        timestamps = new long[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            timestamps[i] = random.nextLong(first, last + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<WeatherData> repositoryLatest() {
+        return weatherDataRepository.findFirstByStationNameOrderByTimestampDesc(STATION_NAME);
+    }
+
+    @Benchmark
+    public Optional<WeatherData> repositoryAtOrBefore(Cursor cursor) {
+        return weatherDataRepository.findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(
+                STATION_NAME, timestamps[cursor.next++ & (SAMPLE_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public Optional<WeatherData> indexAtOrBefore(Cursor cursor) {
+        return weatherTimeSeriesIndex.findLatestAtOrBefore(STATION_NAME, timestamps[cursor.next++ & (SAMPLE_SIZE - 1)]);
+    }
+
+    /**
+     * Minimal application that only starts the persistence layer, so that no scheduled imports
+     * or web server run during the benchmark.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = WeatherData.class)
+    @EnableJpaRepositories(basePackageClasses = WeatherDataRepository.class)
+    static class RepositoryConfiguration {
+    }
+}
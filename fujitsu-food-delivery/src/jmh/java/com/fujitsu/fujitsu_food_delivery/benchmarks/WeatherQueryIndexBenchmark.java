@@ -0,0 +1,164 @@
+package com.fujitsu.fujitsu_food_delivery.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the weather repository queries on a large weather_data table, before and after the schema
+ * migration: {@code UNINDEXED} is the schema Hibernate generated from the entities (no index on station and
+ * timestamp), {@code MIGRATED} is the schema created by the Flyway migrations.
+ * <p>
+ * The queries are the SQL of the WeatherDataRepository methods
+ * {@code findFirstByStationNameOrderByTimestampDesc} and
+ * {@code findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc}. Rows are generated inside H2,
+ * one observation per minute for each of the three stations, and H2's query result cache is disabled so that every
+ * invocation executes the query. The database is stored in a temporary directory rather than in memory, because
+ * 10 million rows do not fit a moderate heap; smaller tables can be selected with JMH's {@code -p rowCount=...}
+ * when running the benchmark jar.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class WeatherQueryIndexBenchmark {
+
+    private static final String[] STATION_NAMES = {"Tallinn-Harku", "Tartu-Tõravere", "Pärnu"};
+    private static final long FIRST_TIMESTAMP = 1_700_000_000L;
+    private static final int SAMPLE_SIZE = 1024;
+
+    private static final String COLUMNS =
+            "id, station_name, wmo_code, air_temperature, wind_speed, weather_phenomenon, phenomenon_category, timestamp";
+
+    /**
+     * The schemas compared by the benchmark.
+     */
+    public enum Schema {
+        UNINDEXED,
+        MIGRATED
+    }
+
+    @Param({"10000000"})
+    public int rowCount;
+
+    @Param({"UNINDEXED", "MIGRATED"})
+    public Schema schema;
+
+    private Path directory;
+    private Connection connection;
+    private long[] timestamps;
+
+    /**
+     * Per-thread prepared statements and position in the sample of lookup timestamps.
+     */
+    @State(Scope.Thread)
+    public static class Statements {
+        PreparedStatement latest;
+        PreparedStatement atOrBefore;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(WeatherQueryIndexBenchmark benchmark) throws SQLException {
+            latest = benchmark.connection.prepareStatement("SELECT " + COLUMNS + " FROM weather_data"
+                    + " WHERE station_name = ? ORDER BY station_name, timestamp DESC FETCH FIRST 1 ROWS ONLY");
+            atOrBefore = benchmark.connection.prepareStatement("SELECT " + COLUMNS + " FROM weather_data"
+                    + " WHERE station_name = ? AND timestamp <= ? ORDER BY station_name, timestamp DESC FETCH FIRST 1 ROWS ONLY");
+            atOrBefore.setString(1, STATION_NAMES[0]);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            latest.close();
+            atOrBefore.close();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("weather-query-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve(schema.name()).toAbsolutePath()
+                + ";QUERY_CACHE_SIZE=0");
+        try (Statement statement = connection.createStatement()) {
+            if (schema == Schema.MIGRATED) {
+                statement.execute("RUNSCRIPT FROM 'classpath:db/migration/V1__create_weather_data_and_fee_rule.sql'");
+            } else {
+                statement.execute("CREATE TABLE weather_data (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                        + " air_temperature FLOAT(53), phenomenon_category VARCHAR(255), station_name VARCHAR(255),"
+                        + " timestamp INTEGER NOT NULL, weather_phenomenon VARCHAR(255), wind_speed FLOAT(53),"
+                        + " wmo_code VARCHAR(255))");
+                statement.execute("CREATE INDEX idx_weather_data_phenomenon_category ON weather_data (phenomenon_category)");
+            }
+            // Row x belongs to station x % 3, which observes once per minute
+            statement.execute("INSERT INTO weather_data (station_name, wmo_code, air_temperature, wind_speed,"
+                    + " weather_phenomenon, phenomenon_category, timestamp)"
+                    + " SELECT CASE MOD(X, 3) WHEN 0 THEN '" + STATION_NAMES[0] + "' WHEN 1 THEN '" + STATION_NAMES[1]
+                    + "' ELSE '" + STATION_NAMES[2] + "' END,"
+                    + " '26038', MOD(X, 40) - 20, MOD(X, 25), 'Clear', 'NONE', " + FIRST_TIMESTAMP + " + (X / 3) * 60"
+                    + " FROM SYSTEM_RANGE(0, " + (rowCount - 1) + ")");
+            statement.execute("ANALYZE");
+        }
+
+        SplittableRandom random = new SplittableRandom(7);
+        long last = FIRST_TIMESTAMP + (rowCount / 3L) * 60;
+        timestamps = new long[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            timestamps[i] = random.nextLong(FIRST_TIMESTAMP, last + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN IMMEDIATELY");
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long latest(Statements statements) throws SQLException {
+        // H2 reuses the previous result of a statement executed again with the same parameters, so rotate the station
+        statements.latest.setString(1, STATION_NAMES[statements.next++ % STATION_NAMES.length]);
+        return firstTimestamp(statements.latest);
+    }
+
+    @Benchmark
+    public long atOrBefore(Statements statements) throws SQLException {
+        statements.atOrBefore.setLong(2, timestamps[statements.next++ & (SAMPLE_SIZE - 1)]);
+        return firstTimestamp(statements.atOrBefore);
+    }
+
+    private static long firstTimestamp(PreparedStatement query) throws SQLException {
+        try (ResultSet resultSet = query.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong("timestamp") : -1;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.fujitsu.fujitsu_food_delivery.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records the outcomes and latencies of the requests of one request type.
+ * Each worker thread owns its own recorders; they are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long status2xx;
+    private long status4xx;
+    private long status5xx;
+    private long failures;
+
+    void record(int status, long latencyNanos) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        if (status >= 500) {
+            status5xx++;
+        } else if (status >= 400) {
+            status4xx++;
+        } else {
+            status2xx++;
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        failures++;
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count + other.count);
+        }
+        System.arraycopy(other.latenciesNanos, 0, latenciesNanos, count, other.count);
+        count += other.count;
+        status2xx += other.status2xx;
+        status4xx += other.status4xx;
+        status5xx += other.status5xx;
+        failures += other.failures;
+    }
+
+    /**
+     * Summarizes the recorded requests. 4xx answers are valid API outcomes (e.g. forbidden vehicle usage)
+     * and are reported separately; only 5xx answers and failed requests count as errors.
+     *
+     * @param durationSeconds the measured duration
+     * @return the summary, ready to be serialized as JSON
+     */
+    Map<String, Object> summarize(double durationSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        long errors = status5xx + failures;
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", count == 0 ? 0.0 : millis(Arrays.stream(sorted).sum() / count));
+        latency.put("p50", millis(percentile(sorted, 0.50)));
+        latency.put("p90", millis(percentile(sorted, 0.90)));
+        latency.put("p99", millis(percentile(sorted, 0.99)));
+        latency.put("p999", millis(percentile(sorted, 0.999)));
+        latency.put("max", millis(count == 0 ? 0 : sorted[count - 1]));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("throughputPerSecond", count / durationSeconds);
+        summary.put("status2xx", status2xx);
+        summary.put("status4xx", status4xx);
+        summary.put("status5xx", status5xx);
+        summary.put("failures", failures);
+        summary.put("errorRate", count == 0 ? 0.0 : (double) errors / count);
+        summary.put("latencyMillis", latency);
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
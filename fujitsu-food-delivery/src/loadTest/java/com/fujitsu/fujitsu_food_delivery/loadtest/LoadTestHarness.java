@@ -0,0 +1,338 @@
+package com.fujitsu.fujitsu_food_delivery.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fujitsu.fujitsu_food_delivery.FujitsuFoodDeliveryApplication;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+
+/**
+ * End-to-end load test of the delivery fee and fee rule endpoints.
+ * <p>
+ * Unless {@code loadTest.target} points at a running instance, the harness starts the application in-process with
+ * the weather importer fetching from a local {@link WeatherFeedStub}, so that imports run during the test.
+ * With {@code loadTest.replay}, the importer instead replays a directory of recorded snapshots, so that importing
+ * and quoting are measured together under a reproducible weather timeline.
+ * A fixed number of workers then send requests back to back, choosing the request type by the configured mix,
+ * for a warmup period followed by the measured period. The report (throughput, latency percentiles and
+ * status/error counts per request type) is printed and written as JSON to {@code loadTest.report}.
+ * </p>
+ * <p>
+ * Given several concurrency levels, the harness runs them one after the other against the same instance, each with
+ * its own warmup, and reports how throughput and tail latency scale with the number of clients. Each worker is a
+ * virtual thread, so that the client side does not limit the scaling at high levels. Running the sweep once with
+ * {@code loadTest.virtualThreads} and once without compares request handling on virtual and platform threads.
+ * </p>
+ * Settings (system properties):
+ * <ul>
+ *     <li>{@code loadTest.target}: base URL of a running instance (default: start the application in-process)</li>
+ *     <li>{@code loadTest.concurrency}: number of concurrent workers, or a comma-separated list of levels to sweep
+ *     (default: 16)</li>
+ *     <li>{@code loadTest.duration}: measured duration in seconds (default: 30)</li>
+ *     <li>{@code loadTest.warmup}: warmup duration in seconds (default: 5)</li>
+ *     <li>{@code loadTest.mix}: request type weights (default: {@value #DEFAULT_MIX})</li>
+ *     <li>{@code loadTest.importCron}: import schedule of the in-process application (default: every 5 seconds)</li>
+ *     <li>{@code loadTest.replay}: directory of recorded snapshots to replay instead of using the feed stub</li>
+ *     <li>{@code loadTest.replaySpeed}: replay speed relative to real time (default: 60)</li>
+ *     <li>{@code loadTest.virtualThreads}: whether the in-process application handles requests on virtual threads
+ *     (default: false)</li>
+ *     <li>{@code loadTest.reactive}: whether the in-process application serves the delivery fee API with WebFlux
+ *     instead of the servlet stack (default: false); the reactive stack does not serve the fee rules</li>
+ *     <li>{@code loadTest.report}: path of the JSON report (default: {@code loadtest-report.json})</li>
+ * </ul>
+ */
+public final class LoadTestHarness {
+
+    static final String DEFAULT_MIX = "current=60,historical=25,timeline=5,feerules=10";
+
+    private static final City[] CITIES = City.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    /**
+     * The request types of the mix.
+     */
+    enum RequestType {
+        CURRENT, HISTORICAL, TIMELINE, FEERULES
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String target;
+    private final int[] cumulativeWeights = new int[RequestType.values().length];
+    private final long startEpochSecond = System.currentTimeMillis() / 1000;
+
+    private LoadTestHarness(String target, Map<RequestType, Integer> mix) {
+        this.target = target;
+        int sum = 0;
+        for (RequestType type : RequestType.values()) {
+            sum += mix.getOrDefault(type, 0);
+            cumulativeWeights[type.ordinal()] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("The request mix must contain at least one positive weight");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> concurrencyLevels = parseConcurrency(System.getProperty("loadTest.concurrency", "16"));
+        boolean virtualThreads = Boolean.getBoolean("loadTest.virtualThreads");
+        boolean reactive = Boolean.getBoolean("loadTest.reactive");
+        int durationSeconds = Integer.getInteger("loadTest.duration", 30);
+        int warmupSeconds = Integer.getInteger("loadTest.warmup", 5);
+        String mixSetting = System.getProperty("loadTest.mix", DEFAULT_MIX);
+        Path reportPath = Path.of(System.getProperty("loadTest.report", "loadtest-report.json"));
+        String target = System.getProperty("loadTest.target");
+
+        WeatherFeedStub feed = null;
+        ConfigurableApplicationContext application = null;
+        try {
+            if (target == null) {
+                List<String> arguments = new ArrayList<>(List.of(
+                        "--server.port=0",
+                        "--weather.import.adaptive.enabled=false",
+                        "--weather.import.cron=" + System.getProperty("loadTest.importCron", "*/5 * * * * *"),
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--logging.level.root=WARN"));
+                if (reactive) {
+                    arguments.add("--spring.profiles.active=reactive");
+                }
+                String replay = System.getProperty("loadTest.replay");
+                if (replay != null) {
+                    arguments.add("--weather.source.type=replay");
+                    arguments.add("--weather.source.directory=" + replay);
+                    arguments.add("--weather.source.replay.speed=" + System.getProperty("loadTest.replaySpeed", "60"));
+                } else {
+                    feed = WeatherFeedStub.start();
+                    arguments.add("--weather.feed.url=" + feed.url());
+                }
+                application = SpringApplication.run(FujitsuFoodDeliveryApplication.class,
+                        arguments.toArray(String[]::new));
+                target = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            }
+
+            LoadTestHarness harness = new LoadTestHarness(target, parseMix(mixSetting));
+            harness.awaitWeatherData(Duration.ofSeconds(60));
+
+            List<Map<String, Object>> levels = new ArrayList<>();
+            for (int concurrency : concurrencyLevels) {
+                long feedRequestsBefore = feed != null ? feed.requestCount() : 0;
+                Map<RequestType, LatencyRecorder> results = harness.run(concurrency, warmupSeconds, durationSeconds);
+                long feedRequests = feed != null ? feed.requestCount() - feedRequestsBefore : -1;
+                levels.add(report(target, concurrency, warmupSeconds, durationSeconds, mixSetting, results,
+                        feedRequests));
+            }
+
+            Map<String, Object> report;
+            if (levels.size() == 1) {
+                report = levels.get(0);
+            } else {
+                report = new LinkedHashMap<>();
+                report.put("target", target);
+                report.put("stack", application == null ? null : reactive ? "reactive" : "servlet");
+                report.put("virtualThreads", application != null && virtualThreads);
+                report.put("levels", levels);
+            }
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            String json = mapper.writeValueAsString(report);
+            if (reportPath.getParent() != null) {
+                Files.createDirectories(reportPath.getParent());
+            }
+            Files.writeString(reportPath, json);
+            System.out.println(json);
+            if (levels.size() > 1) {
+                printScaling(levels);
+            }
+            System.out.println("Report written to " + reportPath.toAbsolutePath());
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (feed != null) {
+                feed.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Waits until the first weather import is visible through the API, so that quotes do not all end in 404.
+     */
+    private void awaitWeatherData(Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            HttpResponse<Void> response = client.send(
+                    HttpRequest.newBuilder(URI.create(target + "/api/deliveryfee?city=TALLINN&vehicleType=CAR")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 200) {
+                return;
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("No weather data was imported within " + timeout.toSeconds() + " seconds");
+    }
+
+    private Map<RequestType, LatencyRecorder> run(int concurrency, int warmupSeconds, int durationSeconds)
+            throws Exception {
+        long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long measureUntil = measureFrom + durationSeconds * 1_000_000_000L;
+
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Map<RequestType, LatencyRecorder>>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> work(measureFrom, measureUntil)));
+            }
+            Map<RequestType, LatencyRecorder> merged = recorders();
+            for (Future<Map<RequestType, LatencyRecorder>> future : futures) {
+                future.get().forEach((type, recorder) -> merged.get(type).merge(recorder));
+            }
+            return merged;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<RequestType, LatencyRecorder> work(long measureFrom, long measureUntil) {
+        Map<RequestType, LatencyRecorder> recorders = recorders();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            RequestType type = nextType(random);
+            HttpRequest request = HttpRequest.newBuilder(uri(type, random)).timeout(Duration.ofSeconds(10)).build();
+            boolean measured = now >= measureFrom;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (measured) {
+                    recorders.get(type).record(response.statusCode(), System.nanoTime() - now);
+                }
+            } catch (IOException e) {
+                if (measured) {
+                    recorders.get(type).recordFailure(System.nanoTime() - now);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return recorders;
+    }
+
+    private RequestType nextType(ThreadLocalRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (RequestType type : RequestType.values()) {
+            if (pick < cumulativeWeights[type.ordinal()]) {
+                return type;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private URI uri(RequestType type, ThreadLocalRandom random) {
+        String city = CITIES[random.nextInt(CITIES.length)].name();
+        String vehicleType = VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.length)].name();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        return switch (type) {
+            case CURRENT -> URI.create(target + "/api/deliveryfee?city=" + city + "&vehicleType=" + vehicleType);
+            case HISTORICAL -> {
+                // A time since the harness started, so that most historical quotes hit imported observations
+                long seconds = random.nextLong(Math.max(1, now.toEpochSecond(ZoneOffset.UTC) - startEpochSecond + 1));
+                yield URI.create(target + "/api/deliveryfee?city=" + city + "&vehicleType=" + vehicleType
+                        + "&dateTime=" + now.minusSeconds(seconds));
+            }
+            case TIMELINE -> URI.create(target + "/api/deliveryfee/timeline?city=" + city + "&vehicleType=" + vehicleType
+                    + "&from=" + now.minusHours(1) + "&to=" + now);
+            case FEERULES -> URI.create(target + "/api/feerules");
+        };
+    }
+
+    private static Map<RequestType, LatencyRecorder> recorders() {
+        Map<RequestType, LatencyRecorder> recorders = new EnumMap<>(RequestType.class);
+        for (RequestType type : RequestType.values()) {
+            recorders.put(type, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    static Map<RequestType, Integer> parseMix(String setting) {
+        Map<RequestType, Integer> mix = new EnumMap<>(RequestType.class);
+        for (String entry : setting.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            mix.put(RequestType.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    static List<Integer> parseConcurrency(String setting) {
+        List<Integer> levels = new ArrayList<>();
+        for (String level : setting.split(",")) {
+            int concurrency = Integer.parseInt(level.trim());
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("Invalid concurrency level: " + level);
+            }
+            levels.add(concurrency);
+        }
+        return levels;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printScaling(List<Map<String, Object>> levels) {
+        System.out.printf("%12s %14s %10s%n", "concurrency", "requests/s", "p99 (ms)");
+        for (Map<String, Object> level : levels) {
+            Map<String, Object> total = (Map<String, Object>) level.get("total");
+            Map<String, Object> latency = (Map<String, Object>) total.get("latencyMillis");
+            System.out.printf("%12s %14s %10s%n", level.get("concurrency"), total.get("throughputPerSecond"),
+                    latency.get("p99"));
+        }
+    }
+
+    private static Map<String, Object> report(String target, int concurrency, int warmupSeconds, int durationSeconds,
+                                              String mix, Map<RequestType, LatencyRecorder> results,
+                                              long feedRequests) {
+        LatencyRecorder total = new LatencyRecorder();
+        Map<String, Object> byType = new LinkedHashMap<>();
+        results.forEach((type, recorder) -> {
+            byType.put(type.name().toLowerCase(), recorder.summarize(durationSeconds));
+            total.merge(recorder);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", target);
+        report.put("concurrency", concurrency);
+        report.put("warmupSeconds", warmupSeconds);
+        report.put("durationSeconds", durationSeconds);
+        report.put("mix", mix);
+        report.put("weatherImports", feedRequests);
+        report.put("total", total.summarize(durationSeconds));
+        report.put("requestTypes", byType);
+        return report;
+    }
+}
@@ -0,0 +1,93 @@
+package com.fujitsu.fujitsu_food_delivery.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the ilmateenistus.ee observations feed.
+ * <p>
+ * Serves recorded observation documents in rotation. The {@code timestamp} attribute of each served document is
+ * replaced with the current time, so that every import adds new observations, as the real feed does.
+ * </p>
+ */
+final class WeatherFeedStub implements AutoCloseable {
+
+    static final String PATH = "/ilma_andmed/xml/observations.php";
+
+    private static final String[] RECORDINGS = {"observations/observations-1.xml", "observations/observations-2.xml"};
+    private static final Pattern TIMESTAMP = Pattern.compile("timestamp=\"\\d+\"");
+
+    private final HttpServer server;
+    private final List<String> documents;
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private WeatherFeedStub(HttpServer server, List<String> documents) {
+        this.server = server;
+        this.documents = documents;
+    }
+
+    /**
+     * Starts the stub on a free local port.
+     *
+     * @return the running stub
+     * @throws IOException if the server cannot be started
+     */
+    static WeatherFeedStub start() throws IOException {
+        List<String> documents = new ArrayList<>();
+        for (String recording : RECORDINGS) {
+            documents.add(load(recording));
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        WeatherFeedStub stub = new WeatherFeedStub(server, documents);
+        server.createContext(PATH, stub::serve);
+        server.start();
+        return stub;
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort() + PATH;
+    }
+
+    long requestCount() {
+        return requestCount.get();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String document = documents.get((int) (requestCount.getAndIncrement() % documents.size()));
+        byte[] body = TIMESTAMP.matcher(document)
+                .replaceFirst("timestamp=\"" + System.currentTimeMillis() / 1000 + "\"")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String load(String resource) {
+        try (InputStream in = WeatherFeedStub.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing recording " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
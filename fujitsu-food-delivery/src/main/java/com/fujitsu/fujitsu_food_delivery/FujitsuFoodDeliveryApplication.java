@@ -2,14 +2,21 @@ package com.fujitsu.fujitsu_food_delivery;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import com.fujitsu.fujitsu_food_delivery.reprice.BulkRepricingRunner;
+
 @EnableScheduling
 @SpringBootApplication
 public class FujitsuFoodDeliveryApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(FujitsuFoodDeliveryApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(FujitsuFoodDeliveryApplication.class, args);
+		if (context.getBeanProvider(BulkRepricingRunner.class).getIfAvailable() != null) {
+			// The repricing mode has finished by the time run returns; the scheduled tasks would keep the JVM alive.
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -1,115 +1,229 @@
 package com.fujitsu.fujitsu_food_delivery.controllers;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
-import com.fujitsu.fujitsu_food_delivery.enums.City;
-import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
-import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
-import com.fujitsu.fujitsu_food_delivery.services.FeeCalculationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteRequest;
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteResult;
+import com.fujitsu.fujitsu_food_delivery.services.BatchDeliveryFeeService;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex.StationSeries;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.http.HttpStatus;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * REST controller for handling delivery fee requests.
  * This controller provides an endpoint to calculate the delivery fee based on the city,
- * vehicle type, and optionally a specific date/time. It retrieves the latest weather data
- * (or historical data if a dateTime parameter is provided) from the database and delegates
- * fee calculation to the FeeCalculationService.
+ * vehicle type, and optionally a specific date/time. Single quotes and timelines are answered by the
+ * DeliveryFeeQuoter: current-time quotes with the pre-serialized responses of the CurrentFeeMatrix, which is
+ * recomputed after every weather import, and historical quotes from the in-memory WeatherTimeSeriesIndex.
+ * Many quotes can be requested at once through the batch endpoint, or streamed as newline-delimited JSON through
+ * the streaming endpoint; both are quoted item by item by the BatchDeliveryFeeService. The timeline endpoint
+ * reports how a fee changed over a time range and is served by the FeeTimelineService.
+ * The requested city is resolved to a region of the RegionRegistry, which determines both the weather station and
+ * the tariff of the quote.
+ * The controller serves the servlet stack; in a reactive web application the quotes are served by the
+ * ReactiveDeliveryFeeRoutes instead.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 public class DeliveryFeeController {
 
-    private final FeeCalculationService feeCalculationService;
-    private final WeatherDataRepository weatherDataRepository;
+    /**
+     * Response header carrying the age (in seconds) of the observation used for a current-time quote.
+     */
+    public static final String OBSERVATION_AGE_HEADER = "X-Weather-Observation-Age";
 
     /**
-     * Constructs a new DeliveryFeeController with the given service and repository.
-     *
-     * @param feeCalculationService the service used to calculate delivery fees
-     * @param weatherDataRepository the repository to retrieve weather data
+     * The maximum length, in characters, of a request line of the streaming endpoint.
      */
-    public DeliveryFeeController(FeeCalculationService feeCalculationService, WeatherDataRepository weatherDataRepository) {
-        this.feeCalculationService = feeCalculationService;
-        this.weatherDataRepository = weatherDataRepository;
-    }
+    static final int MAX_STREAM_LINE_LENGTH = 8192;
+
+    private final DeliveryFeeQuoter deliveryFeeQuoter;
+    private final BatchDeliveryFeeService batchDeliveryFeeService;
+    private final ObjectReader quoteRequestReader;
+    private final ObjectWriter quoteResultWriter;
 
     /**
-     * Helper method to map a City enum to its corresponding weather station name.
+     * Constructs a new DeliveryFeeController with the given services.
      *
-     * @param city the City enum
-     * @return the corresponding weather station name
+     * @param deliveryFeeQuoter       the quoter answering single quotes and timelines
+     * @param batchDeliveryFeeService the service used to quote many fees at once, in a batch or a stream
+     * @param objectMapper            the mapper used to read and write streamed quotes
      */
-    private String mapCityToStationName(City city) {
-        switch (city) {
-            case TALLINN:
-                return "Tallinn-Harku";
-            case TARTU:
-                return "Tartu-Tõravere";
-            case PÄRNU:
-                return "Pärnu";
-            default:
-                return city.name();
-        }
+    public DeliveryFeeController(DeliveryFeeQuoter deliveryFeeQuoter, BatchDeliveryFeeService batchDeliveryFeeService,
+                                 ObjectMapper objectMapper) {
+        this.deliveryFeeQuoter = deliveryFeeQuoter;
+        this.batchDeliveryFeeService = batchDeliveryFeeService;
+        this.quoteRequestReader = objectMapper.readerFor(DeliveryFeeQuoteRequest.class);
+        this.quoteResultWriter = objectMapper.writerFor(DeliveryFeeQuoteResult.class);
     }
 
     /**
      * Calculates and returns the delivery fee based on the provided city, vehicle type,
      * and an optional date/time parameter.
      *
-     * @param cityParam         the name of the city (expected: Tallinn, Tartu, or Pärnu)
+     * @param cityParam         the name of the city (expected: a registered region, e.g. Tallinn, Tartu, or Pärnu)
      * @param vehicleTypeParam  the type of vehicle (expected: Car, Scooter, or Bike)
      * @param dateTimeParam     an optional ISO-formatted date/time string to retrieve historical data
-     * @return a ResponseEntity containing the delivery fee or an error message
+     * @return a ResponseEntity containing the delivery fee or an error message; current-time quotes
+     *         also carry the age of the used observation in the X-Weather-Observation-Age header
      */
     @GetMapping("/deliveryfee")
     public ResponseEntity<?> getDeliveryFee(
             @RequestParam("city") String cityParam,
             @RequestParam("vehicleType") String vehicleTypeParam,
             @RequestParam(value = "dateTime", required = false) String dateTimeParam) {
-        try {
-            City city = City.valueOf(cityParam.toUpperCase());
-            VehicleType vehicleType = VehicleType.valueOf(vehicleTypeParam.toUpperCase());
-
-            // Map the city to the corresponding weather station name
-            String stationName = mapCityToStationName(city);
-
-            WeatherData weatherData;
-            long effectiveTimestamp;
-            if (dateTimeParam != null) {
-                // Parse the datetime (assume ISO format) and convert to UNIX timestamp
-                LocalDateTime dateTime = LocalDateTime.parse(dateTimeParam);
-                effectiveTimestamp = dateTime.atZone(ZoneId.of("UTC")).toEpochSecond();
-                weatherData = weatherDataRepository
-                        .findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(stationName, effectiveTimestamp)
-                        .orElse(null);
-            } else {
-                // Use the current time
-                effectiveTimestamp = System.currentTimeMillis() / 1000L;
-                weatherData = weatherDataRepository
-                        .findFirstByStationNameOrderByTimestampDesc(stationName)
-                        .orElse(null);
+        return deliveryFeeQuoter.quote(cityParam, vehicleTypeParam, dateTimeParam);
+    }
+
+    /**
+     * Calculates the delivery fees of many (city, vehicle type, date/time) combinations in one call.
+     * All quotes are evaluated against the same weather and fee rule snapshot, and each weather observation
+     * is resolved and evaluated only once. Failed quotes (e.g. forbidden vehicle usage) are reported per item.
+     *
+     * @param requests the quote requests
+     * @return a ResponseEntity containing one result per request, in request order
+     */
+    @PostMapping("/deliveryfee/batch")
+    public ResponseEntity<List<DeliveryFeeQuoteResult>> getDeliveryFees(@RequestBody List<DeliveryFeeQuoteRequest> requests) {
+        return ResponseEntity.ok(batchDeliveryFeeService.quote(requests));
+    }
+
+    /**
+     * Returns how the delivery fee for the given city and vehicle type changed between two points in time.
+     * Only the points at which the fee (or the forbidden status) changes are returned.
+     *
+     * @param cityParam         the name of the city (expected: a registered region, e.g. Tallinn, Tartu, or Pärnu)
+     * @param vehicleTypeParam  the type of vehicle (expected: Car, Scooter, or Bike)
+     * @param fromParam         the ISO-formatted start of the range (inclusive)
+     * @param toParam           the ISO-formatted end of the range (inclusive)
+     * @return a ResponseEntity containing the timeline points or an error message
+     */
+    @GetMapping("/deliveryfee/timeline")
+    public ResponseEntity<?> getDeliveryFeeTimeline(
+            @RequestParam("city") String cityParam,
+            @RequestParam("vehicleType") String vehicleTypeParam,
+            @RequestParam("from") String fromParam,
+            @RequestParam("to") String toParam) {
+        return deliveryFeeQuoter.timeline(cityParam, vehicleTypeParam, fromParam, toParam);
+    }
+
+    /**
+     * Calculates delivery fees for a stream of newline-delimited JSON quote requests and writes one
+     * newline-delimited JSON result per request, in request order.
+     * <p>
+     * The request body is read one line at a time and every result is written as soon as its line has been
+     * evaluated, so memory use does not grow with the number of quotes. The results are flushed to the client
+     * whenever no further request line is buffered, so a client that sends its lines one at a time receives
+     * each result right away, while a large upload is answered in buffer-sized writes. Reading and writing are
+     * blocking, so a slow client throttles how fast further request lines are consumed. All quotes are evaluated
+     * against the weather series of each region's station as it was when the region was first quoted in the stream.
+     * Blank lines are skipped, and lines that are not valid quote requests (including {@code null}) are answered
+     * with a 400 result. At most {@link #MAX_STREAM_LINE_LENGTH} characters of a line are kept; a longer line is
+     * skipped up to its end and answered with a 400 result as well, so a single unterminated line cannot exhaust
+     * memory.
+     * </p>
+     *
+     * @param requestBody the NDJSON request body
+     * @param response    the response the NDJSON results are written to
+     * @throws IOException if reading the request or writing the response fails
+     */
+    @PostMapping(value = "/deliveryfee/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamDeliveryFees(InputStream requestBody, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        StationSeries[] seriesByRegion = batchDeliveryFeeService.newSeriesCache();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(requestBody, StandardCharsets.UTF_8));
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        StringBuilder line = new StringBuilder();
+        int length;
+        while ((length = readLine(reader, line)) >= 0) {
+            DeliveryFeeQuoteResult result = null;
+            if (length > MAX_STREAM_LINE_LENGTH) {
+                result = new DeliveryFeeQuoteResult(null, null, null, 400, null,
+                        "Quote request line exceeds " + MAX_STREAM_LINE_LENGTH + " characters");
+            } else if (!line.toString().isBlank()) {
+                result = quoteLine(line.toString(), seriesByRegion);
             }
+            if (result != null) {
+                out.write(quoteResultWriter.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            if (!reader.ready()) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
 
-            if (weatherData == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No weather data found for city: " + city);
+    /**
+     * Helper method that reads the next line of the streaming endpoint, keeping at most
+     * {@link #MAX_STREAM_LINE_LENGTH} of its characters. Like {@link BufferedReader#readLine()}, it accepts
+     * "\n" and "\r\n" line endings, which are not part of the line.
+     *
+     * @param reader the request body
+     * @param line   the buffer the kept characters of the line are stored in
+     * @return the full length of the line, which exceeds the maximum if characters were dropped,
+     *         or -1 at the end of the request body
+     * @throws IOException if reading the request fails
+     */
+    private static int readLine(Reader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (length++ < MAX_STREAM_LINE_LENGTH) {
+                line.append((char) c);
             }
+        }
+        if (c == -1 && length == 0) {
+            return -1;
+        }
+        if (length <= MAX_STREAM_LINE_LENGTH && length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(--length);
+        }
+        return length;
+    }
 
-            // Pass the effective timestamp to the fee calculation service
-            double fee = feeCalculationService.calculateDeliveryFee(city, vehicleType, weatherData);
-            return ResponseEntity.ok(fee);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid city or vehicle type. " + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    /**
+     * Helper method that evaluates a single line of the streaming endpoint.
+     *
+     * @param line          the JSON quote request
+     * @param seriesByRegion the weather series captured so far for this stream, indexed by region index
+     * @return the quote result
+     */
+    private DeliveryFeeQuoteResult quoteLine(String line, StationSeries[] seriesByRegion) {
+        DeliveryFeeQuoteRequest request;
+        try {
+            request = quoteRequestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return new DeliveryFeeQuoteResult(null, null, null, 400, null, "Malformed quote request");
         }
+        // A "null" line reads as a null request, which the BatchDeliveryFeeService answers with a 400 result
+        return batchDeliveryFeeService.quote(request, seriesByRegion);
     }
 }
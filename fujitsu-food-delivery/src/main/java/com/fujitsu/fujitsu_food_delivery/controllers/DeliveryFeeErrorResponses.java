@@ -0,0 +1,51 @@
+package com.fujitsu.fujitsu_food_delivery.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fujitsu.fujitsu_food_delivery.services.DeliveryFeeMessages;
+import com.fujitsu.fujitsu_food_delivery.services.Region;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+
+/**
+ * Preallocated error responses of the delivery fee endpoints.
+ * Every error with a fixed message is built once, so that rejected quotes (e.g. the forbidden quotes that dominate
+ * during storms) neither build message strings nor allocate response entities. The per-region responses depend on
+ * the registered regions and are built once by the controller.
+ */
+final class DeliveryFeeErrorResponses {
+
+    static final ResponseEntity<String> INVALID_CITY_OR_VEHICLE_TYPE =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(DeliveryFeeMessages.INVALID_CITY_OR_VEHICLE_TYPE);
+
+    static final ResponseEntity<String> FORBIDDEN =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(DeliveryFeeMessages.FORBIDDEN);
+
+    static final ResponseEntity<String> INVALID_TIME_RANGE = ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body("The start of the range must not be after its end");
+
+    static final ResponseEntity<String> INVALID_DATE_TIME = ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body("Invalid date/time; expected an ISO local date-time such as 2025-03-23T10:15:00");
+
+    static final ResponseEntity<String> CALCULATION_FAILED = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .body(DeliveryFeeMessages.CALCULATION_FAILED);
+
+    private DeliveryFeeErrorResponses() {
+    }
+
+    /**
+     * Builds the responses for quotes of a region whose station has no weather data for the requested time.
+     *
+     * @param regionRegistry the registered regions
+     * @return the prepared 404 responses, indexed by region index
+     */
+    @SuppressWarnings("unchecked")
+    static ResponseEntity<String>[] noWeatherDataResponses(RegionRegistry regionRegistry) {
+        ResponseEntity<String>[] responses = new ResponseEntity[regionRegistry.size()];
+        for (Region region : regionRegistry.getRegions()) {
+            responses[region.index()] = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(DeliveryFeeMessages.noWeatherData(region));
+        }
+        return responses;
+    }
+}
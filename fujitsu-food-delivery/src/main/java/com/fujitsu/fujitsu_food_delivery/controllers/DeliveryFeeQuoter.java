@@ -0,0 +1,193 @@
+package com.fujitsu.fujitsu_food_delivery.controllers;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fujitsu.fujitsu_food_delivery.dto.FeeTimelinePoint;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.metrics.DeliveryFeeMetrics;
+import com.fujitsu.fujitsu_food_delivery.services.CurrentFeeMatrix;
+import com.fujitsu.fujitsu_food_delivery.services.CurrentFeeMatrix.PreparedFeeResponse;
+import com.fujitsu.fujitsu_food_delivery.services.FeeCalculationService;
+import com.fujitsu.fujitsu_food_delivery.services.FeeResult;
+import com.fujitsu.fujitsu_food_delivery.services.FeeTimelineService;
+import com.fujitsu.fujitsu_food_delivery.services.LatestWeatherDataCache;
+import com.fujitsu.fujitsu_food_delivery.services.Region;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+
+/**
+ * Answers single delivery fee quotes and fee timelines for both web stacks.
+ * <p>
+ * The blocking DeliveryFeeController and the non-blocking ReactiveDeliveryFeeRoutes only adapt requests and
+ * responses, so both serve the same responses. Every quote is answered from memory (the CurrentFeeMatrix for
+ * current-time quotes, the WeatherTimeSeriesIndex for historical quotes and timelines) and never waits on the
+ * database, so the quoter may be called from an event loop.
+ * </p>
+ */
+@Component
+public class DeliveryFeeQuoter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeliveryFeeQuoter.class);
+
+    private final FeeCalculationService feeCalculationService;
+    private final LatestWeatherDataCache latestWeatherDataCache;
+    private final WeatherTimeSeriesIndex weatherTimeSeriesIndex;
+    private final CurrentFeeMatrix currentFeeMatrix;
+    private final FeeTimelineService feeTimelineService;
+    private final DeliveryFeeMetrics deliveryFeeMetrics;
+    private final RegionRegistry regionRegistry;
+    private final ResponseEntity<String>[] noWeatherData;
+
+    /**
+     * Constructs a new DeliveryFeeQuoter.
+     *
+     * @param feeCalculationService  the service used to calculate delivery fees
+     * @param latestWeatherDataCache the cache holding the latest observation of every station
+     * @param weatherTimeSeriesIndex the index used to retrieve historical weather data
+     * @param currentFeeMatrix       the precomputed current-time responses
+     * @param feeTimelineService     the service used to compute fee timelines
+     * @param deliveryFeeMetrics     the metrics of the quoting endpoint
+     * @param regionRegistry         the registry the requested cities are resolved with
+     */
+    public DeliveryFeeQuoter(FeeCalculationService feeCalculationService, LatestWeatherDataCache latestWeatherDataCache,
+                             WeatherTimeSeriesIndex weatherTimeSeriesIndex, CurrentFeeMatrix currentFeeMatrix,
+                             FeeTimelineService feeTimelineService, DeliveryFeeMetrics deliveryFeeMetrics,
+                             RegionRegistry regionRegistry) {
+        this.feeCalculationService = feeCalculationService;
+        this.latestWeatherDataCache = latestWeatherDataCache;
+        this.weatherTimeSeriesIndex = weatherTimeSeriesIndex;
+        this.currentFeeMatrix = currentFeeMatrix;
+        this.feeTimelineService = feeTimelineService;
+        this.deliveryFeeMetrics = deliveryFeeMetrics;
+        this.regionRegistry = regionRegistry;
+        this.noWeatherData = DeliveryFeeErrorResponses.noWeatherDataResponses(regionRegistry);
+    }
+
+    /**
+     * Quotes the delivery fee of a city and vehicle type, at the current time or at the given date/time,
+     * and records the quote in the metrics.
+     *
+     * @param cityParam         the name of the city
+     * @param vehicleTypeParam  the type of vehicle
+     * @param dateTimeParam     an optional ISO-formatted date/time string
+     * @return a ResponseEntity containing the delivery fee or an error message; current-time quotes
+     *         also carry the age of the used observation in the X-Weather-Observation-Age header
+     */
+    public ResponseEntity<?> quote(String cityParam, String vehicleTypeParam, String dateTimeParam) {
+        long start = System.nanoTime();
+        ResponseEntity<?> response = evaluate(cityParam, vehicleTypeParam, dateTimeParam);
+        deliveryFeeMetrics.recordQuote(cityParam, vehicleTypeParam, dateTimeParam != null,
+                response.getStatusCode().value(), System.nanoTime() - start);
+        return response;
+    }
+
+    /**
+     * Returns how the delivery fee of a city and vehicle type changed between two points in time.
+     *
+     * @param cityParam         the name of the city
+     * @param vehicleTypeParam  the type of vehicle
+     * @param fromParam         the ISO-formatted start of the range (inclusive)
+     * @param toParam           the ISO-formatted end of the range (inclusive)
+     * @return a ResponseEntity containing the timeline points or an error message; a timeline that cannot be
+     *         computed is logged and answered with a 500 response that does not reveal the cause
+     */
+    public ResponseEntity<?> timeline(String cityParam, String vehicleTypeParam, String fromParam, String toParam) {
+        Region region = regionRegistry.find(cityParam);
+        VehicleType vehicleType = VehicleType.fromName(vehicleTypeParam);
+        if (region == null || vehicleType == null) {
+            return DeliveryFeeErrorResponses.INVALID_CITY_OR_VEHICLE_TYPE;
+        }
+        try {
+            long from = LocalDateTime.parse(fromParam).atZone(ZoneId.of("UTC")).toEpochSecond();
+            long to = LocalDateTime.parse(toParam).atZone(ZoneId.of("UTC")).toEpochSecond();
+            if (from > to) {
+                return DeliveryFeeErrorResponses.INVALID_TIME_RANGE;
+            }
+
+            List<FeeTimelinePoint> timeline = feeTimelineService.timeline(region, vehicleType, from, to);
+            if (timeline.isEmpty()) {
+                return noWeatherData[region.index()];
+            }
+            return ResponseEntity.ok(timeline);
+        } catch (DateTimeParseException e) {
+            return DeliveryFeeErrorResponses.INVALID_DATE_TIME;
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not compute the {} fee timeline of region {}", vehicleType, region, e);
+            return DeliveryFeeErrorResponses.CALCULATION_FAILED;
+        }
+    }
+
+    /**
+     * Helper method that answers a single quote without recording it.
+     *
+     * @param cityParam         the name of the city
+     * @param vehicleTypeParam  the type of vehicle
+     * @param dateTimeParam     an optional ISO-formatted date/time string
+     * @return a ResponseEntity containing the delivery fee or an error message
+     */
+    private ResponseEntity<?> evaluate(String cityParam, String vehicleTypeParam, String dateTimeParam) {
+        Region region = regionRegistry.find(cityParam);
+        VehicleType vehicleType = VehicleType.fromName(vehicleTypeParam);
+        if (region == null || vehicleType == null) {
+            return DeliveryFeeErrorResponses.INVALID_CITY_OR_VEHICLE_TYPE;
+        }
+
+        if (dateTimeParam == null) {
+            // Use the current time, served from the precomputed responses
+            PreparedFeeResponse prepared = currentFeeMatrix.get(region, vehicleType);
+            if (prepared.status() == HttpStatus.BAD_REQUEST) {
+                // Region and vehicle type are valid here, so the only prepared bad request is forbidden usage
+                deliveryFeeMetrics.recordForbidden(region, vehicleType);
+            }
+            return currentFeeResponse(prepared);
+        }
+
+        try {
+            // Parse the datetime (assume ISO format) and convert to UNIX timestamp
+            LocalDateTime dateTime = LocalDateTime.parse(dateTimeParam);
+            long effectiveTimestamp = dateTime.atZone(ZoneId.of("UTC")).toEpochSecond();
+            WeatherData weatherData = weatherTimeSeriesIndex
+                    .findLatestAtOrBefore(region.stationName(), effectiveTimestamp)
+                    .orElse(null);
+
+            if (weatherData == null) {
+                return noWeatherData[region.index()];
+            }
+
+            FeeResult result = feeCalculationService.evaluateDeliveryFee(region.tariff(), vehicleType, weatherData);
+            if (result.isForbidden()) {
+                deliveryFeeMetrics.recordForbidden(region, vehicleType);
+                return DeliveryFeeErrorResponses.FORBIDDEN;
+            }
+            return ResponseEntity.ok(result.fee());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method that turns a prepared current-time response into a ResponseEntity.
+     * The body bytes are sent as they are; only the observation age is computed per request.
+     *
+     * @param prepared the prepared response
+     * @return the ResponseEntity carrying the prepared body
+     */
+    private ResponseEntity<byte[]> currentFeeResponse(PreparedFeeResponse prepared) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(prepared.status()).contentType(prepared.contentType());
+        if (prepared.weatherData() != null) {
+            builder.header(DeliveryFeeController.OBSERVATION_AGE_HEADER,
+                    String.valueOf(latestWeatherDataCache.getObservationAgeSeconds(prepared.weatherData())));
+        }
+        return builder.body(prepared.body());
+    }
+}
@@ -2,9 +2,11 @@ package com.fujitsu.fujitsu_food_delivery.controllers;
 
 import java.util.List;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -19,8 +21,10 @@ import com.fujitsu.fujitsu_food_delivery.services.FeeRuleService;
  * REST controller for managing fee rules.
  * This controller provides CRUD endpoints to create, retrieve, and delete fee rules that
  * define the business logic for calculating delivery fees.
+ * The endpoints access the database and are only served by the servlet stack.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/feerules")
 public class FeeRuleController {
 
@@ -39,7 +43,8 @@ public class FeeRuleController {
      * Creates a new fee rule.
      *
      * @param feeRule the FeeRule object to create
-     * @return a ResponseEntity containing the created FeeRule and HTTP status CREATED
+     * @return a ResponseEntity containing the created FeeRule and HTTP status CREATED,
+     *         or BAD REQUEST if the rule condition does not parse
      */
     @PostMapping
     public ResponseEntity<FeeRule> createFeeRule(@RequestBody FeeRule feeRule) {
@@ -86,4 +91,15 @@ public class FeeRuleController {
         feeRuleService.deleteFeeRule(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Reports a fee rule whose rule type or condition was rejected by the FeeRuleService.
+     *
+     * @param e the validation failure
+     * @return a ResponseEntity with BAD REQUEST status and the failure message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidFeeRule(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
@@ -0,0 +1,145 @@
+package com.fujitsu.fujitsu_food_delivery.controllers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.boot.web.reactive.error.DefaultErrorAttributes;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteRequest;
+import com.fujitsu.fujitsu_food_delivery.services.BatchDeliveryFeeService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the delivery fee API, served by WebFlux on Netty.
+ * <p>
+ * It is active in a reactive web application, i.e. with the {@code reactive} profile, which sets
+ * {@code spring.main.web-application-type=reactive}. The single quote, batch and timeline endpoints answer with the
+ * same responses as the DeliveryFeeController, because both delegate to the DeliveryFeeQuoter and the
+ * BatchDeliveryFeeService. All quotes are answered from the in-memory weather indexes and fee rules on the event
+ * loop, so a request holds no thread while it waits for the network and many more requests can be in flight per
+ * core. The streaming endpoint and the fee rule administration, which read the database, are only served by the
+ * servlet stack.
+ * </p>
+ * <p>
+ * A request missing a required query parameter is rejected with Spring Boot's standard error body, as the servlet
+ * stack does for a missing {@code @RequestParam}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDeliveryFeeRoutes {
+
+    private static final ParameterizedTypeReference<List<DeliveryFeeQuoteRequest>> QUOTE_REQUESTS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final DeliveryFeeQuoter deliveryFeeQuoter;
+    private final BatchDeliveryFeeService batchDeliveryFeeService;
+
+    /**
+     * Constructs a new ReactiveDeliveryFeeRoutes.
+     *
+     * @param deliveryFeeQuoter       the quoter answering single quotes and timelines
+     * @param batchDeliveryFeeService the service used to quote many fees at once
+     */
+    public ReactiveDeliveryFeeRoutes(DeliveryFeeQuoter deliveryFeeQuoter, BatchDeliveryFeeService batchDeliveryFeeService) {
+        this.deliveryFeeQuoter = deliveryFeeQuoter;
+        this.batchDeliveryFeeService = batchDeliveryFeeService;
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> deliveryFeeRoutes() {
+        return RouterFunctions.route()
+                .GET("/api/deliveryfee", this::getDeliveryFee)
+                .POST("/api/deliveryfee/batch", this::getDeliveryFees)
+                .GET("/api/deliveryfee/timeline", this::getDeliveryFeeTimeline)
+                .build();
+    }
+
+    /**
+     * Serves the reactive application with Netty, even though Tomcat is on the classpath for the servlet stack.
+     *
+     * @return the web server factory
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Renders errors with the same attributes as the servlet stack's error controller. The reactive defaults add a
+     * {@code requestId}, which the servlet stack does not report.
+     *
+     * @return the error attributes of the reactive application
+     */
+    @Bean
+    public DefaultErrorAttributes errorAttributes() {
+        return new DefaultErrorAttributes() {
+            @Override
+            public Map<String, Object> getErrorAttributes(ServerRequest request, ErrorAttributeOptions options) {
+                Map<String, Object> attributes = super.getErrorAttributes(request, options);
+                attributes.remove("requestId");
+                return attributes;
+            }
+        };
+    }
+
+    private Mono<ServerResponse> getDeliveryFee(ServerRequest request) {
+        Optional<String> city = request.queryParam("city");
+        Optional<String> vehicleType = request.queryParam("vehicleType");
+        if (city.isEmpty() || vehicleType.isEmpty()) {
+            return missingParameter(city.isEmpty() ? "city" : "vehicleType");
+        }
+        return toServerResponse(deliveryFeeQuoter.quote(city.get(), vehicleType.get(),
+                request.queryParam("dateTime").orElse(null)));
+    }
+
+    private Mono<ServerResponse> getDeliveryFees(ServerRequest request) {
+        return request.bodyToMono(QUOTE_REQUESTS)
+                .flatMap(requests -> ServerResponse.ok().bodyValue(batchDeliveryFeeService.quote(requests)));
+    }
+
+    private Mono<ServerResponse> getDeliveryFeeTimeline(ServerRequest request) {
+        Optional<String> city = request.queryParam("city");
+        Optional<String> vehicleType = request.queryParam("vehicleType");
+        Optional<String> from = request.queryParam("from");
+        Optional<String> to = request.queryParam("to");
+        if (city.isEmpty()) {
+            return missingParameter("city");
+        }
+        if (vehicleType.isEmpty()) {
+            return missingParameter("vehicleType");
+        }
+        if (from.isEmpty()) {
+            return missingParameter("from");
+        }
+        if (to.isEmpty()) {
+            return missingParameter("to");
+        }
+        return toServerResponse(deliveryFeeQuoter.timeline(city.get(), vehicleType.get(), from.get(), to.get()));
+    }
+
+    private static Mono<ServerResponse> missingParameter(String name) {
+        return Mono.error(new ServerWebInputException("Required query parameter '" + name + "' is not present."));
+    }
+
+    private static Mono<ServerResponse> toServerResponse(ResponseEntity<?> entity) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(entity.getStatusCode())
+                .headers(headers -> headers.addAll(entity.getHeaders()));
+        return entity.getBody() != null ? builder.bodyValue(entity.getBody()) : builder.build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.fujitsu.fujitsu_food_delivery.dto;
+
+/**
+ * A single delivery fee quote request, as accepted by the batch and streaming quote endpoints.
+ *
+ * @param city         the name of the city (expected: Tallinn, Tartu, or Pärnu)
+ * @param vehicleType  the type of vehicle (expected: Car, Scooter, or Bike)
+ * @param dateTime     an optional ISO-formatted date/time string; null quotes the current fee
+ */
+public record DeliveryFeeQuoteRequest(String city, String vehicleType, String dateTime) {
+}
@@ -0,0 +1,23 @@
+package com.fujitsu.fujitsu_food_delivery.dto;
+
+/**
+ * The result of a single delivery fee quote request.
+ * Successful quotes carry the fee; failed quotes (e.g. forbidden vehicle usage) carry an error message instead.
+ *
+ * @param city         the city as given in the request
+ * @param vehicleType  the vehicle type as given in the request
+ * @param dateTime     the date/time as given in the request
+ * @param status       the HTTP status code the single-quote endpoint would have answered with
+ * @param fee          the calculated delivery fee, or null if the quote failed
+ * @param error        the error message, or null if the quote succeeded
+ */
+public record DeliveryFeeQuoteResult(String city, String vehicleType, String dateTime, int status, Double fee, String error) {
+
+    public static DeliveryFeeQuoteResult success(DeliveryFeeQuoteRequest request, double fee) {
+        return new DeliveryFeeQuoteResult(request.city(), request.vehicleType(), request.dateTime(), 200, fee, null);
+    }
+
+    public static DeliveryFeeQuoteResult failure(DeliveryFeeQuoteRequest request, int status, String error) {
+        return new DeliveryFeeQuoteResult(request.city(), request.vehicleType(), request.dateTime(), status, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.fujitsu.fujitsu_food_delivery.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A point of a delivery fee timeline: the fee that applies from the given time on,
+ * until the time of the next point (or the end of the requested range).
+ *
+ * @param from       the time (UTC) from which the fee applies
+ * @param fee        the delivery fee, or null if usage of the vehicle type is forbidden
+ * @param forbidden  whether usage of the vehicle type is forbidden
+ */
+public record FeeTimelinePoint(LocalDateTime from, Double fee, boolean forbidden) {
+}
@@ -0,0 +1,64 @@
+package com.fujitsu.fujitsu_food_delivery.entities;
+
+import jakarta.persistence.*;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+
+/**
+ * Entity representing a region that delivery fees can be quoted for.
+ * <p>
+ * A region is identified by the code used in requests, is observed by a weather station and is priced with the
+ * fee rules of its tariff. Several regions may share a station or a tariff.
+ * </p>
+ * The table and its initial regions are created by the Flyway migrations in {@code db/migration}.
+ */
+@Entity
+public class DeliveryRegion {
+
+    @Id
+    private String code;
+
+    private String stationName;
+
+    @Enumerated(EnumType.STRING)
+    private City tariff;
+
+    public DeliveryRegion() {
+    }
+
+    /**
+     * Constructs a new DeliveryRegion with the specified details.
+     *
+     * @param code        the code of the region, as used in requests
+     * @param stationName the name of the weather station that observes the region
+     * @param tariff      the tariff whose fee rules apply to the region
+     */
+    public DeliveryRegion(String code, String stationName, City tariff) {
+        this.code = code;
+        this.stationName = stationName;
+        this.tariff = tariff;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getStationName() {
+        return stationName;
+    }
+
+    public void setStationName(String stationName) {
+        this.stationName = stationName;
+    }
+
+    public City getTariff() {
+        return tariff;
+    }
+
+    public void setTariff(City tariff) {
+        this.tariff = tariff;
+    }
+}
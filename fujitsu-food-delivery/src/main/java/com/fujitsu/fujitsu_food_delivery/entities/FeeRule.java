@@ -11,6 +11,7 @@ import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
  * the applicable city and vehicle type, an optional condition (such as a temperature range),
  * and the associated fee amount.
  * </p>
+ * The table and its lookup index are created by the Flyway migrations in {@code db/migration}.
  */
 @Entity
 public class FeeRule {
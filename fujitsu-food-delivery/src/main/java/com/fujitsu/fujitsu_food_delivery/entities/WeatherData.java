@@ -1,12 +1,16 @@
 package com.fujitsu.fujitsu_food_delivery.entities;
 
 import jakarta.persistence.*;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
 
 /**
  * Entity representing weather data for a specific weather station.
  * This class stores weather-related information such as the station name, WMO code,
  * air temperature, wind speed, weather phenomenon, and a timestamp.
+ * The weather phenomenon is additionally stored as a category, classified once at import time.
  * The weather data is used for calculating delivery fees based on current or historical conditions.
+ * The table, its indexes and the unique (station name, timestamp) constraint are created by the Flyway
+ * migrations in {@code db/migration}.
  */
 @Entity
 public class WeatherData {
@@ -19,7 +23,11 @@ public class WeatherData {
     private Double airTemperature;
     private Double windSpeed;
     private String weatherPhenomenon;
-    private int timestamp;
+
+    @Enumerated(EnumType.STRING)
+    private WeatherPhenomenonCategory phenomenonCategory;
+
+    private long timestamp;
 
     public long getId() {
         return id;
@@ -69,11 +77,26 @@ public class WeatherData {
         this.weatherPhenomenon = weatherPhenomenon;
     }
 
-    public int getTimestamp() {
+    /**
+     * Returns the category of the weather phenomenon.
+     * Records created outside the importer may not have a stored category, in which case
+     * it is classified from the free-text phenomenon.
+     *
+     * @return the weather phenomenon category
+     */
+    public WeatherPhenomenonCategory getPhenomenonCategory() {
+        return phenomenonCategory != null ? phenomenonCategory : WeatherPhenomenonCategory.classify(weatherPhenomenon);
+    }
+
+    public void setPhenomenonCategory(WeatherPhenomenonCategory phenomenonCategory) {
+        this.phenomenonCategory = phenomenonCategory;
+    }
+
+    public long getTimestamp() {
         return timestamp;
     }
 
-    public void setTimestamp(int timestamp) {
+    public void setTimestamp(long timestamp) {
         this.timestamp = timestamp;
     }
 
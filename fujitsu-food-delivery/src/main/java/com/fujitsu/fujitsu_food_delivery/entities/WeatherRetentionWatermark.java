@@ -0,0 +1,58 @@
+package com.fujitsu.fujitsu_food_delivery.entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity recording how far the weather history retention has processed the observations of a station.
+ * <p>
+ * Each phase stores the end of the history it has processed (in UNIX time seconds, exclusive), or null if it has
+ * not processed any window of the station yet.
+ * </p>
+ * The table is created by the Flyway migrations in {@code db/migration}.
+ */
+@Entity
+public class WeatherRetentionWatermark {
+
+    @Id
+    private String stationName;
+
+    private Long compactedUntil;
+
+    private Long rolledUpUntil;
+
+    public WeatherRetentionWatermark() {
+    }
+
+    /**
+     * Constructs a new WeatherRetentionWatermark for a station that has not been processed yet.
+     *
+     * @param stationName the name of the weather station
+     */
+    public WeatherRetentionWatermark(String stationName) {
+        this.stationName = stationName;
+    }
+
+    public String getStationName() {
+        return stationName;
+    }
+
+    public void setStationName(String stationName) {
+        this.stationName = stationName;
+    }
+
+    public Long getCompactedUntil() {
+        return compactedUntil;
+    }
+
+    public void setCompactedUntil(Long compactedUntil) {
+        this.compactedUntil = compactedUntil;
+    }
+
+    public Long getRolledUpUntil() {
+        return rolledUpUntil;
+    }
+
+    public void setRolledUpUntil(Long rolledUpUntil) {
+        this.rolledUpUntil = rolledUpUntil;
+    }
+}
@@ -1,10 +1,28 @@
 package com.fujitsu.fujitsu_food_delivery.enums;
 
 /**
- * Enum representing the supported cities in the delivery fee calculation.
+ * Enum representing the cities whose fee rules are used in the delivery fee calculation.
+ * Each city knows the name of the weather station whose observations are used for it.
+ * Every delivery region of the RegionRegistry is priced with the fee rules (the tariff) of one of these cities,
+ * and each city is also registered as a region of its own.
  */
 public enum City {
-    TALLINN,
-    TARTU,
-    PÄRNU
+    TALLINN("Tallinn-Harku"),
+    TARTU("Tartu-Tõravere"),
+    PÄRNU("Pärnu");
+
+    private final String stationName;
+
+    City(String stationName) {
+        this.stationName = stationName;
+    }
+
+    /**
+     * Returns the name of the weather station that observes this city.
+     *
+     * @return the weather station name
+     */
+    public String getStationName() {
+        return stationName;
+    }
 }
@@ -6,7 +6,25 @@ package com.fujitsu.fujitsu_food_delivery.enums;
 public enum VehicleType {
     SCOOTER,
     BIKE,
-    CAR 
-}
+    CAR;
 
+    private static final VehicleType[] VALUES = values();
 
+    /**
+     * Resolves a vehicle type name as given in a request, ignoring case.
+     * Unlike {@code valueOf(name.toUpperCase())}, the lookup neither allocates nor throws.
+     *
+     * @param name the vehicle type name, or null
+     * @return the matching vehicle type, or null if the name is not a supported vehicle type
+     */
+    public static VehicleType fromName(String name) {
+        if (name != null) {
+            for (VehicleType vehicleType : VALUES) {
+                if (vehicleType.name().equalsIgnoreCase(name)) {
+                    return vehicleType;
+                }
+            }
+        }
+        return null;
+    }
+}
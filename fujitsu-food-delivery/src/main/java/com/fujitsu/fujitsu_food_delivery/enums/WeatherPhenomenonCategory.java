@@ -0,0 +1,38 @@
+package com.fujitsu.fujitsu_food_delivery.enums;
+
+/**
+ * Enum representing the categories of weather phenomena relevant for the delivery fee calculation.
+ * The free-text phenomenon reported by the weather station is classified into a category once,
+ * when the weather data is imported.
+ */
+public enum WeatherPhenomenonCategory {
+    NONE,
+    RAIN,
+    SNOW_SLEET,
+    GLAZE_HAIL_THUNDER;
+
+    /**
+     * Classifies a free-text weather phenomenon (e.g. "Light snow shower") into a category.
+     * Glaze, hail and thunder take precedence over snow and sleet, which take precedence over rain.
+     *
+     * @param phenomenon the weather phenomenon description, or null
+     * @return the matching category, or NONE if the phenomenon carries no extra fee
+     */
+    public static WeatherPhenomenonCategory classify(String phenomenon) {
+        if (phenomenon == null || phenomenon.isEmpty()) {
+            return NONE;
+        }
+        String phenomenonLower = phenomenon.toLowerCase();
+        if (phenomenonLower.contains("glaze") ||
+            phenomenonLower.contains("hail") ||
+            phenomenonLower.contains("thunder")) {
+            return GLAZE_HAIL_THUNDER;
+        } else if (phenomenonLower.contains("snow") ||
+                   phenomenonLower.contains("sleet")) {
+            return SNOW_SLEET;
+        } else if (phenomenonLower.contains("rain")) {
+            return RAIN;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fujitsu.fujitsu_food_delivery.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published whenever a fee rule is created, updated or deleted.
+ * Components that keep compiled copies of the fee rule table listen for this event
+ * and rebuild their state from the repository.
+ */
+public class FeeRulesChangedEvent extends ApplicationEvent {
+
+    /**
+     * Constructs a new FeeRulesChangedEvent.
+     *
+     * @param source the component that changed the fee rules
+     */
+    public FeeRulesChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,32 @@
+package com.fujitsu.fujitsu_food_delivery.events;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+
+/**
+ * Event published by the weather importer after a successful import.
+ * It carries the weather data records that were stored during the import, so that in-memory
+ * views of the weather data can be updated without querying the database.
+ */
+public class WeatherDataImportedEvent extends ApplicationEvent {
+
+    private final List<WeatherData> weatherData;
+
+    /**
+     * Constructs a new WeatherDataImportedEvent.
+     *
+     * @param source       the component that imported the weather data
+     * @param weatherData  the weather data records stored during the import
+     */
+    public WeatherDataImportedEvent(Object source, List<WeatherData> weatherData) {
+        super(source);
+        this.weatherData = List.copyOf(weatherData);
+    }
+
+    public List<WeatherData> getWeatherData() {
+        return weatherData;
+    }
+}
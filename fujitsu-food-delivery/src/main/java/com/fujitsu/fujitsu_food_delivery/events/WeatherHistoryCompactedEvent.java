@@ -0,0 +1,53 @@
+package com.fujitsu.fujitsu_food_delivery.events;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+
+/**
+ * Event published by the weather history retention task after it has compacted or rolled up a time range
+ * of one station's observations. It carries the records that remain in the range, so that in-memory views
+ * of the weather history can replace the range without querying the database.
+ */
+public class WeatherHistoryCompactedEvent extends ApplicationEvent {
+
+    private final String stationName;
+    private final long from;
+    private final long to;
+    private final List<WeatherData> remaining;
+
+    /**
+     * Constructs a new WeatherHistoryCompactedEvent.
+     *
+     * @param source       the component that compacted the history
+     * @param stationName  the name of the weather station
+     * @param from         the start of the compacted range (in UNIX time seconds, inclusive)
+     * @param to           the end of the compacted range (in UNIX time seconds, exclusive)
+     * @param remaining    the records stored in the range after compaction, sorted by timestamp
+     */
+    public WeatherHistoryCompactedEvent(Object source, String stationName, long from, long to, List<WeatherData> remaining) {
+        super(source);
+        this.stationName = stationName;
+        this.from = from;
+        this.to = to;
+        this.remaining = List.copyOf(remaining);
+    }
+
+    public String getStationName() {
+        return stationName;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public List<WeatherData> getRemaining() {
+        return remaining;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fujitsu.fujitsu_food_delivery.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.services.Region;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of the delivery fee quoting endpoint.
+ * <ul>
+ *     <li>{@code delivery.fee.quote}: latency histogram of single quotes, tagged by city, vehicle type,
+ *         mode (current or historical) and HTTP status</li>
+ *     <li>{@code delivery.fee.forbidden}: number of quotes answered with forbidden vehicle usage,
+ *         tagged by city and vehicle type</li>
+ * </ul>
+ * Cities are tagged with the code of their region. Unknown city or vehicle type parameters are tagged as
+ * {@code invalid}, so that arbitrary input cannot create new time series.
+ */
+@Component
+public class DeliveryFeeMetrics {
+
+    static final String QUOTE_TIMER = "delivery.fee.quote";
+    static final String FORBIDDEN_COUNTER = "delivery.fee.forbidden";
+    private static final String INVALID = "invalid";
+
+    private final MeterRegistry meterRegistry;
+    private final RegionRegistry regionRegistry;
+
+    /**
+     * Constructs a new DeliveryFeeMetrics.
+     *
+     * @param meterRegistry  the registry the metrics are registered with
+     * @param regionRegistry the registry the requested cities are resolved with
+     */
+    public DeliveryFeeMetrics(MeterRegistry meterRegistry, RegionRegistry regionRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.regionRegistry = regionRegistry;
+    }
+
+    /**
+     * Records the latency and outcome of a single quote.
+     *
+     * @param cityParam         the city as requested
+     * @param vehicleTypeParam  the vehicle type as requested
+     * @param historical        whether a date/time was requested
+     * @param status            the HTTP status of the response
+     * @param durationNanos     the time taken to answer the quote
+     */
+    public void recordQuote(String cityParam, String vehicleTypeParam, boolean historical, int status, long durationNanos) {
+        Timer.builder(QUOTE_TIMER)
+                .description("Latency of delivery fee quotes")
+                .tag("city", tagValue(regionRegistry.find(cityParam)))
+                .tag("vehicle.type", tagValue(VehicleType.fromName(vehicleTypeParam)))
+                .tag("mode", historical ? "historical" : "current")
+                .tag("status", Integer.toString(status))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a quote that was answered with forbidden vehicle usage.
+     *
+     * @param region       the region of the quote
+     * @param vehicleType  the vehicle type of the quote
+     */
+    public void recordForbidden(Region region, VehicleType vehicleType) {
+        Counter.builder(FORBIDDEN_COUNTER)
+                .description("Delivery fee quotes answered with forbidden vehicle usage")
+                .tag("city", region.code())
+                .tag("vehicle.type", vehicleType.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String tagValue(Region region) {
+        return region == null ? INVALID : region.code();
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value == null ? INVALID : value.name();
+    }
+}
@@ -0,0 +1,65 @@
+package com.fujitsu.fujitsu_food_delivery.metrics;
+
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+import com.fujitsu.fujitsu_food_delivery.services.CurrentFeeMatrix;
+import com.fujitsu.fujitsu_food_delivery.services.LatestWeatherDataCache;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exports the hit and miss counts of the in-memory structures in the fee path as {@code cache.gets} counters,
+ * tagged by cache name and result, following Micrometer's cache metric conventions.
+ * The hit rate of a cache is {@code hit / (hit + miss)}.
+ * The counts are kept by the structures themselves and only read when the metrics are published.
+ */
+@Component
+public class FeePathCacheMetrics implements MeterBinder {
+
+    static final String CACHE_GETS = "cache.gets";
+
+    private final LatestWeatherDataCache latestWeatherDataCache;
+    private final WeatherTimeSeriesIndex weatherTimeSeriesIndex;
+    private final CurrentFeeMatrix currentFeeMatrix;
+
+    /**
+     * Constructs a new FeePathCacheMetrics.
+     *
+     * @param latestWeatherDataCache the cache holding the latest observation of every station
+     * @param weatherTimeSeriesIndex the index used for historical quotes
+     * @param currentFeeMatrix       the precomputed current-time responses
+     */
+    public FeePathCacheMetrics(LatestWeatherDataCache latestWeatherDataCache, WeatherTimeSeriesIndex weatherTimeSeriesIndex,
+                               CurrentFeeMatrix currentFeeMatrix) {
+        this.latestWeatherDataCache = latestWeatherDataCache;
+        this.weatherTimeSeriesIndex = weatherTimeSeriesIndex;
+        this.currentFeeMatrix = currentFeeMatrix;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "latestWeatherData", latestWeatherDataCache,
+                LatestWeatherDataCache::getHitCount, LatestWeatherDataCache::getMissCount);
+        bind(registry, "weatherTimeSeries", weatherTimeSeriesIndex,
+                WeatherTimeSeriesIndex::getHitCount, WeatherTimeSeriesIndex::getMissCount);
+        bind(registry, "currentFeeMatrix", currentFeeMatrix,
+                CurrentFeeMatrix::getHitCount, CurrentFeeMatrix::getMissCount);
+    }
+
+    private static <T> void bind(MeterRegistry registry, String cacheName, T cache,
+                                 ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+        FunctionCounter.builder(CACHE_GETS, cache, hits)
+                .description("The number of times cache lookup methods have returned a cached value")
+                .tags("cache", cacheName, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder(CACHE_GETS, cache, misses)
+                .description("The number of times cache lookup methods have not returned a value")
+                .tags("cache", cacheName, "result", "miss")
+                .register(registry);
+    }
+}
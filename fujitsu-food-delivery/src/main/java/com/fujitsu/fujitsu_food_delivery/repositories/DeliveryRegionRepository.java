@@ -0,0 +1,14 @@
+package com.fujitsu.fujitsu_food_delivery.repositories;
+
+import com.fujitsu.fujitsu_food_delivery.entities.DeliveryRegion;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for managing DeliveryRegion entities.
+ * The regions are read once at startup by the RegionRegistry.
+ */
+@Repository
+public interface DeliveryRegionRepository extends JpaRepository<DeliveryRegion, String> {
+}
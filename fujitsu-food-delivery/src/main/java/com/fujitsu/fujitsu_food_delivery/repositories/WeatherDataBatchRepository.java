@@ -0,0 +1,21 @@
+package com.fujitsu.fujitsu_food_delivery.repositories;
+
+import java.util.List;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+
+/**
+ * Batch write operations of the WeatherDataRepository that are implemented with plain JDBC.
+ */
+public interface WeatherDataBatchRepository {
+
+    /**
+     * Inserts the given observations in one transaction and one JDBC batch, skipping every observation
+     * whose station already has an observation with the same timestamp. Existing rows are never updated.
+     * The inserted records are not assigned their generated ids.
+     *
+     * @param weatherData the observations to insert
+     * @return the observations that were inserted, in the given order
+     */
+    List<WeatherData> insertMissing(List<WeatherData> weatherData);
+}
@@ -0,0 +1,75 @@
+package com.fujitsu.fujitsu_food_delivery.repositories;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+
+/**
+ * JDBC implementation of the WeatherDataBatchRepository, picked up by Spring Data as a fragment
+ * of the WeatherDataRepository.
+ * <p>
+ * Observations are written with a MERGE on (station name, timestamp) that only inserts missing rows,
+ * so re-importing an unchanged feed writes nothing. Each statement's update count tells whether its
+ * observation was inserted (1) or already stored (0).
+ * </p>
+ */
+public class WeatherDataBatchRepositoryImpl implements WeatherDataBatchRepository {
+
+    private static final String INSERT_MISSING_SQL = """
+            MERGE INTO weather_data t
+            USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION),
+                           CAST(? AS DOUBLE PRECISION), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(32)), CAST(? AS BIGINT)))
+                AS s (station_name, wmo_code, air_temperature, wind_speed, weather_phenomenon, phenomenon_category, timestamp)
+            ON t.station_name = s.station_name AND t.timestamp = s.timestamp
+            WHEN NOT MATCHED THEN
+                INSERT (station_name, wmo_code, air_temperature, wind_speed, weather_phenomenon, phenomenon_category, timestamp)
+                VALUES (s.station_name, s.wmo_code, s.air_temperature, s.wind_speed, s.weather_phenomenon,
+                        s.phenomenon_category, s.timestamp)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a new WeatherDataBatchRepositoryImpl.
+     *
+     * @param jdbcTemplate the template used to run the batch
+     */
+    public WeatherDataBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public List<WeatherData> insertMissing(List<WeatherData> weatherData) {
+        if (weatherData.isEmpty()) {
+            return List.of();
+        }
+        int[][] updateCounts = jdbcTemplate.batchUpdate(INSERT_MISSING_SQL, weatherData, weatherData.size(),
+                (statement, record) -> {
+                    statement.setString(1, record.getStationName());
+                    statement.setString(2, record.getWmoCode());
+                    statement.setObject(3, record.getAirTemperature(), Types.DOUBLE);
+                    statement.setObject(4, record.getWindSpeed(), Types.DOUBLE);
+                    statement.setString(5, record.getWeatherPhenomenon());
+                    statement.setString(6, record.getPhenomenonCategory().name());
+                    statement.setLong(7, record.getTimestamp());
+                });
+
+        List<WeatherData> inserted = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int updateCount : batch) {
+                if (updateCount > 0) {
+                    inserted.add(weatherData.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+}
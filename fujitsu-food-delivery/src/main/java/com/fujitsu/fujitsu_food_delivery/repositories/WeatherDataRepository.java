@@ -1,34 +1,108 @@
 package com.fujitsu.fujitsu_food_delivery.repositories;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
 
 /**
  * Repository interface for managing entities.
  * This interface extends JpaRepository, providing standard CRUD operations and query derivation for
  * WeatherData objects. Spring Data JPA will generate the implementation at runtime.
+ * The batch insert of imported observations is provided by the JDBC-based WeatherDataBatchRepository fragment.
  */
-public interface WeatherDataRepository extends JpaRepository<WeatherData, Long> {
+public interface WeatherDataRepository extends JpaRepository<WeatherData, Long>, WeatherDataBatchRepository {
 
     /**
      * Finds the most recent WeatherData record for the specified station name.
-     * The query is derived from the method name: it orders the weather data in descending order based on the
-     * timestamp and returns the first record.
+     * The query orders the weather data in descending order based on the timestamp and returns the first record.
+     * It orders by the station name as well, so that it matches the (station_name, timestamp DESC) index
+     * and the database reads the first index entry instead of sorting all observations of the station.
      *
      * @param stationName the name of the weather station
      * @return an Optional containing the latest WeatherData if found, or empty otherwise
      */
-    Optional<WeatherData> findFirstByStationNameOrderByTimestampDesc(String stationName);
+    @Query("SELECT w FROM WeatherData w WHERE w.stationName = :stationName "
+            + "ORDER BY w.stationName, w.timestamp DESC LIMIT 1")
+    Optional<WeatherData> findFirstByStationNameOrderByTimestampDesc(@Param("stationName") String stationName);
 
      /**
      * Finds the most recent WeatherData record for the specified station name with a timestamp
      * less than or equal to the provided value.
-     * The query is derived from the method name: it orders the matching records in descending order by the timestamp and returns the first record.
+     * The query orders the matching records in descending order by the timestamp and returns the first record,
+     * reading it from the (station_name, timestamp DESC) index like {@link #findFirstByStationNameOrderByTimestampDesc}.
      *
      * @param stationName the name of the weather station
      * @param timestamp   the maximum timestamp (in UNIX time seconds) for which data should be retrieved
      * @return an Optional containing the appropriate WeatherData if found, or empty otherwise
      */
-    Optional<WeatherData> findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(String stationName, long timestamp);
+    @Query("SELECT w FROM WeatherData w WHERE w.stationName = :stationName AND w.timestamp <= :timestamp "
+            + "ORDER BY w.stationName, w.timestamp DESC LIMIT 1")
+    Optional<WeatherData> findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(
+            @Param("stationName") String stationName, @Param("timestamp") long timestamp);
+
+    /**
+     * Finds the most recent WeatherData records of every station.
+     *
+     * @return the WeatherData record carrying the latest timestamp of each station
+     */
+    @Query("SELECT w FROM WeatherData w WHERE w.timestamp = "
+            + "(SELECT MAX(w2.timestamp) FROM WeatherData w2 WHERE w2.stationName = w.stationName)")
+    List<WeatherData> findLatestOfEachStation();
+
+    /**
+     * Streams the fee-relevant columns of all WeatherData records, ordered by timestamp.
+     * Each row contains the station name, timestamp, air temperature, wind speed, phenomenon category
+     * and phenomenon text, in that order. Rows are scalar projections and are not managed by the persistence context.
+     * The stream must be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of observation rows
+     */
+    @Query("SELECT w.stationName, w.timestamp, w.airTemperature, w.windSpeed, w.phenomenonCategory, w.weatherPhenomenon "
+            + "FROM WeatherData w ORDER BY w.timestamp")
+    Stream<Object[]> streamAllObservationsOrderByTimestamp();
+
+    /**
+     * Finds the names of all stations that have stored observations.
+     *
+     * @return the distinct station names
+     */
+    @Query("SELECT DISTINCT w.stationName FROM WeatherData w")
+    List<String> findDistinctStationNames();
+
+    /**
+     * Finds the earliest observation time of a station at or after the given time.
+     *
+     * @param stationName the name of the weather station
+     * @param timestamp   the minimum timestamp (in UNIX time seconds)
+     * @return the earliest matching timestamp, or null if the station has no later observations
+     */
+    @Query("SELECT MIN(w.timestamp) FROM WeatherData w WHERE w.stationName = :stationName AND w.timestamp >= :timestamp")
+    Long findFirstTimestampAtOrAfter(@Param("stationName") String stationName, @Param("timestamp") long timestamp);
+
+    /**
+     * Finds the earliest observation time of a station that does not fall on the start of an hour.
+     * Hourly aggregates are stamped at the start of their hour, so this is where hourly rollup has to resume.
+     *
+     * @param stationName the name of the weather station
+     * @return the earliest timestamp not on an hour, or null if every observation of the station is
+     */
+    @Query("SELECT MIN(w.timestamp) FROM WeatherData w WHERE w.stationName = :stationName AND MOD(w.timestamp, 3600) <> 0")
+    Long findFirstTimestampNotOnHour(@Param("stationName") String stationName);
+
+    /**
+     * Finds the observations of a station within a time range, ordered by timestamp.
+     *
+     * @param stationName the name of the weather station
+     * @param from        the start of the range (in UNIX time seconds, inclusive)
+     * @param to          the end of the range (in UNIX time seconds, exclusive)
+     * @return the observations in the range
+     */
+    @Query("SELECT w FROM WeatherData w WHERE w.stationName = :stationName "
+            + "AND w.timestamp >= :from AND w.timestamp < :to ORDER BY w.timestamp")
+    List<WeatherData> findByStationNameInRange(@Param("stationName") String stationName,
+                                               @Param("from") long from, @Param("to") long to);
 }
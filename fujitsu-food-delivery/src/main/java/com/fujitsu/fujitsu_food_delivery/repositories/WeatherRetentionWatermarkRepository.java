@@ -0,0 +1,14 @@
+package com.fujitsu.fujitsu_food_delivery.repositories;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherRetentionWatermark;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for managing WeatherRetentionWatermark entities.
+ * The watermarks are read and advanced by the WeatherHistoryCompactor, in the transaction of each processed window.
+ */
+@Repository
+public interface WeatherRetentionWatermarkRepository extends JpaRepository<WeatherRetentionWatermark, String> {
+}
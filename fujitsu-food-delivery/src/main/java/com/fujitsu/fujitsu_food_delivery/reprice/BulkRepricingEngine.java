@@ -0,0 +1,456 @@
+package com.fujitsu.fujitsu_food_delivery.reprice;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable;
+import com.fujitsu.fujitsu_food_delivery.services.Region;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex.StationSeries;
+
+/**
+ * Offline engine that reprices large files of historical deliveries.
+ * <p>
+ * The input is a CSV file with one {@code city,vehicleType,epochSecond} record per line, where the city is the code
+ * of a registered region (matched ignoring the case of ASCII letters). Every input line is
+ * copied to the output with the fee appended as a fourth column: the fee in euros with two decimals, or one of
+ * {@code FORBIDDEN}, {@code NO_DATA} (no observation at or before the delivery time) and {@code INVALID}.
+ * </p>
+ * <p>
+ * The input is split at line boundaries into chunks, which are memory-mapped and repriced in parallel.
+ * Within a chunk the records are joined against each station's observation series with a merge-join: a cursor per
+ * region only moves forward while the records are sorted by time, and falls back to a binary search when a record
+ * goes back in time. Region codes are resolved through a hash table over their bytes, so the cost of a record does
+ * not depend on the number of regions. Fees are read from the precomputed FeeLookupTable, and the output of a chunk is written
+ * into a single reusable buffer, so no objects are allocated per record. Chunk outputs are written in input order.
+ * </p>
+ * <p>
+ * All records are priced against the fee rules and weather series captured when the engine is constructed.
+ * </p>
+ */
+public class BulkRepricingEngine {
+
+    /**
+     * Default size of the input chunks (in bytes) that are mapped and repriced as one unit of work.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final byte[][] VEHICLE_TYPE_NAMES = names(VEHICLE_TYPES);
+
+    private static final byte[] FORBIDDEN = "FORBIDDEN".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NO_DATA = "NO_DATA".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID = "INVALID".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Upper bound of the bytes appended to a line: a separator, the longest fee and a line break.
+     */
+    private static final int MAX_APPENDED_BYTES = 16;
+
+    private final FeeLookupTable feeLookupTable;
+    private final Region[] regions;
+    private final StationSeries[] seriesByRegion;
+    private final byte[][] regionCodeTable;
+    private final int[] regionIndexTable;
+    private final int parallelism;
+    private final int chunkSize;
+
+    /**
+     * Constructs a new BulkRepricingEngine of the built-in regions that uses all available processors and the
+     * default chunk size.
+     *
+     * @param feeLookupTable         the fee table to price with
+     * @param weatherTimeSeriesIndex the index holding the weather history of every station
+     */
+    public BulkRepricingEngine(FeeLookupTable feeLookupTable, WeatherTimeSeriesIndex weatherTimeSeriesIndex) {
+        this(feeLookupTable, weatherTimeSeriesIndex, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a new BulkRepricingEngine of the built-in regions.
+     *
+     * @param feeLookupTable         the fee table to price with
+     * @param weatherTimeSeriesIndex the index holding the weather history of every station
+     * @param parallelism            the number of chunks repriced concurrently
+     * @param chunkSize              the approximate size of a chunk in bytes
+     */
+    public BulkRepricingEngine(FeeLookupTable feeLookupTable, WeatherTimeSeriesIndex weatherTimeSeriesIndex,
+                               int parallelism, int chunkSize) {
+        this(feeLookupTable, weatherTimeSeriesIndex, RegionRegistry.defaults(), parallelism, chunkSize);
+    }
+
+    /**
+     * Constructs a new BulkRepricingEngine.
+     *
+     * @param feeLookupTable         the fee table to price with
+     * @param weatherTimeSeriesIndex the index holding the weather history of every station
+     * @param regionRegistry         the regions that records can be priced for
+     * @param parallelism            the number of chunks repriced concurrently
+     * @param chunkSize              the approximate size of a chunk in bytes
+     */
+    public BulkRepricingEngine(FeeLookupTable feeLookupTable, WeatherTimeSeriesIndex weatherTimeSeriesIndex,
+                               RegionRegistry regionRegistry, int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.feeLookupTable = feeLookupTable;
+        this.regions = regionRegistry.getRegions().toArray(Region[]::new);
+        this.seriesByRegion = new StationSeries[regions.length];
+        for (Region region : regions) {
+            seriesByRegion[region.index()] = weatherTimeSeriesIndex.getSeries(region.stationName());
+        }
+        // Open-addressing table of at most half load, so that a probe sequence ends at an empty slot quickly
+        int tableSize = Integer.highestOneBit(regions.length * 4 - 1);
+        this.regionCodeTable = new byte[tableSize][];
+        this.regionIndexTable = new int[tableSize];
+        for (Region region : regions) {
+            byte[] code = region.code().getBytes(StandardCharsets.UTF_8);
+            int slot = hash(code, 0, code.length) & (tableSize - 1);
+            while (regionCodeTable[slot] != null) {
+                slot = (slot + 1) & (tableSize - 1);
+            }
+            regionCodeTable[slot] = code;
+            regionIndexTable[slot] = region.index();
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reprices every record of the input file and writes the results to the output file.
+     *
+     * @param input  the CSV file of delivery records
+     * @param output the file the priced records are written to; replaced if it exists
+     * @return the number of records per outcome
+     * @throws IOException if reading the input or writing the output fails
+     */
+    public RepricingSummary reprice(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long[] boundaries = chunkBoundaries(in);
+            long[] totals = new long[Outcome.COUNT];
+
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                // At most two chunks per thread are in flight, which bounds the memory held by unwritten outputs
+                Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+                int next = 0;
+                while (next < boundaries.length - 1 || !inFlight.isEmpty()) {
+                    while (next < boundaries.length - 1 && inFlight.size() < parallelism * 2) {
+                        long start = boundaries[next];
+                        long end = boundaries[next + 1];
+                        inFlight.add(executor.submit(() -> repriceChunk(in, start, end)));
+                        next++;
+                    }
+                    ChunkResult result = await(inFlight.poll());
+                    ByteBuffer buffer = result.output().flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    for (int i = 0; i < totals.length; i++) {
+                        totals[i] += result.counts()[i];
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            return new RepricingSummary(totals[Outcome.PRICED], totals[Outcome.FORBIDDEN],
+                    totals[Outcome.NO_DATA], totals[Outcome.INVALID]);
+        }
+    }
+
+    /**
+     * Splits the input into chunks of about the configured size that end right after a line break.
+     *
+     * @return the chunk boundaries, starting with 0 and ending with the file size
+     */
+    private long[] chunkBoundaries(FileChannel in) throws IOException {
+        long size = in.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = chunkSize;
+        while (position < size) {
+            long lineEnd = -1;
+            while (lineEnd < 0 && position < size) {
+                probe.clear();
+                int read = in.read(probe, position);
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        lineEnd = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (lineEnd < 0 || lineEnd >= size) {
+                break;
+            }
+            boundaries.add(lineEnd);
+            position = lineEnd + chunkSize;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private ChunkResult repriceChunk(FileChannel in, long start, long end) throws IOException {
+        MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = data.limit();
+        ByteBuffer output = ByteBuffer.allocate(limit + limit / 2 + MAX_APPENDED_BYTES);
+        int[] cursors = new int[regions.length];
+        Arrays.fill(cursors, -1);
+        long[] counts = new long[Outcome.COUNT];
+
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && data.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && data.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart) {
+                int length = contentEnd - lineStart;
+                if (output.remaining() < length + MAX_APPENDED_BYTES) {
+                    output = grow(output, length + MAX_APPENDED_BYTES);
+                }
+                output.put(output.position(), data, lineStart, length);
+                output.position(output.position() + length);
+                output.put((byte) ',');
+                counts[priceLine(data, lineStart, contentEnd, cursors, output)]++;
+                output.put((byte) '\n');
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new ChunkResult(output, counts);
+    }
+
+    /**
+     * Prices a single record and appends its fee column to the output.
+     *
+     * @return the outcome of the record
+     */
+    private int priceLine(ByteBuffer data, int from, int to, int[] cursors, ByteBuffer output) {
+        int firstComma = indexOf(data, ',', from, to);
+        int secondComma = firstComma < 0 ? -1 : indexOf(data, ',', firstComma + 1, to);
+        int region = secondComma < 0 ? -1 : matchRegion(data, from, firstComma);
+        int vehicleType = region < 0 ? -1 : match(VEHICLE_TYPE_NAMES, data, firstComma + 1, secondComma);
+        if (vehicleType < 0 || !isNumber(data, secondComma + 1, to)) {
+            output.put(INVALID);
+            return Outcome.INVALID;
+        }
+        long timestamp = parseLong(data, secondComma + 1, to);
+
+        StationSeries series = seriesByRegion[region];
+        int position = cursors[region];
+        if (position < 0 || timestamp < series.timestampAt(position)) {
+            position = series.indexAtOrBefore(timestamp);
+        } else {
+            int size = series.size();
+            while (position + 1 < size && series.timestampAt(position + 1) <= timestamp) {
+                position++;
+            }
+        }
+        cursors[region] = position;
+        if (position < 0) {
+            output.put(NO_DATA);
+            return Outcome.NO_DATA;
+        }
+
+        int cents = feeLookupTable.getCents(regions[region].tariff(), VEHICLE_TYPES[vehicleType],
+                feeLookupTable.temperatureBand(series.airTemperatureAt(position)),
+                feeLookupTable.windBand(series.windSpeedAt(position)),
+                FeeLookupTable.phenomenonClass(series.phenomenonCategoryAt(position)));
+        if (cents == FeeLookupTable.FORBIDDEN) {
+            output.put(FORBIDDEN);
+            return Outcome.FORBIDDEN;
+        }
+        if (cents < 0) {
+            output.put((byte) '-');
+            cents = -cents;
+        }
+        putDigits(output, cents / 100);
+        output.put((byte) '.');
+        output.put((byte) ('0' + cents % 100 / 10));
+        output.put((byte) ('0' + cents % 10));
+        return Outcome.PRICED;
+    }
+
+    private static int indexOf(ByteBuffer data, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Matches a field against the region codes, ignoring the case of ASCII letters.
+     *
+     * @return the index of the matching region, or -1 if none matches
+     */
+    private int matchRegion(ByteBuffer data, int from, int to) {
+        int mask = regionCodeTable.length - 1;
+        for (int slot = hash(data, from, to) & mask; regionCodeTable[slot] != null; slot = (slot + 1) & mask) {
+            if (matches(regionCodeTable[slot], data, from, to)) {
+                return regionIndexTable[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Matches a field against upper-case enum names, ignoring the case of ASCII letters.
+     *
+     * @return the ordinal of the matching name, or -1 if none matches
+     */
+    private static int match(byte[][] names, ByteBuffer data, int from, int to) {
+        for (int ordinal = 0; ordinal < names.length; ordinal++) {
+            if (matches(names[ordinal], data, from, to)) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] name, ByteBuffer data, int from, int to) {
+        if (name.length != to - from) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (upperCase(data.get(from + i)) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(ByteBuffer data, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + upperCase(data.get(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(byte[] name, int from, int to) {
+        return hash(ByteBuffer.wrap(name), from, to);
+    }
+
+    private static byte upperCase(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    private static boolean isNumber(ByteBuffer data, int from, int to) {
+        int start = from < to && data.get(from) == '-' ? from + 1 : from;
+        if (start == to || to - start > 18) {
+            return false;
+        }
+        for (int i = start; i < to; i++) {
+            byte b = data.get(i);
+            if (b < '0' || b > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseLong(ByteBuffer data, int from, int to) {
+        boolean negative = data.get(from) == '-';
+        long value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            value = value * 10 + (data.get(i) - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static void putDigits(ByteBuffer output, int value) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = output.position() + digits;
+        for (int i = end - 1; i >= output.position(); i--) {
+            output.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        output.position(end);
+    }
+
+    private static ByteBuffer grow(ByteBuffer output, int needed) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(output.capacity() * 2, output.position() + needed));
+        return grown.put(output.flip());
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = value.name().getBytes(StandardCharsets.UTF_8);
+        }
+        return names;
+    }
+
+    private static ChunkResult await(Future<ChunkResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Repricing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Repricing failed", e.getCause());
+        }
+    }
+
+    private record ChunkResult(ByteBuffer output, long[] counts) {
+    }
+
+    /**
+     * Indexes of the per-outcome record counters.
+     */
+    private static final class Outcome {
+        static final int PRICED = 0;
+        static final int FORBIDDEN = 1;
+        static final int NO_DATA = 2;
+        static final int INVALID = 3;
+        static final int COUNT = 4;
+    }
+
+    /**
+     * The number of repriced records per outcome.
+     *
+     * @param priced     records for which a fee was calculated
+     * @param forbidden  records whose vehicle type was forbidden at the delivery time
+     * @param noData     records without an observation at or before the delivery time
+     * @param invalid    lines that are not valid delivery records
+     */
+    public record RepricingSummary(long priced, long forbidden, long noData, long invalid) {
+
+        public long total() {
+            return priced + forbidden + noData + invalid;
+        }
+    }
+}
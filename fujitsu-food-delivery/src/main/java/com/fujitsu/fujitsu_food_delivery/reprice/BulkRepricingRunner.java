@@ -0,0 +1,126 @@
+package com.fujitsu.fujitsu_food_delivery.reprice;
+
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.fujitsu.fujitsu_food_delivery.reprice.BulkRepricingEngine.RepricingSummary;
+import com.fujitsu.fujitsu_food_delivery.services.DynamicFeeCalculationService;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+
+/**
+ * Command-line mode that reprices a file of historical deliveries with the current fee rules and then exits.
+ * <p>
+ * The mode is enabled by setting the {@code reprice.input} property, for example:
+ * {@code java -jar fujitsu-food-delivery.jar --reprice.input=deliveries.csv --spring.main.web-application-type=none}.
+ * The output is written to {@code reprice.output} (by default the input path with a {@code .priced.csv} suffix),
+ * and {@code reprice.parallelism} limits the number of threads (by default all available processors).
+ * </p>
+ * <p>
+ * The runner runs after the fee rules have been seeded. Since application runners run before the application
+ * is ready, it loads the weather history and the fee rules itself before pricing. Once the runner has finished,
+ * the application's main method closes the context and exits with the code this runner generates: 0 if the run
+ * priced at least one record and found no invalid ones, {@link #EXIT_INVALID_RECORDS} if the input held invalid
+ * records, and {@link #EXIT_NOTHING_PRICED} if otherwise no record could be priced.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty("reprice.input")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BulkRepricingRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    /**
+     * Exit code of a run whose input held invalid records.
+     */
+    public static final int EXIT_INVALID_RECORDS = 2;
+
+    /**
+     * Exit code of a run that priced no record, e.g. because the input was empty or no weather data was stored.
+     */
+    public static final int EXIT_NOTHING_PRICED = 3;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkRepricingRunner.class);
+
+    private final DynamicFeeCalculationService dynamicFeeCalculationService;
+    private final WeatherTimeSeriesIndex weatherTimeSeriesIndex;
+    private final RegionRegistry regionRegistry;
+    private final Path input;
+    private final Path output;
+    private final int parallelism;
+    private volatile int exitCode;
+
+    /**
+     * Constructs a new BulkRepricingRunner.
+     *
+     * @param dynamicFeeCalculationService the service holding the current fee rules
+     * @param weatherTimeSeriesIndex       the index holding the weather history of every station
+     * @param regionRegistry               the regions that records can be priced for
+     * @param input                        the CSV file of delivery records
+     * @param output                       the file the priced records are written to, or empty for the default
+     * @param parallelism                  the number of threads, or 0 for all available processors
+     */
+    public BulkRepricingRunner(DynamicFeeCalculationService dynamicFeeCalculationService,
+                               WeatherTimeSeriesIndex weatherTimeSeriesIndex,
+                               RegionRegistry regionRegistry,
+                               @Value("${reprice.input}") String input,
+                               @Value("${reprice.output:}") String output,
+                               @Value("${reprice.parallelism:0}") int parallelism) {
+        this.dynamicFeeCalculationService = dynamicFeeCalculationService;
+        this.weatherTimeSeriesIndex = weatherTimeSeriesIndex;
+        this.regionRegistry = regionRegistry;
+        this.input = Path.of(input);
+        this.output = output.isEmpty() ? Path.of(input + ".priced.csv") : Path.of(output);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        weatherTimeSeriesIndex.rebuild();
+        dynamicFeeCalculationService.reloadFeeRules();
+
+        BulkRepricingEngine engine = new BulkRepricingEngine(dynamicFeeCalculationService.getFeeLookupTable(),
+                weatherTimeSeriesIndex, regionRegistry, parallelism, BulkRepricingEngine.DEFAULT_CHUNK_SIZE);
+        long start = System.nanoTime();
+        RepricingSummary summary = engine.reprice(input, output);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        LOGGER.info("Repriced {} records from {} to {} in {} ms: {} priced, {} forbidden, {} without weather data, "
+                + "{} invalid", summary.total(), input, output, millis, summary.priced(), summary.forbidden(),
+                summary.noData(), summary.invalid());
+        exitCode = exitCode(summary);
+    }
+
+    /**
+     * Returns the exit code of the repricing mode. Failures abort the application startup before this is asked,
+     * so it only reflects the outcome of a completed run.
+     *
+     * @return the exit code
+     */
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Returns the exit code of a completed run.
+     *
+     * @param summary the summary of the run
+     * @return 0, {@link #EXIT_INVALID_RECORDS} or {@link #EXIT_NOTHING_PRICED}
+     */
+    static int exitCode(RepricingSummary summary) {
+        if (summary.invalid() > 0) {
+            return EXIT_INVALID_RECORDS;
+        }
+        return summary.priced() == 0 ? EXIT_NOTHING_PRICED : 0;
+    }
+}
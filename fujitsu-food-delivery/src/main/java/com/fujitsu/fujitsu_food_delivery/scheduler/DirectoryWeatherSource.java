@@ -0,0 +1,79 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * WeatherSource that reads recorded observations snapshots from the local directory {@code weather.source.directory}.
+ * <p>
+ * Every fetch offers the newest snapshot, i.e. the {@code .xml} file with the greatest name, so the directory
+ * behaves like the live feed when snapshots named by time (e.g. {@code observations-20250323T2000.xml}) are added
+ * to it. A snapshot is offered again only if it has been modified since it was last handled.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "weather.source.type", havingValue = "directory")
+public class DirectoryWeatherSource implements WeatherSource {
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Path handledFile;
+    private FileTime handledModifiedTime;
+
+    /**
+     * Constructs a new DirectoryWeatherSource.
+     *
+     * @param directory the directory holding the snapshots
+     */
+    public DirectoryWeatherSource(@Value("${weather.source.directory}") Path directory) {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Weather snapshot directory not found: " + directory);
+        }
+        this.directory = directory;
+    }
+
+    @Override
+    public <T> T fetch(DocumentHandler<T> handler) throws IOException {
+        lock.lock();
+        try {
+            Optional<Path> newest;
+            try (Stream<Path> files = Files.list(directory)) {
+                newest = files.filter(DirectoryWeatherSource::isSnapshot)
+                        .max(Comparator.comparing(path -> path.getFileName().toString()));
+            }
+            if (newest.isEmpty()) {
+                return null;
+            }
+            Path file = newest.get();
+            FileTime modifiedTime = Files.getLastModifiedTime(file);
+            if (file.equals(handledFile) && modifiedTime.equals(handledModifiedTime)) {
+                return null;
+            }
+            T result;
+            try (InputStream in = Files.newInputStream(file)) {
+                result = handler.handle(in);
+            }
+            handledFile = file;
+            handledModifiedTime = modifiedTime;
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static boolean isSnapshot(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().endsWith(".xml");
+    }
+}
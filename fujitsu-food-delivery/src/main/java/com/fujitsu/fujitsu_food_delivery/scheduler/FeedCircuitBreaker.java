@@ -0,0 +1,91 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker of the weather feed.
+ * <p>
+ * After {@code failureThreshold} consecutive failed fetches the circuit opens, and fetches are rejected without
+ * contacting the feed for {@code openDuration}. The first fetch after that is let through as a trial: if it
+ * succeeds the circuit closes, and if it fails the circuit opens again for another {@code openDuration}.
+ * </p>
+ */
+public class FeedCircuitBreaker {
+
+    /**
+     * The states of the circuit.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    /**
+     * Constructs a new FeedCircuitBreaker.
+     *
+     * @param failureThreshold the number of consecutive failures that opens the circuit
+     * @param openDuration     how long the circuit stays open before a trial fetch is let through
+     */
+    public FeedCircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold < 1 || openDuration.isNegative()) {
+            throw new IllegalArgumentException("The failure threshold must be positive and the open duration not negative");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Decides whether a fetch may contact the feed.
+     *
+     * @param now the current time
+     * @return true if the circuit is closed, or if it has been open for the open duration and the fetch is the trial
+     */
+    public synchronized boolean tryAcquire(Instant now) {
+        if (state == State.OPEN && !now.isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Records a successful fetch, which closes the circuit.
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed fetch, which opens the circuit if it was a trial or the failure threshold is reached.
+     *
+     * @param now the current time
+     */
+    public synchronized void recordFailure(Instant now) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = now;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns when the circuit lets the next trial fetch through.
+     *
+     * @return the end of the open period, or null if the circuit is not open
+     */
+    public synchronized Instant getOpenUntil() {
+        return state == State.OPEN ? openedAt.plus(openDuration) : null;
+    }
+}
@@ -0,0 +1,341 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * WeatherSource that fetches the live observations feed over HTTP, from {@code weather.feed.url}.
+ * <p>
+ * Requests are conditional: the ETag and Last-Modified validators of the last successfully handled document are
+ * sent back, so an unchanged feed can answer "304 Not Modified" without a body, which is reported as no new document.
+ * </p>
+ * <p>
+ * The feed is fetched with a JDK HttpClient that keeps its connections alive between polls. Connecting is bounded by
+ * {@code weather.feed.connect-timeout} and the whole exchange, including reading the document, by
+ * {@code weather.feed.read-timeout}, so a hung feed never blocks the import scheduler. Responses are requested
+ * gzip-compressed, and a document larger than {@code weather.feed.max-response-size} (after decompression) is
+ * rejected while it is read.
+ * </p>
+ * <p>
+ * Connection failures, timeouts before the response and 5xx or 429 responses are retried up to
+ * {@code weather.feed.retry.max-attempts} times in total, after a backoff that starts at
+ * {@code weather.feed.retry.backoff}, doubles with every attempt and is jittered between half and all of that.
+ * Once the handler has started reading a document, a failure is not retried within the same fetch. Failed fetches are
+ * counted by a FeedCircuitBreaker ({@code weather.feed.circuit-breaker.*}), which rejects fetches without contacting
+ * the feed while it is open.
+ * </p>
+ * <p>
+ * Fetches are measured: the time until the response headers arrive ({@code weather.feed.phase} with
+ * {@code phase=response}, per attempt), the time to read and handle the document ({@code phase=document}), the
+ * whole fetch including retries ({@code weather.feed.fetch}, tagged by outcome: {@code success},
+ * {@code not_modified}, {@code failure} or {@code rejected}), the number of retries ({@code weather.feed.retries})
+ * and the state of the circuit ({@code weather.feed.circuit.state}: 0 closed, 1 open, 2 half-open).
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "weather.source.type", havingValue = "http", matchIfMissing = true)
+public class HttpWeatherSource implements WeatherSource {
+
+    /**
+     * Default URL of the Estonian Environment Agency observations feed.
+     */
+    public static final String DEFAULT_FEED_URL = "https://www.ilmateenistus.ee/ilma_andmed/xml/observations.php";
+
+    private final String feedUrl;
+    private final RestTemplate restTemplate;
+    private final long maxResponseBytes;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final FeedCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+
+    private volatile String entityTag;
+    private volatile long lastModified = -1;
+
+    /**
+     * Constructs a new HttpWeatherSource.
+     *
+     * @param feedUrl          the URL the observations XML is fetched from
+     * @param connectTimeout   the longest time to wait for a connection to the feed
+     * @param readTimeout      the longest time a request may take, including reading the document
+     * @param maxResponseSize  the largest accepted (decompressed) document
+     * @param maxAttempts      the number of attempts of a fetch, including the first one
+     * @param retryBackoff     the backoff before the first retry
+     * @param failureThreshold the number of consecutive failed fetches that opens the circuit
+     * @param openDuration     how long the circuit stays open
+     * @param meterRegistry    the registry the fetch metrics are registered with
+     */
+    @Autowired
+    public HttpWeatherSource(@Value("${weather.feed.url:" + DEFAULT_FEED_URL + "}") String feedUrl,
+                             @Value("${weather.feed.connect-timeout:PT5S}") Duration connectTimeout,
+                             @Value("${weather.feed.read-timeout:PT30S}") Duration readTimeout,
+                             @Value("${weather.feed.max-response-size:4MB}") DataSize maxResponseSize,
+                             @Value("${weather.feed.retry.max-attempts:3}") int maxAttempts,
+                             @Value("${weather.feed.retry.backoff:PT1S}") Duration retryBackoff,
+                             @Value("${weather.feed.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                             @Value("${weather.feed.circuit-breaker.open-duration:PT5M}") Duration openDuration,
+                             MeterRegistry meterRegistry) {
+        this(feedUrl, restTemplate(connectTimeout, readTimeout), maxResponseSize.toBytes(), maxAttempts, retryBackoff,
+                new FeedCircuitBreaker(failureThreshold, openDuration), meterRegistry);
+    }
+
+    /**
+     * Constructs a new HttpWeatherSource that fetches with the given RestTemplate.
+     *
+     * @param feedUrl          the URL the observations XML is fetched from
+     * @param restTemplate     the template used for the requests
+     * @param maxResponseBytes the largest accepted (decompressed) document, in bytes
+     * @param maxAttempts      the number of attempts of a fetch, including the first one
+     * @param retryBackoff     the backoff before the first retry
+     * @param circuitBreaker   the circuit breaker that failed fetches are reported to
+     * @param meterRegistry    the registry the fetch metrics are registered with
+     */
+    public HttpWeatherSource(String feedUrl, RestTemplate restTemplate, long maxResponseBytes, int maxAttempts,
+                             Duration retryBackoff, FeedCircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt must be allowed");
+        }
+        this.feedUrl = feedUrl;
+        this.restTemplate = restTemplate;
+        this.maxResponseBytes = maxResponseBytes;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.retries = Counter.builder("weather.feed.retries")
+                .description("Number of retried weather feed requests")
+                .register(meterRegistry);
+        Gauge.builder("weather.feed.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the weather feed circuit breaker (0 closed, 1 open, 2 half-open)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the RestTemplate the feed is fetched with.
+     *
+     * @param connectTimeout the longest time to wait for a connection
+     * @param readTimeout    the longest time a request may take, including reading the response body
+     * @return the RestTemplate
+     */
+    static RestTemplate restTemplate(Duration connectTimeout, Duration readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public <T> T fetch(DocumentHandler<T> handler) throws IOException {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            if (!circuitBreaker.tryAcquire(Instant.now())) {
+                outcome = "rejected";
+                throw new IOException("The weather feed is not contacted until " + circuitBreaker.getOpenUntil()
+                        + " after repeated failures");
+            }
+            T result;
+            try {
+                result = fetchWithRetries(handler);
+            } catch (DocumentReadException e) {
+                circuitBreaker.recordFailure(Instant.now());
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                // Includes failures of the handler itself, so that a failed trial always reopens the circuit
+                circuitBreaker.recordFailure(Instant.now());
+                throw e;
+            }
+            circuitBreaker.recordSuccess();
+            outcome = result == null ? "not_modified" : "success";
+            return result;
+        } finally {
+            Timer.builder("weather.feed.fetch")
+                    .description("Duration of weather feed fetches, including retries")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Helper method that requests the feed, retrying the failures that happen before a document is read.
+     */
+    private <T> T fetchWithRetries(DocumentHandler<T> handler) {
+        for (int attempt = 1; ; attempt++) {
+            long attemptStart = System.nanoTime();
+            try {
+                return restTemplate.execute(feedUrl, HttpMethod.GET, this::prepareRequest,
+                        response -> read(response, handler, attemptStart));
+            } catch (RestClientException e) {
+                if (e instanceof RestClientResponseException) {
+                    recordPhase("response", attemptStart);
+                }
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                retries.increment();
+                try {
+                    Thread.sleep(backoff(attempt).toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method that hands the document of a response to the handler.
+     * I/O failures while the document is read are rethrown as DocumentReadException, so that they are neither
+     * wrapped by the RestTemplate nor retried.
+     */
+    private <T> T read(ClientHttpResponse response, DocumentHandler<T> handler, long attemptStart) throws IOException {
+        recordPhase("response", attemptStart);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return null;
+        }
+        long documentStart = System.nanoTime();
+        try {
+            InputStream document = document(response);
+            T result = handler.handle(document);
+            // Reading the rest of a short-circuited document lets the connection be reused for the next poll
+            document.transferTo(OutputStream.nullOutputStream());
+            HttpHeaders headers = response.getHeaders();
+            entityTag = headers.getETag();
+            lastModified = headers.getLastModified();
+            return result;
+        } catch (IOException e) {
+            throw new DocumentReadException(e);
+        } finally {
+            recordPhase("document", documentStart);
+        }
+    }
+
+    private InputStream document(ClientHttpResponse response) throws IOException {
+        InputStream body = response.getBody();
+        if ("gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body);
+        }
+        return new BoundedInputStream(body, maxResponseBytes);
+    }
+
+    /**
+     * Sends the validators of the last handled document, so that the feed can answer "304 Not Modified",
+     * and asks for a compressed response.
+     */
+    private void prepareRequest(ClientHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        if (entityTag != null) {
+            headers.setIfNoneMatch(entityTag);
+        }
+        if (lastModified >= 0) {
+            headers.setIfModifiedSince(lastModified);
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        long millis = retryBackoff.toMillis() << Math.min(attempt - 1, 16);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(millis / 2, millis + 1));
+    }
+
+    private static boolean isRetryable(RestClientException e) {
+        if (e instanceof RestClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return e instanceof ResourceAccessException;
+    }
+
+    private void recordPhase(String phase, long start) {
+        Timer.builder("weather.feed.phase")
+                .description("Duration of the phases of weather feed requests")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Failure to read a document that the feed has started to send.
+     */
+    private static final class DocumentReadException extends UncheckedIOException {
+
+        private DocumentReadException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Input stream that fails once more than a given number of bytes have been read through it.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("The weather feed document exceeds " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+
+/**
+ * Streaming parser of the observations XML feed of the Estonian Environment Agency.
+ * <p>
+ * The document is read with a StAX pull parser directly from the input stream, without building a DOM.
+ * Only the fields needed for the delivery fee (WMO code, air temperature, wind speed and phenomenon) are read,
+ * and a station is skipped without reading any further content as soon as its name shows that it is not one
+ * of the requested stations. The parser is immutable and may be shared between threads.
+ * </p>
+ */
+public class ObservationFeedParser {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final Set<String> stationNames;
+
+    /**
+     * Constructs a new ObservationFeedParser.
+     *
+     * @param stationNames the names of the stations whose observations are read
+     */
+    public ObservationFeedParser(Set<String> stationNames) {
+        this.stationNames = Set.copyOf(stationNames);
+    }
+
+    /**
+     * Parses an observations document.
+     *
+     * @param in the XML document; the stream is not closed
+     * @return the document timestamp and the observations of the requested stations, in document order
+     * @throws XMLStreamException if the document is not well-formed XML
+     * @throws NumberFormatException if the timestamp or a measurement is not a number
+     */
+    public Observations parse(InputStream in) throws XMLStreamException {
+        return parse(in, Long.MIN_VALUE);
+    }
+
+    /**
+     * Parses an observations document, unless it is one that has already been imported.
+     *
+     * @param in                 the XML document; the stream is not closed
+     * @param importedTimestamp  the timestamp of the last imported document (in UNIX time seconds)
+     * @return the document timestamp and the observations of the requested stations, in document order; if the
+     *         document timestamp equals {@code importedTimestamp}, no stations are read and none are returned
+     * @throws XMLStreamException if the document is not well-formed XML
+     * @throws NumberFormatException if the timestamp or a measurement is not a number
+     */
+    public Observations parse(InputStream in, long importedTimestamp) throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            String timestamp = null;
+            List<StationObservation> stations = new ArrayList<>(stationNames.size());
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                if (reader.getLocalName().equals("station")) {
+                    StationObservation station = readStation(reader);
+                    if (station != null) {
+                        stations.add(station);
+                    }
+                } else if (reader.getLocalName().equals("observations")) {
+                    timestamp = reader.getAttributeValue(null, "timestamp");
+                    if (Long.parseLong(timestamp) == importedTimestamp) {
+                        return new Observations(importedTimestamp, List.of());
+                    }
+                }
+            }
+            return new Observations(Long.parseLong(timestamp), stations);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the station element the reader is positioned at, leaving the reader at its end tag.
+     *
+     * @return the observation, or null if the station is not one of the requested stations
+     */
+    private StationObservation readStation(XMLStreamReader reader) throws XMLStreamException {
+        String stationName = null;
+        String wmoCode = null;
+        Double airTemperature = null;
+        Double windSpeed = null;
+        String phenomenon = null;
+
+        while (reader.next() != XMLStreamConstants.END_ELEMENT || !reader.getLocalName().equals("station")) {
+            if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "name" -> {
+                    stationName = reader.getElementText();
+                    if (!stationNames.contains(stationName)) {
+                        skipElement(reader);
+                        return null;
+                    }
+                }
+                case "wmocode" -> wmoCode = reader.getElementText();
+                case "airtemperature" -> airTemperature = parseDouble(reader.getElementText());
+                case "windspeed" -> windSpeed = parseDouble(reader.getElementText());
+                case "phenomenon" -> phenomenon = reader.getElementText();
+                default -> skipElement(reader);
+            }
+        }
+        return stationName != null
+                ? new StationObservation(stationName, wmoCode, airTemperature, windSpeed, phenomenon)
+                : null;
+    }
+
+    /**
+     * Skips the rest of the element the reader is in, leaving the reader at its end tag.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        return value.isBlank() ? null : Double.parseDouble(value.trim());
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * The parsed content of one observations document.
+     *
+     * @param timestamp  the time of the observations (in UNIX time seconds)
+     * @param stations   the observations of the requested stations
+     */
+    public record Observations(long timestamp, List<StationObservation> stations) {
+    }
+
+    /**
+     * The fee-relevant observation of one station. Empty measurements are null.
+     *
+     * @param stationName     the name of the weather station
+     * @param wmoCode         the WMO code of the station
+     * @param airTemperature  the air temperature in degrees Celsius
+     * @param windSpeed       the wind speed in metres per second
+     * @param phenomenon      the free-text weather phenomenon
+     */
+    public record StationObservation(String stationName, String wmoCode, Double airTemperature, Double windSpeed,
+                                     String phenomenon) {
+
+        /**
+         * Creates an (unsaved) WeatherData entity of this observation, classifying its weather phenomenon.
+         *
+         * @param timestamp the time of the observation (in UNIX time seconds)
+         * @return the new entity
+         */
+        public WeatherData toWeatherData(long timestamp) {
+            WeatherData weatherData = new WeatherData();
+            weatherData.setStationName(stationName);
+            weatherData.setWmoCode(wmoCode);
+            weatherData.setAirTemperature(airTemperature);
+            weatherData.setWindSpeed(windSpeed);
+            weatherData.setWeatherPhenomenon(phenomenon);
+            weatherData.setPhenomenonCategory(WeatherPhenomenonCategory.classify(phenomenon));
+            weatherData.setTimestamp(timestamp);
+            return weatherData;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * WeatherSource that replays the recorded observations snapshots of the local directory
+ * {@code weather.source.directory} as a reproducible weather timeline.
+ * <p>
+ * The snapshots are ordered by their document timestamp. Replay time starts at the earliest timestamp with the
+ * first fetch and advances {@code weather.source.replay.speed} times as fast as real time, so with the default
+ * speed of 60, an hour of recorded weather is replayed per minute. Every fetch offers the next snapshot whose
+ * timestamp replay time has reached, so every snapshot is imported exactly once and in order, even if polling
+ * is slower than the replay. Once all snapshots have been handled, the source has no new documents.
+ * The documents are imported with their recorded timestamps.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "weather.source.type", havingValue = "replay")
+public class ReplayWeatherSource implements WeatherSource {
+
+    private final List<Snapshot> snapshots;
+    private final double speed;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Instant startedAt;
+    private int handled;
+
+    /**
+     * Constructs a new ReplayWeatherSource.
+     *
+     * @param directory the directory holding the snapshots
+     * @param speed     how many times faster than real time the snapshots are replayed
+     */
+    @Autowired
+    public ReplayWeatherSource(@Value("${weather.source.directory}") Path directory,
+                               @Value("${weather.source.replay.speed:60}") double speed) {
+        this(directory, speed, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new ReplayWeatherSource with the given clock.
+     *
+     * @param directory the directory holding the snapshots
+     * @param speed     how many times faster than real time the snapshots are replayed
+     * @param clock     the clock replay time is derived from
+     */
+    public ReplayWeatherSource(Path directory, double speed, Clock clock) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("The replay speed must be positive");
+        }
+        this.snapshots = loadSnapshots(directory);
+        this.speed = speed;
+        this.clock = clock;
+    }
+
+    @Override
+    public <T> T fetch(DocumentHandler<T> handler) throws IOException {
+        lock.lock();
+        try {
+            Instant now = clock.instant();
+            if (startedAt == null) {
+                startedAt = now;
+            }
+            if (handled == snapshots.size()) {
+                return null;
+            }
+            Snapshot next = snapshots.get(handled);
+            double replayedSeconds = Duration.between(startedAt, now).toMillis() / 1000.0 * speed;
+            if (next.timestamp() - snapshots.get(0).timestamp() > replayedSeconds) {
+                return null;
+            }
+            T result;
+            try (InputStream in = Files.newInputStream(next.file())) {
+                result = handler.handle(in);
+            }
+            handled++;
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of snapshots that have not been handled yet.
+     *
+     * @return the number of remaining snapshots
+     */
+    public int getRemainingSnapshots() {
+        lock.lock();
+        try {
+            return snapshots.size() - handled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<Snapshot> loadSnapshots(Path directory) {
+        ObservationFeedParser timestampReader = new ObservationFeedParser(Set.of());
+        List<Snapshot> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(DirectoryWeatherSource::isSnapshot).toList()) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    snapshots.add(new Snapshot(file, timestampReader.parse(in).timestamp()));
+                } catch (XMLStreamException | NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid weather snapshot " + file + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read weather snapshots from " + directory, e);
+        }
+        if (snapshots.isEmpty()) {
+            throw new IllegalArgumentException("No weather snapshots found in " + directory);
+        }
+        snapshots.sort(Comparator.comparingLong(Snapshot::timestamp));
+        return List.copyOf(snapshots);
+    }
+
+    private record Snapshot(Path file, long timestamp) {
+    }
+}
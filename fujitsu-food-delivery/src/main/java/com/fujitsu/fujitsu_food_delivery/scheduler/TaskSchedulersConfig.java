@@ -0,0 +1,84 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Task schedulers of the background work.
+ * <p>
+ * The weather import and the admin work run on separate schedulers, so that a slow upstream fetch never delays
+ * maintenance and a long retention pass never delays an import. Each scheduler has a single thread, so runs of the
+ * same work never overlap. The tasks are assigned as follows:
+ * </p>
+ * <ul>
+ *     <li>{@value #WEATHER_IMPORT_SCHEDULER}: the weather import (WeatherImportSchedulingConfig).</li>
+ *     <li>{@value #ADMIN_SCHEDULER}: the weather history retention (WeatherHistoryCompactor).</li>
+ *     <li>{@value #DEFAULT_SCHEDULER}: every other {@code @Scheduled} task, i.e. each one that names no scheduler.
+ *     Declaring the two schedulers above makes Spring Boot back off from its own {@code taskScheduler}, so this one
+ *     takes its place, as the primary TaskScheduler.</li>
+ * </ul>
+ * <p>
+ * With {@code spring.threads.virtual.enabled} (which also makes Tomcat handle every request on a virtual thread),
+ * the scheduler threads are virtual threads as well. Code on these paths that blocks on the database or on files
+ * while holding a lock uses a ReentrantLock rather than a monitor, because up to Java 23 a virtual thread that
+ * blocks inside {@code synchronized} pins its carrier thread.
+ * </p>
+ */
+@Configuration
+public class TaskSchedulersConfig {
+
+    /**
+     * Name of the scheduler that runs the weather import.
+     */
+    public static final String WEATHER_IMPORT_SCHEDULER = "weatherImportTaskScheduler";
+
+    /**
+     * Name of the scheduler that runs admin and maintenance work.
+     */
+    public static final String ADMIN_SCHEDULER = "adminTaskScheduler";
+
+    /**
+     * Name of the scheduler that runs the scheduled work not assigned to another scheduler.
+     */
+    public static final String DEFAULT_SCHEDULER = "taskScheduler";
+
+    private final boolean virtualThreads;
+
+    /**
+     * Constructs a new TaskSchedulersConfig.
+     *
+     * @param virtualThreads whether the scheduler threads are virtual threads
+     */
+    public TaskSchedulersConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Primary
+    @Bean(DEFAULT_SCHEDULER)
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return scheduler("scheduling-");
+    }
+
+    @Bean(WEATHER_IMPORT_SCHEDULER)
+    public ThreadPoolTaskScheduler weatherImportTaskScheduler() {
+        return scheduler("weather-import-");
+    }
+
+    @Bean(ADMIN_SCHEDULER)
+    public ThreadPoolTaskScheduler adminTaskScheduler() {
+        return scheduler("admin-");
+    }
+
+    private ThreadPoolTaskScheduler scheduler(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        if (virtualThreads) {
+            scheduler.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+        }
+        return scheduler;
+    }
+}
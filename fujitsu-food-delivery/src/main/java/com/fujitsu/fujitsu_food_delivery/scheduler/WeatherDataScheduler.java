@@ -1,121 +1,231 @@
 package com.fujitsu.fujitsu_food_delivery.scheduler;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
 import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.scheduler.ObservationFeedParser.Observations;
+import com.fujitsu.fujitsu_food_delivery.scheduler.ObservationFeedParser.StationObservation;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 
 /**
  * Component responsible for importing weather data periodically from the Estonian Environment Agency.
- * This scheduler uses a RestTemplate to fetch XML data from the weather portal, parses it, and
- * stores the resulting WeatherData objects in the database via WeatherDataRepository.
- * The scheduled task is configured to run every 30 seconds (for testing) and can be adjusted as needed.
+ * This scheduler fetches the observations XML from a WeatherSource (by default the live feed of the weather
+ * portal), parses it while it is streamed with an ObservationFeedParser, and stores the resulting WeatherData
+ * objects in the database via WeatherDataRepository. Only the stations that observe a region of the RegionRegistry
+ * are imported; the observations of all other stations in the feed are skipped while parsing.
+ * After every successful import a WeatherDataImportedEvent is published with the stored records.
+ * <p>
+ * A source that has no new document (e.g. the feed answered "304 Not Modified") is not read at all. A document
+ * whose {@code timestamp} attribute equals that of the last import is recognized as soon as its root element has
+ * been read, and the rest of it is neither parsed nor saved. Every poll is reported to the WeatherFeedCadence,
+ * from which the adaptive import schedule is derived (see WeatherImportSchedulingConfig).
+ * </p>
+ * The weather source and the import schedule can be configured with the {@code weather.source.*},
+ * {@code weather.feed.url}, {@code weather.import.cron} and {@code weather.import.adaptive.*} properties,
+ * e.g. to import from a local stand-in of the feed or to replay recorded snapshots.
+ * Every import is measured: its duration ({@code weather.import}, tagged by outcome: {@code success},
+ * {@code not_modified}, {@code unchanged} or {@code failure}), the size of the fetched
+ * document ({@code weather.import.fetched}), the number of saved station records
+ * ({@code weather.import.stations.saved}), the number of station records skipped because they were already stored
+ * ({@code weather.import.stations.skipped}) and the number of failed imports ({@code weather.import.failures}).
  */
 @Component
 public class WeatherDataScheduler {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(WeatherDataScheduler.class);
+
     private final WeatherDataRepository weatherDataRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ApplicationEventPublisher eventPublisher;
+    private final WeatherSource weatherSource;
+    private final ObservationFeedParser parser;
+    private final WeatherFeedCadence weatherFeedCadence;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary fetchedBytes;
+    private final Counter stationsSaved;
+    private final Counter stationsSkipped;
+    private final Counter failures;
+
+    private volatile long importedTimestamp = Long.MIN_VALUE;
 
     /**
-     * Constructs a new WeatherDataScheduler with the specified WeatherDataRepository.
+     * Constructs a new WeatherDataScheduler.
      *
      * @param weatherDataRepository the repository used to save parsed weather data
+     * @param eventPublisher        the publisher used to announce imported weather data
+     * @param weatherSource         the source the observations XML is fetched from
+     * @param weatherFeedCadence    the cadence every poll is reported to
+     * @param regionRegistry        the registry whose stations are imported
+     * @param meterRegistry         the registry the import metrics are registered with
      */
-    public WeatherDataScheduler(WeatherDataRepository weatherDataRepository) {
+    public WeatherDataScheduler(WeatherDataRepository weatherDataRepository, ApplicationEventPublisher eventPublisher,
+                                WeatherSource weatherSource, WeatherFeedCadence weatherFeedCadence,
+                                RegionRegistry regionRegistry, MeterRegistry meterRegistry) {
         this.weatherDataRepository = weatherDataRepository;
+        this.eventPublisher = eventPublisher;
+        this.weatherSource = weatherSource;
+        this.weatherFeedCadence = weatherFeedCadence;
+        this.parser = new ObservationFeedParser(regionRegistry.getStationNames());
+        this.meterRegistry = meterRegistry;
+        this.fetchedBytes = DistributionSummary.builder("weather.import.fetched")
+                .description("Size of the fetched observations document")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.stationsSaved = Counter.builder("weather.import.stations.saved")
+                .description("Number of station records saved by weather imports")
+                .register(meterRegistry);
+        this.stationsSkipped = Counter.builder("weather.import.stations.skipped")
+                .description("Number of station records skipped by weather imports because they were already stored")
+                .register(meterRegistry);
+        this.failures = Counter.builder("weather.import.failures")
+                .description("Number of failed weather imports")
+                .register(meterRegistry);
     }
 
     /**
-     * Scheduled task that imports weather data by fetching XML data from the specified URL,
+     * Scheduled task that imports weather data by fetching XML data from the weather source,
      * parsing it, and saving records for the specified weather stations.
-     * For testing purposes, this method is currently scheduled to run every 30 seconds.
-     * In production, update the cron expression to "0 15 * * * *" to run at 15 minutes past each hour.
+     * It is scheduled by WeatherImportSchedulingConfig, by default every 30 seconds.
      */
-    @Scheduled(cron = "*/30 * * * * *") // only for testing
-    //@Scheduled(cron = "0 15 * * * *")
     public void importWeatherData() {
-        String url = "https://www.ilmateenistus.ee/ilma_andmed/xml/observations.php";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            String xmlData = response.getBody();
-
-            parseAndSaveWeatherData(xmlData);
+            Boolean imported = weatherSource.fetch(this::importDocument);
+            if (imported == null) {
+                outcome = "not_modified";
+                weatherFeedCadence.recordNotModified(Instant.now());
+            } else if (!imported) {
+                outcome = "unchanged";
+            }
         } catch (Exception e) {
-            System.err.println("Error: " + e.getMessage());
+            outcome = "failure";
+            failures.increment();
+            LOGGER.error("Weather data import failed", e);
+        } finally {
+            sample.stop(Timer.builder("weather.import")
+                    .description("Duration of weather imports")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
 
     /**
-     * Parses the provided XML data and saves the weather data for selected stations in the database.
-     * This method reads the XML's root element to retrieve a timestamp (as a UNIX time integer)
-     * and iterates over each "station" element. Only stations with names "Tallinn-Harku", "Tartu-Tõravere",
-     * or "Pärnu" are processed.
+     * Imports one observations document, unless it has already been imported.
      *
-     * @param xmlData the XML data as a String
-     * @throws Exception if any error occurs during parsing or data processing
+     * @param document the XML document
+     * @return true if the document was imported, or false if it had already been imported
+     * @throws IOException if reading the document fails
      */
-    private void parseAndSaveWeatherData(String xmlData) throws Exception {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document document = builder.parse(new ByteArrayInputStream(xmlData.getBytes(StandardCharsets.UTF_8)));
-
-        document.getDocumentElement().normalize();
-        String timestamp = document.getDocumentElement().getAttribute("timestamp");
-        int timestampInteger = Integer.parseInt(timestamp);    
-        NodeList stationNodes = document.getElementsByTagName("station");
-
-        for (int i = 0; i < stationNodes.getLength(); i++) {
-            Node node = stationNodes.item(i);
-
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element station = (Element) node;
-
-                String stationName = station.getElementsByTagName("name").item(0).getTextContent();
-
-                // only save data for specified stations
-                if (stationName.equals("Tallinn-Harku") ||
-                    stationName.equals("Tartu-Tõravere") ||
-                    stationName.equals("Pärnu")) {
-
-                    WeatherData weatherData = new WeatherData();
-                    weatherData.setStationName(stationName);
-                    weatherData.setWmoCode(station.getElementsByTagName("wmocode").item(0).getTextContent());
-                    weatherData.setAirTemperature(parseDouble(station, "airtemperature"));
-                    weatherData.setWindSpeed(parseDouble(station, "windspeed"));
-                    weatherData.setWeatherPhenomenon(station.getElementsByTagName("phenomenon").item(0).getTextContent());
-                    weatherData.setTimestamp(timestampInteger);
-
-                    weatherDataRepository.save(weatherData);
-                }
+    private boolean importDocument(InputStream document) throws IOException {
+        Observations observations = parse(document);
+        weatherFeedCadence.recordPoll(observations.timestamp(), Instant.now());
+        if (observations.timestamp() == importedTimestamp) {
+            return false;
+        }
+        List<WeatherData> imported = save(observations);
+        stationsSaved.increment(imported.size());
+        stationsSkipped.increment(observations.stations().size() - imported.size());
+        eventPublisher.publishEvent(new WeatherDataImportedEvent(this, imported));
+        importedTimestamp = observations.timestamp();
+        return true;
+    }
+
+    /**
+     * Parses the observations document while it is read from the source.
+     * Unless the document has already been imported, the stream is read to its end,
+     * so that the number of fetched bytes is recorded.
+     *
+     * @param document the XML document
+     * @return the observations of the imported stations
+     * @throws IOException if reading the document fails
+     */
+    private Observations parse(InputStream document) throws IOException {
+        CountingInputStream in = new CountingInputStream(document);
+        try {
+            Observations observations = parser.parse(in, importedTimestamp);
+            if (observations.timestamp() != importedTimestamp) {
+                in.transferTo(OutputStream.nullOutputStream());
             }
+            return observations;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed observations document: " + e.getMessage(), e);
+        } finally {
+            fetchedBytes.record(in.count);
         }
     }
 
     /**
-     * Helper method that parses a double value from the text content of a specified XML element tag.
-     * If the text content is empty, this method returns null.
+     * Saves the parsed observations of the weather stations of the regions in the RegionRegistry.
+     * The free-text weather phenomenon is classified into a WeatherPhenomenonCategory here,
+     * so that fee calculations do not need to inspect the text.
+     * The feed is polled more often than it changes, so all observations are written in one batch
+     * that skips the ones already stored.
      *
-     * @param element the XML element that contains the desired tag
-     * @param tag     the name of the tag whose text content should be parsed as a Double
-     * @return the parsed Double value, or null if the tag is empty
+     * @param observations the parsed observations document
+     * @return the newly saved weather data records
      */
-    private Double parseDouble(Element element, String tag) {
-        String value = element.getElementsByTagName(tag).item(0).getTextContent();
-        return value.isEmpty() ? null : Double.parseDouble(value);
+    private List<WeatherData> save(Observations observations) {
+        List<WeatherData> weatherData = new ArrayList<>(observations.stations().size());
+        for (StationObservation station : observations.stations()) {
+            weatherData.add(station.toWeatherData(observations.timestamp()));
+        }
+        return weatherDataRepository.insertMissing(weatherData);
+    }
+
+    /**
+     * Input stream that counts the bytes read through it.
+     * It does not close the underlying stream, since the StAX parser closes its input at the end of the document,
+     * while the document is closed by the weather source once it has been handled.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
     }
-}
\ No newline at end of file
+}
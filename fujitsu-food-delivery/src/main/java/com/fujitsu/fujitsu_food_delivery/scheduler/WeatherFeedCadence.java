@@ -0,0 +1,124 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks how often the weather feed publishes a new observations document and derives the delay until the
+ * next poll from it.
+ * <p>
+ * The update interval is estimated from the differences between consecutive document timestamps (smoothed
+ * over the last few updates), and the next update is expected one interval after the current document was
+ * first seen. Polling runs at the minimum interval from {@code window} before until {@code window} after the
+ * expected update. Earlier polls wait until the window opens (at most the maximum interval), and once the update
+ * is overdue the delay doubles with every unchanged poll up to the maximum interval. Until an interval has been
+ * observed, the feed is polled at the minimum interval.
+ * </p>
+ */
+@Component
+public class WeatherFeedCadence {
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration window;
+
+    private long documentTimestamp = Long.MIN_VALUE;
+    private Instant documentSeenAt;
+    private long estimatedIntervalSeconds;
+    private int overduePolls;
+
+    /**
+     * Constructs a new WeatherFeedCadence.
+     *
+     * @param minInterval the delay between polls near the expected update
+     * @param maxInterval the longest delay between polls
+     * @param window      how long before and after the expected update the feed is polled at the minimum interval
+     */
+    public WeatherFeedCadence(@Value("${weather.import.adaptive.min-interval:PT30S}") Duration minInterval,
+                              @Value("${weather.import.adaptive.max-interval:PT10M}") Duration maxInterval,
+                              @Value("${weather.import.adaptive.window:PT2M}") Duration window) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException("The polling intervals must be positive, with min-interval <= max-interval");
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.window = window;
+    }
+
+    /**
+     * Records the outcome of a successful poll.
+     *
+     * @param timestamp the timestamp of the polled document (in UNIX time seconds)
+     * @param polledAt  the time of the poll
+     */
+    public synchronized void recordPoll(long timestamp, Instant polledAt) {
+        if (timestamp == documentTimestamp) {
+            Instant expected = expectedUpdate();
+            if (expected != null && polledAt.isAfter(expected.plus(window))) {
+                overduePolls++;
+            }
+            return;
+        }
+        if (documentTimestamp != Long.MIN_VALUE && timestamp > documentTimestamp) {
+            long interval = timestamp - documentTimestamp;
+            estimatedIntervalSeconds = estimatedIntervalSeconds == 0
+                    ? interval
+                    : (3 * estimatedIntervalSeconds + interval) / 4;
+        }
+        documentTimestamp = timestamp;
+        documentSeenAt = polledAt;
+        overduePolls = 0;
+    }
+
+    /**
+     * Records a poll that was answered with "not modified".
+     *
+     * @param polledAt the time of the poll
+     */
+    public synchronized void recordNotModified(Instant polledAt) {
+        if (documentTimestamp != Long.MIN_VALUE) {
+            recordPoll(documentTimestamp, polledAt);
+        }
+    }
+
+    /**
+     * Returns the delay from the given time until the next poll.
+     *
+     * @param now the current time
+     * @return the delay until the next poll
+     */
+    public synchronized Duration nextPollDelay(Instant now) {
+        Instant expected = expectedUpdate();
+        if (expected == null) {
+            return minInterval;
+        }
+        Instant windowStart = expected.minus(window);
+        if (now.isBefore(windowStart)) {
+            return min(Duration.between(now, windowStart), maxInterval);
+        }
+        if (!now.isAfter(expected.plus(window))) {
+            return minInterval;
+        }
+        return min(minInterval.multipliedBy(1L << Math.min(overduePolls, 20)), maxInterval);
+    }
+
+    /**
+     * Returns the estimated time between document updates.
+     *
+     * @return the estimated interval, or null if no update has been observed yet
+     */
+    public synchronized Duration getEstimatedInterval() {
+        return estimatedIntervalSeconds > 0 ? Duration.ofSeconds(estimatedIntervalSeconds) : null;
+    }
+
+    private Instant expectedUpdate() {
+        return estimatedIntervalSeconds > 0 ? documentSeenAt.plusSeconds(estimatedIntervalSeconds) : null;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,314 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherRetentionWatermark;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherHistoryCompactedEvent;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherRetentionWatermarkRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Background task that bounds the growth of the stored weather history.
+ * <p>
+ * Observations younger than {@code weather.retention.raw-days} are kept as imported. Older observations are
+ * compacted: the feed is polled far more often than conditions change, so an observation whose conditions
+ * (temperature, wind speed, phenomenon and WMO code) equal those of the previous kept observation of the same
+ * station is removed. Since lookups return the latest observation at or before a time, every historical lookup
+ * still resolves to the same conditions and therefore the same fee.
+ * </p>
+ * <p>
+ * If {@code weather.retention.hourly-rollup-days} is positive, observations older than that are additionally
+ * rolled up into one aggregate per station and hour, stamped at the start of the hour. The aggregate holds the
+ * worst conditions of the hour (lowest temperature, highest wind speed, most severe phenomenon), so a rolled-up
+ * hour never quotes a lower fee than any observation it replaced.
+ * </p>
+ * <p>
+ * Every run processes at most one window of {@code weather.retention.batch-window-hours} per station and phase,
+ * each in its own short transaction, and resumes where the previous run stopped. Quotes are served from the
+ * in-memory weather indexes and are never blocked; the indexes replace a processed window through a
+ * WeatherHistoryCompactedEvent published after the transaction has committed. The number of removed rows is
+ * counted by {@code weather.retention.removed}, tagged by phase.
+ * </p>
+ * <p>
+ * How far each phase has processed a station is stored as a WeatherRetentionWatermark, in the transaction of the
+ * processed window, so a restart resumes where the previous run stopped. A station without a stored rollup
+ * watermark (e.g. history rolled up before the watermarks were stored) resumes rollup at its oldest observation
+ * not stamped at the start of an hour.
+ * </p>
+ * <p>
+ * Retention removes stored observations, so it only runs if {@code weather.retention.enabled} is set to true.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "weather.retention.enabled", havingValue = "true")
+public class WeatherHistoryCompactor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WeatherHistoryCompactor.class);
+
+    private static final long SECONDS_PER_HOUR = 3600L;
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    private final WeatherDataRepository weatherDataRepository;
+    private final WeatherRetentionWatermarkRepository watermarkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long rawRetentionSeconds;
+    private final long rollupRetentionSeconds;
+    private final long batchWindowSeconds;
+    private final Counter compactionRemoved;
+    private final Counter rollupRemoved;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructs a new WeatherHistoryCompactor.
+     *
+     * @param weatherDataRepository the repository holding the weather history
+     * @param watermarkRepository   the repository storing how far the history has been processed
+     * @param eventPublisher        the publisher used to announce compacted ranges
+     * @param transactionManager    the transaction manager each window is processed with
+     * @param rawDays               the number of days observations are kept as imported
+     * @param hourlyRollupDays      the age in days after which observations are rolled up hourly, or 0 to disable
+     * @param batchWindowHours      the length of the time window processed per station, phase and run
+     * @param meterRegistry         the registry the retention metrics are registered with
+     */
+    public WeatherHistoryCompactor(WeatherDataRepository weatherDataRepository,
+                                   WeatherRetentionWatermarkRepository watermarkRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${weather.retention.raw-days:30}") int rawDays,
+                                   @Value("${weather.retention.hourly-rollup-days:0}") int hourlyRollupDays,
+                                   @Value("${weather.retention.batch-window-hours:24}") int batchWindowHours,
+                                   MeterRegistry meterRegistry) {
+        if (rawDays < 1 || batchWindowHours < 1) {
+            throw new IllegalArgumentException("Weather retention days and batch window hours must be positive");
+        }
+        if (hourlyRollupDays != 0 && hourlyRollupDays < rawDays) {
+            throw new IllegalArgumentException(
+                    "Weather observations cannot be rolled up hourly before the raw retention period ends");
+        }
+        this.weatherDataRepository = weatherDataRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rawRetentionSeconds = rawDays * SECONDS_PER_DAY;
+        this.rollupRetentionSeconds = hourlyRollupDays * SECONDS_PER_DAY;
+        this.batchWindowSeconds = batchWindowHours * SECONDS_PER_HOUR;
+        this.compactionRemoved = removedCounter(meterRegistry, "compaction");
+        this.rollupRemoved = removedCounter(meterRegistry, "rollup");
+    }
+
+    /**
+     * Scheduled task that runs one retention pass for the current time.
+     */
+    @Scheduled(initialDelayString = "${weather.retention.interval:60000}",
+               fixedDelayString = "${weather.retention.interval:60000}",
+               scheduler = TaskSchedulersConfig.ADMIN_SCHEDULER)
+    public void run() {
+        try {
+            compact(System.currentTimeMillis() / 1000L);
+        } catch (Exception e) {
+            LOGGER.error("Weather history retention failed", e);
+        }
+    }
+
+    /**
+     * Runs one retention pass: compacts and (if enabled) rolls up the next window of every station.
+     *
+     * @param nowSeconds the current time (in UNIX time seconds) the retention periods are measured from
+     * @return the number of removed rows
+     */
+    public int compact(long nowSeconds) {
+        lock.lock();
+        try {
+            int removed = 0;
+            for (String stationName : weatherDataRepository.findDistinctStationNames()) {
+                removed += compactNextWindow(stationName, nowSeconds - rawRetentionSeconds);
+                if (rollupRetentionSeconds > 0) {
+                    removed += rollUpNextWindow(stationName, floorToHour(nowSeconds - rollupRetentionSeconds));
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int compactNextWindow(String stationName, long cutoff) {
+        Long compactedUntil = watermark(stationName).getCompactedUntil();
+        Long from = nextWindowStart(stationName, compactedUntil != null ? compactedUntil : 0L, cutoff);
+        if (from == null) {
+            return 0;
+        }
+        long to = Math.min(from + batchWindowSeconds, cutoff);
+
+        List<WeatherData> remaining = new ArrayList<>();
+        int removed = transactionTemplate.execute(status -> {
+            WeatherData previous = weatherDataRepository
+                    .findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(stationName, from - 1)
+                    .orElse(null);
+            List<WeatherData> duplicates = new ArrayList<>();
+            for (WeatherData record : weatherDataRepository.findByStationNameInRange(stationName, from, to)) {
+                if (previous != null && sameConditions(previous, record)) {
+                    duplicates.add(record);
+                } else {
+                    remaining.add(record);
+                    previous = record;
+                }
+            }
+            weatherDataRepository.deleteAllInBatch(duplicates);
+            advanceWatermark(stationName, watermark -> watermark.setCompactedUntil(to));
+            return duplicates.size();
+        });
+        finishWindow(stationName, from, to, remaining, removed, compactionRemoved);
+        return removed;
+    }
+
+    private int rollUpNextWindow(String stationName, long cutoff) {
+        Long rolledUpUntil = watermark(stationName).getRolledUpUntil();
+        if (rolledUpUntil == null) {
+            Long notRolledUp = weatherDataRepository.findFirstTimestampNotOnHour(stationName);
+            if (notRolledUp == null) {
+                return 0;
+            }
+            rolledUpUntil = floorToHour(notRolledUp);
+        }
+        Long start = nextWindowStart(stationName, rolledUpUntil, cutoff);
+        if (start == null) {
+            return 0;
+        }
+        long from = floorToHour(start);
+        long to = Math.min(from + batchWindowSeconds, cutoff);
+
+        List<WeatherData> remaining = new ArrayList<>();
+        int removed = transactionTemplate.execute(status -> {
+            List<WeatherData> records = weatherDataRepository.findByStationNameInRange(stationName, from, to);
+            int deleted = 0;
+            int hourStart = 0;
+            while (hourStart < records.size()) {
+                long hour = floorToHour(records.get(hourStart).getTimestamp());
+                int hourEnd = hourStart + 1;
+                while (hourEnd < records.size() && floorToHour(records.get(hourEnd).getTimestamp()) == hour) {
+                    hourEnd++;
+                }
+                List<WeatherData> group = records.subList(hourStart, hourEnd);
+                if (group.size() == 1 && group.get(0).getTimestamp() == hour) {
+                    remaining.add(group.get(0));
+                } else {
+                    WeatherData aggregate = aggregate(group, hour);
+                    weatherDataRepository.deleteAllInBatch(group);
+                    remaining.add(weatherDataRepository.save(aggregate));
+                    deleted += group.size() - 1;
+                }
+                hourStart = hourEnd;
+            }
+            advanceWatermark(stationName, watermark -> watermark.setRolledUpUntil(to));
+            return deleted;
+        });
+        finishWindow(stationName, from, to, remaining, removed, rollupRemoved);
+        return removed;
+    }
+
+    /**
+     * Returns where the next window of a station starts, skipping gaps without observations.
+     *
+     * @return the start of the window, or null if the station has nothing left to process before the cutoff
+     */
+    private Long nextWindowStart(String stationName, long watermark, long cutoff) {
+        Long from = weatherDataRepository.findFirstTimestampAtOrAfter(stationName, watermark);
+        return from != null && from < cutoff ? from : null;
+    }
+
+    private WeatherRetentionWatermark watermark(String stationName) {
+        return watermarkRepository.findById(stationName).orElseGet(() -> new WeatherRetentionWatermark(stationName));
+    }
+
+    /**
+     * Records the end of a processed window, within the transaction that processed it.
+     */
+    private void advanceWatermark(String stationName, Consumer<WeatherRetentionWatermark> update) {
+        WeatherRetentionWatermark watermark = watermark(stationName);
+        update.accept(watermark);
+        watermarkRepository.save(watermark);
+    }
+
+    private void finishWindow(String stationName, long from, long to, List<WeatherData> remaining, int removed,
+                              Counter removedCounter) {
+        if (removed > 0) {
+            removedCounter.increment(removed);
+            eventPublisher.publishEvent(new WeatherHistoryCompactedEvent(this, stationName, from, to, remaining));
+        }
+    }
+
+    /**
+     * Builds the worst-case aggregate of the observations of one hour.
+     *
+     * @param group the observations of the hour, sorted by timestamp
+     * @param hour  the start of the hour (in UNIX time seconds)
+     * @return the new, unsaved aggregate
+     */
+    private static WeatherData aggregate(List<WeatherData> group, long hour) {
+        WeatherData last = group.get(group.size() - 1);
+        WeatherData aggregate = new WeatherData();
+        aggregate.setStationName(last.getStationName());
+        aggregate.setWmoCode(last.getWmoCode());
+        aggregate.setTimestamp(hour);
+
+        WeatherData mostSevere = last;
+        for (WeatherData record : group) {
+            if (record.getAirTemperature() != null && (aggregate.getAirTemperature() == null
+                    || record.getAirTemperature() < aggregate.getAirTemperature())) {
+                aggregate.setAirTemperature(record.getAirTemperature());
+            }
+            if (record.getWindSpeed() != null && (aggregate.getWindSpeed() == null
+                    || record.getWindSpeed() > aggregate.getWindSpeed())) {
+                aggregate.setWindSpeed(record.getWindSpeed());
+            }
+            if (record.getPhenomenonCategory().compareTo(mostSevere.getPhenomenonCategory()) > 0) {
+                mostSevere = record;
+            }
+        }
+        WeatherPhenomenonCategory category = mostSevere.getPhenomenonCategory();
+        aggregate.setWeatherPhenomenon(mostSevere.getWeatherPhenomenon());
+        aggregate.setPhenomenonCategory(category);
+        return aggregate;
+    }
+
+    private static boolean sameConditions(WeatherData previous, WeatherData record) {
+        return Objects.equals(previous.getAirTemperature(), record.getAirTemperature())
+                && Objects.equals(previous.getWindSpeed(), record.getWindSpeed())
+                && Objects.equals(previous.getWeatherPhenomenon(), record.getWeatherPhenomenon())
+                && previous.getPhenomenonCategory() == record.getPhenomenonCategory()
+                && Objects.equals(previous.getWmoCode(), record.getWmoCode());
+    }
+
+    private static long floorToHour(long timestamp) {
+        return Math.floorDiv(timestamp, SECONDS_PER_HOUR) * SECONDS_PER_HOUR;
+    }
+
+    private static Counter removedCounter(MeterRegistry meterRegistry, String phase) {
+        return Counter.builder("weather.retention.removed")
+                .description("Number of weather observations removed by history retention")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
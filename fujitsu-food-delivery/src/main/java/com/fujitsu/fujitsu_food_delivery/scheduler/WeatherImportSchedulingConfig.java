@@ -0,0 +1,86 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.SchedulingAwareRunnable;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Schedules the weather import.
+ * <p>
+ * With {@code weather.import.adaptive.enabled} (the default), the delay after every import is derived from the
+ * observed update cadence of the feed by the WeatherFeedCadence, so that the feed is polled often around the
+ * expected update and rarely otherwise. Without it, and for the local weather sources (whose documents do not follow the cadence of
+ * their timestamps when replayed), imports run at the fixed {@code weather.import.cron} schedule.
+ * </p>
+ * <p>
+ * Imports run on their own scheduler (see TaskSchedulersConfig), separate from all other scheduled work.
+ * </p>
+ */
+@Configuration
+public class WeatherImportSchedulingConfig implements SchedulingConfigurer {
+
+    private final WeatherDataScheduler weatherDataScheduler;
+    private final WeatherFeedCadence weatherFeedCadence;
+    private final boolean adaptive;
+    private final String cron;
+
+    /**
+     * Constructs a new WeatherImportSchedulingConfig.
+     *
+     * @param weatherDataScheduler the importer to schedule
+     * @param weatherFeedCadence   the cadence the adaptive schedule is derived from
+     * @param adaptive             whether the schedule adapts to the feed's update cadence
+     * @param sourceType           the type of the weather source
+     * @param cron                 the fixed schedule used if the schedule is not adaptive
+     */
+    public WeatherImportSchedulingConfig(WeatherDataScheduler weatherDataScheduler,
+                                         WeatherFeedCadence weatherFeedCadence,
+                                         @Value("${weather.import.adaptive.enabled:true}") boolean adaptive,
+                                         @Value("${weather.source.type:http}") String sourceType,
+                                         @Value("${weather.import.cron:*/30 * * * * *}") String cron) {
+        this.weatherDataScheduler = weatherDataScheduler;
+        this.weatherFeedCadence = weatherFeedCadence;
+        this.adaptive = adaptive && sourceType.equals("http");
+        this.cron = cron;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        Runnable importTask = new QualifiedTask(weatherDataScheduler::importWeatherData,
+                TaskSchedulersConfig.WEATHER_IMPORT_SCHEDULER);
+        if (adaptive) {
+            registrar.addTriggerTask(importTask, context -> {
+                Instant lastCompletion = context.lastCompletion();
+                if (lastCompletion == null) {
+                    return Instant.now();
+                }
+                return lastCompletion.plus(weatherFeedCadence.nextPollDelay(lastCompletion));
+            });
+        } else {
+            registrar.addCronTask(importTask, cron);
+        }
+    }
+
+    /**
+     * A task that the registrar's scheduler router runs on the scheduler with the given bean name.
+     *
+     * @param task       the task to run
+     * @param qualifier  the bean name of the scheduler
+     */
+    record QualifiedTask(Runnable task, String qualifier) implements SchedulingAwareRunnable {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public String getQualifier() {
+            return qualifier;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Source of the observations XML documents imported by the WeatherDataScheduler.
+ * <p>
+ * The source is selected with the {@code weather.source.type} property: {@code http} (default) fetches the live
+ * feed, {@code directory} reads the newest recorded snapshot of a local directory, and {@code replay} feeds the
+ * snapshots of a local directory in timestamp order at an accelerated speed.
+ * </p>
+ */
+public interface WeatherSource {
+
+    /**
+     * Fetches the next observations document, if there is one, and passes it to the handler.
+     * If the handler fails, the document is offered again by the next fetch.
+     *
+     * @param handler the handler that reads the document
+     * @param <T>     the type of the handler's result
+     * @return the result of the handler, or null if the source has no new document
+     * @throws IOException if the document cannot be read
+     */
+    <T> T fetch(DocumentHandler<T> handler) throws IOException;
+
+    /**
+     * Reads one observations document.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    interface DocumentHandler<T> {
+
+        /**
+         * Reads the document; the stream is closed by the source.
+         *
+         * @param document the XML document
+         * @return the result of reading the document
+         * @throws IOException if reading the document fails
+         */
+        T handle(InputStream document) throws IOException;
+    }
+}
@@ -7,6 +7,8 @@ import com.fujitsu.fujitsu_food_delivery.repositories.FeeRuleRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 
 /**
  * Configuration class for seeding the fee rules into the database at startup.
@@ -30,10 +32,13 @@ public class DataSeeder {
      *         If phenomenon contains "rain", fee = 0.5
      *         If phenomenon contains "glaze", "hail", or "thunder", usage is forbidden (handled in code)
      *
+     * The seeder runs before any other runner, so that e.g. the bulk repricing runner sees the seeded rules.
+     *
      * @param feeRuleRepository the repository used for persisting FeeRule entities
      * @return a CommandLineRunner bean that seeds fee rules into the database
      */
     @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     public CommandLineRunner seedFeeRules(FeeRuleRepository feeRuleRepository) {
         return args -> {
             if (feeRuleRepository.count() == 0) {
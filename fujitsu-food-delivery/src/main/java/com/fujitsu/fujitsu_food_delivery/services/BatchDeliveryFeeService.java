@@ -0,0 +1,146 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteRequest;
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteResult;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex.StationSeries;
+
+/**
+ * Service for quoting many delivery fees in one call.
+ * <p>
+ * All quotes of a batch are evaluated against a single snapshot of the weather time-series index and of the
+ * fee rules: each station's series is captured once, each quote is resolved to an observation position within
+ * that series, and the fee is calculated only once per distinct (region, vehicle type, observation). Quotes without
+ * a date/time use the latest observation of the captured series. Failures, such as forbidden vehicle usage,
+ * {@code null} items or a fee that cannot be calculated from a stored observation, are reported per item and never
+ * fail the whole batch.
+ * </p>
+ */
+@Service
+public class BatchDeliveryFeeService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchDeliveryFeeService.class);
+
+    private static final DeliveryFeeQuoteRequest MISSING_REQUEST = new DeliveryFeeQuoteRequest(null, null, null);
+
+    private final FeeCalculationService feeCalculationService;
+    private final WeatherTimeSeriesIndex weatherTimeSeriesIndex;
+    private final RegionRegistry regionRegistry;
+
+    /**
+     * Constructs a new BatchDeliveryFeeService.
+     *
+     * @param feeCalculationService  the service used to calculate delivery fees
+     * @param weatherTimeSeriesIndex the index holding the weather history of every station
+     * @param regionRegistry         the registry the requested cities are resolved with
+     */
+    public BatchDeliveryFeeService(FeeCalculationService feeCalculationService, WeatherTimeSeriesIndex weatherTimeSeriesIndex,
+                                   RegionRegistry regionRegistry) {
+        this.feeCalculationService = feeCalculationService;
+        this.weatherTimeSeriesIndex = weatherTimeSeriesIndex;
+        this.regionRegistry = regionRegistry;
+    }
+
+    /**
+     * Quotes the delivery fee of every request.
+     *
+     * @param requests the quote requests
+     * @return one result per request, in request order
+     */
+    public List<DeliveryFeeQuoteResult> quote(List<DeliveryFeeQuoteRequest> requests) {
+        StationSeries[] seriesByRegion = newSeriesCache();
+        Map<FeeKey, FeeResult> feeResults = new HashMap<>();
+        List<DeliveryFeeQuoteResult> results = new ArrayList<>(requests.size());
+        for (DeliveryFeeQuoteRequest request : requests) {
+            results.add(quote(request, seriesByRegion, feeResults));
+        }
+        return results;
+    }
+
+    /**
+     * Quotes the delivery fee of a single request of a longer sequence, such as a streamed request body.
+     * Every region's weather series is captured in the cache the first time the region is quoted, so all quotes
+     * that share the cache are evaluated against the same weather snapshot.
+     *
+     * @param request        the quote request
+     * @param seriesByRegion the weather series captured so far, indexed by region index, as created by
+     *                       {@link #newSeriesCache()}
+     * @return the quote result
+     */
+    public DeliveryFeeQuoteResult quote(DeliveryFeeQuoteRequest request, StationSeries[] seriesByRegion) {
+        return quote(request, seriesByRegion, null);
+    }
+
+    /**
+     * Creates an empty cache of captured weather series, one slot per registered region.
+     *
+     * @return the series cache
+     */
+    public StationSeries[] newSeriesCache() {
+        return new StationSeries[regionRegistry.size()];
+    }
+
+    /**
+     * Helper method that quotes a single request, reusing the fee results of earlier quotes if a map of them is given.
+     */
+    private DeliveryFeeQuoteResult quote(DeliveryFeeQuoteRequest request, StationSeries[] seriesByRegion,
+                                         Map<FeeKey, FeeResult> feeResults) {
+        if (request == null) {
+            return DeliveryFeeQuoteResult.failure(MISSING_REQUEST, 400, DeliveryFeeMessages.MISSING_QUOTE_REQUEST);
+        }
+        Region region = regionRegistry.find(request.city());
+        VehicleType vehicleType = VehicleType.fromName(request.vehicleType());
+        if (region == null || vehicleType == null) {
+            return DeliveryFeeQuoteResult.failure(request, 400, DeliveryFeeMessages.INVALID_CITY_OR_VEHICLE_TYPE);
+        }
+        long effectiveTimestamp;
+        try {
+            effectiveTimestamp = request.dateTime() == null
+                    ? Long.MAX_VALUE
+                    : LocalDateTime.parse(request.dateTime()).atZone(ZoneId.of("UTC")).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return DeliveryFeeQuoteResult.failure(request, 400, e.getMessage());
+        }
+
+        StationSeries series = seriesByRegion[region.index()];
+        if (series == null) {
+            series = weatherTimeSeriesIndex.getSeries(region.stationName());
+            seriesByRegion[region.index()] = series;
+        }
+        int position = series.indexAtOrBefore(effectiveTimestamp);
+        if (position < 0) {
+            return DeliveryFeeQuoteResult.failure(request, 404, DeliveryFeeMessages.noWeatherData(region));
+        }
+
+        StationSeries regionSeries = series;
+        FeeResult result;
+        try {
+            result = feeResults == null
+                    ? feeCalculationService.evaluateDeliveryFee(region.tariff(), vehicleType, series.toWeatherData(position))
+                    : feeResults.computeIfAbsent(new FeeKey(region.index(), vehicleType, position),
+                            key -> feeCalculationService.evaluateDeliveryFee(region.tariff(), key.vehicleType(),
+                                    regionSeries.toWeatherData(key.position())));
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not quote the {} fee of region {}", vehicleType, region, e);
+            return DeliveryFeeQuoteResult.failure(request, 500, DeliveryFeeMessages.CALCULATION_FAILED);
+        }
+        return result.isForbidden()
+                ? DeliveryFeeQuoteResult.failure(request, 400, FeeResult.FORBIDDEN_MESSAGE)
+                : DeliveryFeeQuoteResult.success(request, result.fee());
+    }
+
+    private record FeeKey(int region, VehicleType vehicleType, int position) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
+
+/**
+ * Precomputed current delivery fee responses for every region and vehicle type.
+ * <p>
+ * Current fees only change when new weather data arrives, so the full region/vehicle type matrix is computed
+ * right after every import (and once at startup), including forbidden and missing-data outcomes. Each outcome is
+ * stored as a ready-to-send response whose body is already serialized to bytes, so that current-time quotes need
+ * neither a weather lookup, nor a fee calculation, nor JSON serialization. Responses are addressed by the index of
+ * the region, so a lookup costs the same for any number of registered regions.
+ * </p>
+ * <p>
+ * The matrix listens with the lowest precedence, so it is rebuilt after the LatestWeatherDataCache
+ * has been updated for the same event.
+ * </p>
+ * <p>
+ * Reads are counted as hits if the matrix was already computed, or as misses if it had to be computed first;
+ * both are exported as cache metrics.
+ * </p>
+ * <p>
+ * A cell whose fee cannot be calculated is logged and prepared as a 500 response, so that one bad observation
+ * neither stops the rebuild of the other cells nor fails the import or startup that triggered it.
+ * </p>
+ */
+@Component
+public class CurrentFeeMatrix {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CurrentFeeMatrix.class);
+
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final FeeCalculationService feeCalculationService;
+    private final LatestWeatherDataCache latestWeatherDataCache;
+    private final RegionRegistry regionRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile PreparedFeeResponse[] responses;
+
+    /**
+     * Constructs a new CurrentFeeMatrix.
+     *
+     * @param feeCalculationService  the service used to calculate delivery fees
+     * @param latestWeatherDataCache the cache holding the latest observation of every station
+     * @param regionRegistry         the regions the matrix is computed for
+     * @param objectMapper           the mapper used to serialize fees
+     */
+    public CurrentFeeMatrix(FeeCalculationService feeCalculationService, LatestWeatherDataCache latestWeatherDataCache,
+                            RegionRegistry regionRegistry, ObjectMapper objectMapper) {
+        this.feeCalculationService = feeCalculationService;
+        this.latestWeatherDataCache = latestWeatherDataCache;
+        this.regionRegistry = regionRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Recomputes the whole matrix from the latest cached observations and atomically replaces the current one.
+     */
+    @EventListener({ApplicationReadyEvent.class, WeatherDataImportedEvent.class})
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void rebuild() {
+        PreparedFeeResponse[] rebuilt = new PreparedFeeResponse[regionRegistry.size() * VEHICLE_TYPES.length];
+        for (Region region : regionRegistry.getRegions()) {
+            WeatherData weatherData = latestWeatherDataCache.getLatest(region.stationName()).orElse(null);
+            for (VehicleType vehicleType : VEHICLE_TYPES) {
+                rebuilt[slot(region, vehicleType)] = prepare(region, vehicleType, weatherData);
+            }
+        }
+        responses = rebuilt;
+    }
+
+    /**
+     * Returns the prepared current-time response for the given region and vehicle type.
+     *
+     * @param region       the region of the delivery
+     * @param vehicleType  the vehicle type used for delivery
+     * @return the prepared response
+     */
+    public PreparedFeeResponse get(Region region, VehicleType vehicleType) {
+        PreparedFeeResponse[] current = responses;
+        if (current != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            synchronized (this) {
+                if (responses == null) {
+                    rebuild();
+                }
+                current = responses;
+            }
+        }
+        return current[slot(region, vehicleType)];
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private PreparedFeeResponse prepare(Region region, VehicleType vehicleType, WeatherData weatherData) {
+        if (weatherData == null) {
+            return PreparedFeeResponse.text(HttpStatus.NOT_FOUND, DeliveryFeeMessages.noWeatherData(region), null);
+        }
+        FeeResult result;
+        try {
+            result = feeCalculationService.evaluateDeliveryFee(region.tariff(), vehicleType, weatherData);
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not prepare the current {} fee of region {}", vehicleType, region, e);
+            return PreparedFeeResponse.text(HttpStatus.INTERNAL_SERVER_ERROR, DeliveryFeeMessages.CALCULATION_FAILED,
+                    weatherData);
+        }
+        if (result.isForbidden()) {
+            return PreparedFeeResponse.text(HttpStatus.BAD_REQUEST, DeliveryFeeMessages.FORBIDDEN, weatherData);
+        }
+        try {
+            return new PreparedFeeResponse(HttpStatus.OK, MediaType.APPLICATION_JSON,
+                    objectMapper.writeValueAsBytes(result.fee()), weatherData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize delivery fee", e);
+        }
+    }
+
+    private static int slot(Region region, VehicleType vehicleType) {
+        return region.index() * VEHICLE_TYPES.length + vehicleType.ordinal();
+    }
+
+    /**
+     * A fully prepared delivery fee response.
+     *
+     * @param status       the HTTP status of the response
+     * @param contentType  the content type of the body
+     * @param body         the serialized response body
+     * @param weatherData  the observation the response was computed from, or null if there was none
+     */
+    public record PreparedFeeResponse(HttpStatus status, MediaType contentType, byte[] body, WeatherData weatherData) {
+
+        private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+        private static PreparedFeeResponse text(HttpStatus status, String message, WeatherData weatherData) {
+            return new PreparedFeeResponse(status, TEXT_PLAIN_UTF8, message.getBytes(StandardCharsets.UTF_8), weatherData);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+/**
+ * The error messages of delivery fee quotes.
+ * The single-quote, precomputed, batch and stream paths all build their errors from these messages,
+ * so that the texts of the different paths cannot drift apart.
+ */
+public final class DeliveryFeeMessages {
+
+    /**
+     * The message reported when the city or vehicle type of a quote is not recognized.
+     * Before names were resolved by the RegionRegistry, the message was followed by the enum lookup error
+     * ({@code "No enum constant ..."}); that suffix named internal classes and is no longer reported.
+     */
+    public static final String INVALID_CITY_OR_VEHICLE_TYPE = "Invalid city or vehicle type";
+
+    /**
+     * The response body of a single quote rejected because usage of the vehicle type is forbidden.
+     * Batch and stream items carry their status separately and report only {@link FeeResult#FORBIDDEN_MESSAGE}.
+     */
+    public static final String FORBIDDEN = INVALID_CITY_OR_VEHICLE_TYPE + ". " + FeeResult.FORBIDDEN_MESSAGE;
+
+    /**
+     * The message reported for an item of a batch or stream that holds no quote request at all ({@code null}).
+     */
+    public static final String MISSING_QUOTE_REQUEST = "Missing quote request";
+
+    /**
+     * The message reported when a fee could not be calculated from the stored observation.
+     * The cause is logged, and never reported to the client.
+     */
+    public static final String CALCULATION_FAILED = "The delivery fee could not be calculated";
+
+    private DeliveryFeeMessages() {
+    }
+
+    /**
+     * Returns the message reported when the station of a region has no weather data for the requested time.
+     *
+     * @param region the region of the quote
+     * @return the message naming the region's code
+     */
+    public static String noWeatherData(Region region) {
+        return "No weather data found for city: " + region.code();
+    }
+}
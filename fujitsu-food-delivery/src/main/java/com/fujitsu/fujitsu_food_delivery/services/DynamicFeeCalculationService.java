@@ -4,17 +4,119 @@ import com.fujitsu.fujitsu_food_delivery.entities.FeeRule;
 import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
 import com.fujitsu.fujitsu_food_delivery.enums.City;
 import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.events.FeeRulesChangedEvent;
 import com.fujitsu.fujitsu_food_delivery.repositories.FeeRuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable.FORBIDDEN;
+import static com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable.phenomenonClass;
 
 @Service
 public class DynamicFeeCalculationService {
 
+    /**
+     * Conditions under which a vehicle type may not be used at all: bikes in wind speeds above 20 m/s,
+     * and scooters and bikes in glaze, hail or thunder. They are compiled like fee rules, and take precedence over them.
+     */
+    static final List<FeeRule> USAGE_RESTRICTIONS = List.of(
+            new FeeRule("WIND_SPEED", null, VehicleType.BIKE, "> 20", 0.0),
+            new FeeRule("PHENOMENON", null, VehicleType.SCOOTER, "glaze/hail/thunder", 0.0),
+            new FeeRule("PHENOMENON", null, VehicleType.BIKE, "glaze/hail/thunder", 0.0));
+
     private final FeeRuleRepository feeRuleRepository;
+    private final boolean lookupTableEnabled;
+    private final AtomicReference<CompiledRules> compiledRules = new AtomicReference<>();
+    private final AtomicLong ruleSetVersion = new AtomicLong();
+    private final ReentrantLock rulesLoadLock = new ReentrantLock();
 
     public DynamicFeeCalculationService(FeeRuleRepository feeRuleRepository) {
+        this(feeRuleRepository, false);
+    }
+
+    /**
+     * Constructs a new DynamicFeeCalculationService.
+     *
+     * @param feeRuleRepository   the repository holding the fee rules
+     * @param lookupTableEnabled  whether fees are read from the precomputed FeeLookupTable
+     *                            instead of being evaluated against the compiled rule intervals on every call
+     */
+    @Autowired
+    public DynamicFeeCalculationService(FeeRuleRepository feeRuleRepository,
+                                        @Value("${fee.dynamic.lookup-table-enabled:false}") boolean lookupTableEnabled) {
         this.feeRuleRepository = feeRuleRepository;
+        this.lookupTableEnabled = lookupTableEnabled;
+    }
+
+    /**
+     * Recompiles the rule intervals and the lookup table from the database and atomically
+     * replaces the current ones. Runs once the application is ready (after the fee rules have been seeded)
+     * and whenever the fee rules are changed through the FeeRuleService.
+     * <p>
+     * Reloads are serialized, so the rules read last are always published last. The intervals and the lookup
+     * table are published together, so readers never pair the intervals of one rule set with the table of another.
+     * </p>
+     */
+    @EventListener({ApplicationReadyEvent.class, FeeRulesChangedEvent.class})
+    public void reloadFeeRules() {
+        rulesLoadLock.lock();
+        try {
+            long version = ruleSetVersion.incrementAndGet();
+            List<FeeRule> rules = feeRuleRepository.findAll();
+            FeeRuleIntervals intervals = FeeRuleIntervals.compile(rules, USAGE_RESTRICTIONS, version);
+            FeeLookupTable table = FeeLookupTable.build(intervals.getTemperatureBreakpoints(),
+                    intervals.getWindBreakpoints(), intervals::evaluateCents, version);
+            compiledRules.set(new CompiledRules(intervals, table));
+        } finally {
+            rulesLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the fee rules compiled into interval predicates for the current rule-set version.
+     *
+     * @return the current rule intervals
+     */
+    public FeeRuleIntervals getFeeRuleIntervals() {
+        return getCompiledRules().intervals();
+    }
+
+    /**
+     * Returns the lookup table precomputed for the current rule-set version.
+     *
+     * @return the current fee lookup table
+     */
+    public FeeLookupTable getFeeLookupTable() {
+        return getCompiledRules().table();
+    }
+
+    /**
+     * Returns the current compiled rules, compiling them on first use if no reload has happened yet.
+     *
+     * @return the current compiled rules
+     */
+    private CompiledRules getCompiledRules() {
+        CompiledRules current = compiledRules.get();
+        if (current == null) {
+            rulesLoadLock.lock();
+            try {
+                if (compiledRules.get() == null) {
+                    reloadFeeRules();
+                }
+                current = compiledRules.get();
+            } finally {
+                rulesLoadLock.unlock();
+            }
+        }
+        return current;
     }
 
     /**
@@ -24,93 +126,50 @@ public class DynamicFeeCalculationService {
      *   An extra fee for air temperature (if applicable; FeeRule type "AIR_TEMP")
      *   An extra fee for wind speed (if applicable; FeeRule type "WIND_SPEED")
      *   An extra fee for weather phenomenon (if applicable; FeeRule type "PHENOMENON")
+     * Whether a rule applies is decided by its condition, which {@link FeeRuleCondition} describes.
      *
      * @param city         the city for the delivery
      * @param vehicleType  the vehicle type used for delivery
      * @param weatherData  the weather data record for the city
      * @return the calculated delivery fee
-     * @throws IllegalArgumentException if any forbidden condition (e.g. wind speed >20 m/s or forbidden phenomenon) is met
+     * @throws IllegalArgumentException if one of the {@link #USAGE_RESTRICTIONS} is met
      */
     public double calculateDeliveryFee(City city, VehicleType vehicleType, WeatherData weatherData) {
-        double totalFee = 0.0;
-
-        // Retrieve the base fee rule for the specified city and vehicle type.
-        FeeRule baseFeeRule = getFeeRule("BASE_FEE", city, vehicleType, null);
-        if (baseFeeRule != null) {
-            totalFee += baseFeeRule.getFee();
-        }
-
-        // Fee for air temperature (applies for Scooter or Bike).
-        if (vehicleType == VehicleType.SCOOTER || vehicleType == VehicleType.BIKE) {
-            Double temp = weatherData.getAirTemperature();
-            if (temp != null) {
-                FeeRule airTempRule = null;
-                if (temp < -10) {
-                    airTempRule = getFeeRule("AIR_TEMP", null, vehicleType, "< -10");
-                } else if (temp >= -10 && temp < 0) {
-                    airTempRule = getFeeRule("AIR_TEMP", null, vehicleType, "[-10,0)");
-                }
-                if (airTempRule != null) {
-                    totalFee += airTempRule.getFee();
-                }
-            }
-        }
+        return evaluateDeliveryFee(city, vehicleType, weatherData).feeOrThrow();
+    }
 
-        // Fee for wind speed (applies only for Bike).
-        if (vehicleType == VehicleType.BIKE && weatherData.getWindSpeed() != null) {
-            double windSpeed = weatherData.getWindSpeed();
-            if (windSpeed > 20) {
-                throw new IllegalArgumentException("Usage of selected vehicle type is forbidden");
-            } else if (windSpeed >= 10 && windSpeed <= 20) {
-                FeeRule windSpeedRule = getFeeRule("WIND_SPEED", null, vehicleType, "[10,20]");
-                if (windSpeedRule != null) {
-                    totalFee += windSpeedRule.getFee();
-                }
-            }
-        }
+    /**
+     * Calculates the total delivery fee like {@link #calculateDeliveryFee}, but reports forbidden vehicle usage
+     * as a FeeResult instead of throwing an exception.
+     *
+     * @param city         the city for the delivery
+     * @param vehicleType  the vehicle type used for delivery
+     * @param weatherData  the weather data record for the city
+     * @return the calculated delivery fee, or the forbidden result
+     */
+    public FeeResult evaluateDeliveryFee(City city, VehicleType vehicleType, WeatherData weatherData) {
+        int phenomenonClass = phenomenonClass(weatherData.getPhenomenonCategory());
 
-        // Fee for weather phenomenon (applies for Scooter or Bike).
-        if (vehicleType == VehicleType.SCOOTER || vehicleType == VehicleType.BIKE) {
-            String phenomenon = weatherData.getWeatherPhenomenon();
-            if (phenomenon != null && !phenomenon.isEmpty()) {
-                String phenomenonLower = phenomenon.toLowerCase();
-                if (phenomenonLower.contains("glaze") || phenomenonLower.contains("hail") || phenomenonLower.contains("thunder")) {
-                    throw new IllegalArgumentException("Usage of selected vehicle type is forbidden");
-                } else if (phenomenonLower.contains("snow") || phenomenonLower.contains("sleet")) {
-                    FeeRule phRule = getFeeRule("PHENOMENON", null, vehicleType, "snow/sleet");
-                    if (phRule != null) {
-                        totalFee += phRule.getFee();
-                    }
-                } else if (phenomenonLower.contains("rain")) {
-                    FeeRule phRule = getFeeRule("PHENOMENON", null, vehicleType, "rain");
-                    if (phRule != null) {
-                        totalFee += phRule.getFee();
-                    }
-                }
-            }
+        CompiledRules rules = getCompiledRules();
+        int cents;
+        if (lookupTableEnabled) {
+            FeeLookupTable table = rules.table();
+            cents = table.getCents(city, vehicleType, table.temperatureBand(weatherData.getAirTemperature()),
+                    table.windBand(weatherData.getWindSpeed()), phenomenonClass);
+        } else {
+            FeeRuleIntervals intervals = rules.intervals();
+            cents = intervals.evaluateCents(city, vehicleType, intervals.temperatureBand(weatherData.getAirTemperature()),
+                    intervals.windBand(weatherData.getWindSpeed()), phenomenonClass);
         }
-
-        return totalFee;
+        return cents == FORBIDDEN ? FeeResult.forbidden() : FeeResult.ok(cents / 100.0);
     }
 
     /**
-     * Retrieves a FeeRule matching the given parameters.
-     * If a rule's city is not relevant, you can pass null.
-     * Similarly, pass null for condition when not needed.
+     * The rule intervals and the lookup table compiled from one rule set, published as one unit.
      *
-     * @param ruleType     the type of rule ("BASE_FEE", "AIR_TEMP", "WIND_SPEED", or "PHENOMENON")
-     * @param city         the city for which the rule applies, or null if not city-specific
-     * @param vehicleType  the vehicle type for which the rule applies
-     * @param condition    the condition string (for extra fees), or null for base fee rules
-     * @return the FeeRule if found; otherwise, null
+     * @param intervals the compiled rule intervals
+     * @param table     the lookup table precomputed from the intervals
      */
-    private FeeRule getFeeRule(String ruleType, City city, VehicleType vehicleType, String condition) {
-        List<FeeRule> rules = feeRuleRepository.findAll();
-        return rules.stream().filter(rule ->
-                ruleType.equals(rule.getRuleType()) &&
-                (city == null || rule.getCity() == city) &&
-                rule.getVehicleType() == vehicleType &&
-                (condition == null || condition.equals(rule.getCondition()))
-        ).findFirst().orElse(null);
+    private record CompiledRules(FeeRuleIntervals intervals, FeeLookupTable table) {
     }
 }
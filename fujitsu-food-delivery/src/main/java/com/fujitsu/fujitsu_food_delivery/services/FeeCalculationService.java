@@ -3,6 +3,7 @@ package com.fujitsu.fujitsu_food_delivery.services;
 import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
 import com.fujitsu.fujitsu_food_delivery.enums.City;
 import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -62,13 +63,50 @@ public class FeeCalculationService {
      * @param vehicleType  the type of vehicle used for delivery
      * @param weatherData  the weather data containing air temperature, wind speed, and weather phenomenon
      * @return the calculated delivery fee as a double
+     * @throws IllegalArgumentException if the weather conditions forbid usage of the vehicle type
      */
     public double calculateDeliveryFee(City city, VehicleType vehicleType, WeatherData weatherData) {
+        return evaluateDeliveryFee(city, vehicleType, weatherData).feeOrThrow();
+    }
+
+    /**
+     * Calculates the total delivery fee like {@link #calculateDeliveryFee}, but reports forbidden vehicle usage
+     * as a FeeResult instead of throwing an exception.
+     *
+     * @param city         the city where the delivery is taking place
+     * @param vehicleType  the type of vehicle used for delivery
+     * @param weatherData  the weather data containing air temperature, wind speed, and weather phenomenon
+     * @return the calculated delivery fee, or the forbidden result
+     */
+    public FeeResult evaluateDeliveryFee(City city, VehicleType vehicleType, WeatherData weatherData) {
+        if (isUsageForbidden(vehicleType, weatherData)) {
+            return FeeResult.forbidden();
+        }
         double regionalFee = calculateRegionalBaseFee(city, vehicleType);
         double airTempFee = calculateAirTemperatureFee(vehicleType, weatherData);
         double windSpeedFee = calculateWindSpeedFee(vehicleType, weatherData);
         double weatherPhenomenonFee = calculateWeatherPhenomenonFee(vehicleType, weatherData);
-        return regionalFee + airTempFee + windSpeedFee + weatherPhenomenonFee;
+        return FeeResult.ok(regionalFee + airTempFee + windSpeedFee + weatherPhenomenonFee);
+    }
+
+    /**
+     * Checks whether the weather conditions forbid usage of the vehicle type.
+     * Bikes may not be used at wind speeds above 20 m/s, and scooters and bikes may not be used
+     * in glaze, hail or thunder.
+     *
+     * @param vehicleType  the type of vehicle
+     * @param weatherData  the weather data containing the wind speed and weather phenomenon
+     * @return true if usage of the vehicle type is forbidden
+     */
+    private boolean isUsageForbidden(VehicleType vehicleType, WeatherData weatherData) {
+        if (vehicleType == VehicleType.BIKE) {
+            Double windSpeed = weatherData.getWindSpeed();
+            if (windSpeed != null && windSpeed > 20) {
+                return true;
+            }
+        }
+        return (vehicleType == VehicleType.SCOOTER || vehicleType == VehicleType.BIKE)
+                && weatherData.getPhenomenonCategory() == WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER;
     }
 
     /**
@@ -89,6 +127,7 @@ public class FeeCalculationService {
      * Calculates an extra fee based on the air temperature.
      * This fee applies only for vehicles of type Scooter or Bike. If the air temperature is less than -10°C,
      * a fee of 1.0 is applied. If the temperature is between -10°C and 1°C, a fee of 0.5 is applied.
+     * A missing air temperature (e.g. a blank value in the feed) carries no extra fee, as in the dynamic fee rules.
      *
      * @param vehicleType  the type of vehicle
      * @param weatherData  the weather data containing the air temperature
@@ -97,7 +136,9 @@ public class FeeCalculationService {
     private double calculateAirTemperatureFee(VehicleType vehicleType, WeatherData weatherData) {
         if (vehicleType == VehicleType.SCOOTER || vehicleType == VehicleType.BIKE) {
             Double temp = weatherData.getAirTemperature();
-            if (temp < -10) {
+            if (temp == null) {
+                return 0.0;
+            } else if (temp < -10) {
                 return 1.0;
             } else if (temp > -11 && temp < 1) {
                 return 0.5;
@@ -108,21 +149,18 @@ public class FeeCalculationService {
 
     /**
      * Calculates an extra fee based on the wind speed.
-     * This fee applies only for bikes. If the wind speed is greater than 20 m/s, an exception is thrown.
-     * If the wind speed is between 10 m/s and 20 m/s, a fee of 0.5 is applied.
+     * This fee applies only for bikes. If the wind speed is between 10 m/s and 20 m/s, a fee of 0.5 is applied.
+     * Wind speeds above 20 m/s forbid usage and are checked before any fee is calculated.
      *
      * @param vehicleType  the type of vehicle
      * @param weatherData  the weather data containing the wind speed
      * @return the extra fee based on wind speed, or 0.0 if not applicable
-     * @throws IllegalArgumentException if the wind speed exceeds the allowed threshold for Bikes
      */
     private double calculateWindSpeedFee(VehicleType vehicleType, WeatherData weatherData) {
         if (vehicleType == VehicleType.BIKE) {
             Double windSpeed = weatherData.getWindSpeed();
             if (windSpeed != null) {
-                if (windSpeed > 20) {
-                    throw new IllegalArgumentException("Usage of selected vehicle type is forbidden");
-                } else if (windSpeed > 9 && windSpeed < 21) {
+                if (windSpeed > 9 && windSpeed < 21) {
                     return 0.5;
                 }
             }
@@ -131,32 +169,26 @@ public class FeeCalculationService {
     }
 
     /**
-     * Calculates an extra fee based on the weather phenomenon.
+     * Calculates an extra fee based on the weather phenomenon category.
      * This fee applies only for vehicles of type Scooter or Bike. Specific weather conditions trigger additional fees:
-     *   If the phenomenon contains "Snow" or "Sleet", a fee of 1.0 is applied.
-     *   If the phenomenon contains "Rain", a fee of 0.5 is applied.
-     *   If the phenomenon contains "Glaze", "Hail", or "Thunder", an exception is thrown to forbid usage.
+     *   If the phenomenon is snow or sleet, a fee of 1.0 is applied.
+     *   If the phenomenon is rain, a fee of 0.5 is applied.
+     * Glaze, hail and thunder forbid usage and are checked before any fee is calculated.
      *
      * @param vehicleType  the type of vehicle
-     * @param weatherData  the weather data containing the weather phenomenon description
+     * @param weatherData  the weather data containing the weather phenomenon category
      * @return the extra fee based on the weather phenomenon, or 0.0 if not applicable
-     * @throws IllegalArgumentException if the weather phenomenon indicates that usage of the vehicle is forbidden
      */
     private double calculateWeatherPhenomenonFee(VehicleType vehicleType, WeatherData weatherData) {
         if (vehicleType == VehicleType.SCOOTER || vehicleType == VehicleType.BIKE) {
-            String phenomenon = weatherData.getWeatherPhenomenon();
-            if (phenomenon != null && !phenomenon.isEmpty()) {
-                String phenomenonLower = phenomenon.toLowerCase();
-                if (phenomenonLower.contains("glaze") ||
-                    phenomenonLower.contains("hail") ||
-                    phenomenonLower.contains("thunder")) {
-                    throw new IllegalArgumentException("Usage of selected vehicle type is forbidden");
-                } else if (phenomenonLower.contains("snow") ||
-                           phenomenonLower.contains("sleet")) {
+            WeatherPhenomenonCategory category = weatherData.getPhenomenonCategory();
+            switch (category) {
+                case SNOW_SLEET:
                     return 1.0;
-                } else if (phenomenonLower.contains("rain")) {
+                case RAIN:
                     return 0.5;
-                }
+                default:
+                    return 0.0;
             }
         }
         return 0.0;
@@ -0,0 +1,166 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+
+/**
+ * Precomputed delivery fees for every combination of city, vehicle type and weather band.
+ * <p>
+ * The numeric weather inputs the fee rules branch on fall into the bands of their {@link IntervalBreakpoints},
+ * which are derived from the rule conditions (with the seeded rules: air temperature &lt; -10, [-10,0), &gt;= 0 and
+ * wind speed &lt; 10, [10,20], &gt; 20, plus one band each for a missing value), and the weather phenomenon falls
+ * into its category. The table stores the total fee in cents for each combination in a flat int array,
+ * or {@link #FORBIDDEN} if the vehicle type may not be used. A quote then costs one band classification per field
+ * and one array read. The table grows with the product of the band counts, so it suits rule sets with a moderate
+ * number of distinct thresholds.
+ * </p>
+ */
+public final class FeeLookupTable {
+
+    /**
+     * Sentinel stored in a slot when usage of the vehicle type is forbidden.
+     * Fee rules may be negative, so the sentinel lies far outside the range of real fees rather than just below zero.
+     */
+    public static final int FORBIDDEN = Integer.MIN_VALUE;
+
+    public static final int PHENOMENON_CLASS_COUNT = WeatherPhenomenonCategory.values().length;
+
+    private static final City[] CITIES = City.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final int[] cents;
+    private final IntervalBreakpoints temperatureBreakpoints;
+    private final IntervalBreakpoints windBreakpoints;
+    private final int tempBandCount;
+    private final int windBandCount;
+    private final long ruleSetVersion;
+
+    private FeeLookupTable(int[] cents, IntervalBreakpoints temperatureBreakpoints, IntervalBreakpoints windBreakpoints,
+                           long ruleSetVersion) {
+        this.cents = cents;
+        this.temperatureBreakpoints = temperatureBreakpoints;
+        this.windBreakpoints = windBreakpoints;
+        this.tempBandCount = temperatureBreakpoints.getBandCount();
+        this.windBandCount = windBreakpoints.getBandCount();
+        this.ruleSetVersion = ruleSetVersion;
+    }
+
+    /**
+     * Evaluates the fee for a single combination of city, vehicle type and weather bands.
+     */
+    @FunctionalInterface
+    public interface BandEvaluator {
+
+        /**
+         * @return the fee in cents, or {@link FeeLookupTable#FORBIDDEN}
+         */
+        int evaluateCents(City city, VehicleType vehicleType, int tempBand, int windBand, int phenomenonClass);
+    }
+
+    /**
+     * Builds a table by evaluating every slot once with the given evaluator.
+     *
+     * @param temperatureBreakpoints  the breakpoints the air temperature bands are derived from
+     * @param windBreakpoints         the breakpoints the wind speed bands are derived from
+     * @param evaluator               the fee logic to precompute
+     * @param ruleSetVersion          the rule-set version the evaluator reflects
+     * @return the populated lookup table
+     */
+    public static FeeLookupTable build(IntervalBreakpoints temperatureBreakpoints, IntervalBreakpoints windBreakpoints,
+                                       BandEvaluator evaluator, long ruleSetVersion) {
+        int tempBandCount = temperatureBreakpoints.getBandCount();
+        int windBandCount = windBreakpoints.getBandCount();
+        int[] cents = new int[CITIES.length * VEHICLE_TYPES.length * tempBandCount * windBandCount * PHENOMENON_CLASS_COUNT];
+        FeeLookupTable table = new FeeLookupTable(cents, temperatureBreakpoints, windBreakpoints, ruleSetVersion);
+        for (City city : CITIES) {
+            for (VehicleType vehicleType : VEHICLE_TYPES) {
+                for (int tempBand = 0; tempBand < tempBandCount; tempBand++) {
+                    for (int windBand = 0; windBand < windBandCount; windBand++) {
+                        for (int phenomenonClass = 0; phenomenonClass < PHENOMENON_CLASS_COUNT; phenomenonClass++) {
+                            cents[table.slot(city, vehicleType, tempBand, windBand, phenomenonClass)] =
+                                    evaluator.evaluateCents(city, vehicleType, tempBand, windBand, phenomenonClass);
+                        }
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the precomputed fee for the given combination.
+     *
+     * @return the fee in cents, or {@link #FORBIDDEN}
+     */
+    public int getCents(City city, VehicleType vehicleType, int tempBand, int windBand, int phenomenonClass) {
+        return cents[slot(city, vehicleType, tempBand, windBand, phenomenonClass)];
+    }
+
+    /**
+     * Returns the rule-set version this table was computed from.
+     *
+     * @return the rule-set version
+     */
+    public long getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+
+    /**
+     * Classifies an air temperature into its band. A missing temperature carries no extra fee.
+     *
+     * @param airTemperature the air temperature in °C, or null if unknown
+     * @return the temperature band
+     */
+    public int temperatureBand(Double airTemperature) {
+        return temperatureBreakpoints.band(airTemperature);
+    }
+
+    /**
+     * Classifies a primitive air temperature into its band. NaN marks a missing temperature and carries no extra fee.
+     *
+     * @param airTemperature the air temperature in °C, or NaN if unknown
+     * @return the temperature band
+     */
+    public int temperatureBand(double airTemperature) {
+        return temperatureBreakpoints.band(airTemperature);
+    }
+
+    /**
+     * Classifies a wind speed into its band. A missing wind speed carries no extra fee.
+     *
+     * @param windSpeed the wind speed in m/s, or null if unknown
+     * @return the wind band
+     */
+    public int windBand(Double windSpeed) {
+        return windBreakpoints.band(windSpeed);
+    }
+
+    /**
+     * Classifies a primitive wind speed into its band. NaN marks a missing wind speed and carries no extra fee.
+     *
+     * @param windSpeed the wind speed in m/s, or NaN if unknown
+     * @return the wind band
+     */
+    public int windBand(double windSpeed) {
+        return windBreakpoints.band(windSpeed);
+    }
+
+    /**
+     * Maps a weather phenomenon category to its phenomenon class, which is the category's ordinal.
+     *
+     * @param category the weather phenomenon category
+     * @return the phenomenon class
+     */
+    public static int phenomenonClass(WeatherPhenomenonCategory category) {
+        return category.ordinal();
+    }
+
+    private int slot(City city, VehicleType vehicleType, int tempBand, int windBand, int phenomenonClass) {
+        int slot = city.ordinal();
+        slot = slot * VEHICLE_TYPES.length + vehicleType.ordinal();
+        slot = slot * tempBandCount + tempBand;
+        slot = slot * windBandCount + windBand;
+        return slot * PHENOMENON_CLASS_COUNT + phenomenonClass;
+    }
+}
@@ -0,0 +1,54 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+/**
+ * The result of a delivery fee calculation: either a fee, or the outcome that usage of the vehicle type is forbidden.
+ * <p>
+ * Forbidden usage is an expected outcome during bad weather rather than an error, so it is returned as a value
+ * instead of being thrown. The forbidden result is a shared constant.
+ * </p>
+ *
+ * @param outcome  the outcome of the calculation
+ * @param fee      the delivery fee, or 0.0 if usage of the vehicle type is forbidden
+ */
+public record FeeResult(Outcome outcome, double fee) {
+
+    /**
+     * The message reported when usage of the vehicle type is forbidden.
+     */
+    public static final String FORBIDDEN_MESSAGE = "Usage of selected vehicle type is forbidden";
+
+    private static final FeeResult FORBIDDEN = new FeeResult(Outcome.FORBIDDEN, 0.0);
+
+    /**
+     * The outcomes of a delivery fee calculation.
+     */
+    public enum Outcome {
+        OK,
+        FORBIDDEN
+    }
+
+    public static FeeResult ok(double fee) {
+        return new FeeResult(Outcome.OK, fee);
+    }
+
+    public static FeeResult forbidden() {
+        return FORBIDDEN;
+    }
+
+    public boolean isForbidden() {
+        return outcome == Outcome.FORBIDDEN;
+    }
+
+    /**
+     * Returns the fee, for callers that treat forbidden usage as an error.
+     *
+     * @return the delivery fee
+     * @throws IllegalArgumentException if usage of the vehicle type is forbidden
+     */
+    public double feeOrThrow() {
+        if (isForbidden()) {
+            throw new IllegalArgumentException(FORBIDDEN_MESSAGE);
+        }
+        return fee;
+    }
+}
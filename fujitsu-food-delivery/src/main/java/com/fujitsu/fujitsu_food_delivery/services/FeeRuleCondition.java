@@ -0,0 +1,132 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parsed condition of a fee rule.
+ * <p>
+ * AIR_TEMP and WIND_SPEED rules hold a numeric interval, written either as a comparison ({@code "< -10"},
+ * {@code "<= 0"}, {@code "> 20"}, {@code ">= 10"}) or in interval notation, with square brackets for closed and
+ * round brackets for open bounds ({@code "[-10,0)"}, {@code "[10,20]"}). PHENOMENON rules hold a slash-separated
+ * set of phenomena ({@code "snow/sleet"}), each of which is classified like an observed phenomenon, so a rule on
+ * {@code "snow"} applies to the whole SNOW_SLEET category; {@code "none"} names the NONE category.
+ * BASE_FEE rules have no condition.
+ * </p>
+ */
+public sealed interface FeeRuleCondition permits FeeRuleCondition.Interval, FeeRuleCondition.PhenomenonSet {
+
+    /**
+     * Parses the condition of a fee rule according to its rule type.
+     *
+     * @param ruleType   the type of the rule ("BASE_FEE", "AIR_TEMP", "WIND_SPEED", or "PHENOMENON")
+     * @param condition  the condition string
+     * @return the parsed condition, or null for base fee rules
+     * @throws IllegalArgumentException if the rule type is unknown or the condition does not parse for it
+     */
+    static FeeRuleCondition parse(String ruleType, String condition) {
+        if (ruleType == null) {
+            throw new IllegalArgumentException("A fee rule needs a rule type");
+        }
+        switch (ruleType) {
+            case "BASE_FEE":
+                if (condition != null && !condition.isBlank()) {
+                    throw new IllegalArgumentException("A BASE_FEE rule takes no condition: " + condition);
+                }
+                return null;
+            case "AIR_TEMP":
+            case "WIND_SPEED":
+                return Interval.parse(condition);
+            case "PHENOMENON":
+                return PhenomenonSet.parse(condition);
+            default:
+                throw new IllegalArgumentException("Unknown fee rule type: " + ruleType);
+        }
+    }
+
+    /**
+     * A numeric interval. Unbounded sides are infinite and open.
+     *
+     * @param lower        the lower bound
+     * @param lowerClosed  whether the lower bound is part of the interval
+     * @param upper        the upper bound
+     * @param upperClosed  whether the upper bound is part of the interval
+     */
+    record Interval(double lower, boolean lowerClosed, double upper, boolean upperClosed) implements FeeRuleCondition {
+
+        public boolean contains(double value) {
+            return (lowerClosed ? value >= lower : value > lower) && (upperClosed ? value <= upper : value < upper);
+        }
+
+        static Interval parse(String condition) {
+            String text = requireText(condition);
+            if (text.startsWith("<=")) {
+                return new Interval(Double.NEGATIVE_INFINITY, false, bound(text.substring(2), condition), true);
+            } else if (text.startsWith("<")) {
+                return new Interval(Double.NEGATIVE_INFINITY, false, bound(text.substring(1), condition), false);
+            } else if (text.startsWith(">=")) {
+                return new Interval(bound(text.substring(2), condition), true, Double.POSITIVE_INFINITY, false);
+            } else if (text.startsWith(">")) {
+                return new Interval(bound(text.substring(1), condition), false, Double.POSITIVE_INFINITY, false);
+            }
+
+            char open = text.charAt(0);
+            char close = text.charAt(text.length() - 1);
+            String[] bounds = text.substring(1, Math.max(1, text.length() - 1)).split(",", -1);
+            if ((open != '[' && open != '(') || (close != ']' && close != ')') || bounds.length != 2) {
+                throw new IllegalArgumentException("Invalid interval condition: " + condition);
+            }
+            Interval interval = new Interval(bound(bounds[0], condition), open == '[',
+                    bound(bounds[1], condition), close == ']');
+            if (interval.lower > interval.upper
+                    || (interval.lower == interval.upper && !(interval.lowerClosed && interval.upperClosed))) {
+                throw new IllegalArgumentException("Empty interval condition: " + condition);
+            }
+            return interval;
+        }
+
+        private static double bound(String text, String condition) {
+            try {
+                double bound = Double.parseDouble(text.trim());
+                if (Double.isFinite(bound)) {
+                    // Adding zero turns -0.0 into 0.0, so both spellings yield the same breakpoint.
+                    return bound + 0.0;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below together with non-finite bounds.
+            }
+            throw new IllegalArgumentException("Invalid bound '" + text.trim() + "' in condition: " + condition);
+        }
+    }
+
+    /**
+     * A set of weather phenomenon categories.
+     *
+     * @param categories the categories the condition matches
+     */
+    record PhenomenonSet(Set<WeatherPhenomenonCategory> categories) implements FeeRuleCondition {
+
+        static PhenomenonSet parse(String condition) {
+            Set<WeatherPhenomenonCategory> categories = EnumSet.noneOf(WeatherPhenomenonCategory.class);
+            for (String phenomenon : requireText(condition).split("/", -1)) {
+                String name = phenomenon.trim().toLowerCase();
+                WeatherPhenomenonCategory category = WeatherPhenomenonCategory.classify(name);
+                if (category == WeatherPhenomenonCategory.NONE && !name.equals("none")) {
+                    throw new IllegalArgumentException("Unknown phenomenon '" + name + "' in condition: " + condition);
+                }
+                categories.add(category);
+            }
+            return new PhenomenonSet(Collections.unmodifiableSet(categories));
+        }
+    }
+
+    private static String requireText(String condition) {
+        if (condition == null || condition.isBlank()) {
+            throw new IllegalArgumentException("The rule type requires a condition");
+        }
+        return condition.trim();
+    }
+}
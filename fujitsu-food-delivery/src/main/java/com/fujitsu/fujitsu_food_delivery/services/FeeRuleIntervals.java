@@ -0,0 +1,229 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.entities.FeeRule;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.services.FeeRuleCondition.Interval;
+import com.fujitsu.fujitsu_food_delivery.services.FeeRuleCondition.PhenomenonSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable fee rules compiled into per-field interval predicates.
+ * <p>
+ * Every rule condition is parsed once, when the rules are compiled. The intervals of all AIR_TEMP and WIND_SPEED
+ * rules are merged into one set of {@link IntervalBreakpoints} per field, and for every (city, vehicle type) pair
+ * the fee of each band is stored in a flat int array, as are the fees per phenomenon category. A calculation then
+ * costs one binary search per numeric field and four array reads, however many rules and thresholds there are.
+ * </p>
+ * <p>
+ * Within a band, usage restrictions take precedence over fees, rules for a specific city take precedence over rules
+ * for all cities, and otherwise the first rule in table order wins. Rules without a rule type or vehicle type, and
+ * rules whose condition does not parse, can never be matched and are skipped; the latter with a warning.
+ * </p>
+ */
+public final class FeeRuleIntervals {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FeeRuleIntervals.class);
+
+    private static final City[] CITIES = City.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final int SLOT_COUNT = CITIES.length * VEHICLE_TYPES.length;
+    private static final int PHENOMENON_COUNT = WeatherPhenomenonCategory.values().length;
+    private static final int UNSET = FeeLookupTable.FORBIDDEN + 1;
+
+    private final IntervalBreakpoints temperatureBreakpoints;
+    private final IntervalBreakpoints windBreakpoints;
+    private final int[] baseCents;
+    private final int[] temperatureCents;
+    private final int[] windCents;
+    private final int[] phenomenonCents;
+    private final long version;
+
+    private FeeRuleIntervals(IntervalBreakpoints temperatureBreakpoints, IntervalBreakpoints windBreakpoints,
+                             int[] baseCents, int[] temperatureCents, int[] windCents, int[] phenomenonCents,
+                             long version) {
+        this.temperatureBreakpoints = temperatureBreakpoints;
+        this.windBreakpoints = windBreakpoints;
+        this.baseCents = baseCents;
+        this.temperatureCents = temperatureCents;
+        this.windCents = windCents;
+        this.phenomenonCents = phenomenonCents;
+        this.version = version;
+    }
+
+    /**
+     * Compiles the given rules and usage restrictions.
+     * A restriction is a rule whose condition forbids usage of its vehicle type; its fee is ignored.
+     *
+     * @param rules         the fee rules in table order
+     * @param restrictions  the usage restrictions
+     * @param version       the rule-set version this compilation represents
+     * @return the compiled rules
+     */
+    public static FeeRuleIntervals compile(List<FeeRule> rules, List<FeeRule> restrictions, long version) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        restrictions.forEach(restriction -> addCompiled(compiled, restriction, true));
+        rules.stream().filter(rule -> rule.getCity() != null).forEach(rule -> addCompiled(compiled, rule, false));
+        rules.stream().filter(rule -> rule.getCity() == null).forEach(rule -> addCompiled(compiled, rule, false));
+
+        IntervalBreakpoints temperatureBreakpoints = IntervalBreakpoints.of(intervals(compiled, "AIR_TEMP"));
+        IntervalBreakpoints windBreakpoints = IntervalBreakpoints.of(intervals(compiled, "WIND_SPEED"));
+        int temperatureBandCount = temperatureBreakpoints.getBandCount();
+        int windBandCount = windBreakpoints.getBandCount();
+
+        int[] baseCents = unset(SLOT_COUNT);
+        int[] temperatureCents = unset(SLOT_COUNT * temperatureBandCount);
+        int[] windCents = unset(SLOT_COUNT * windBandCount);
+        int[] phenomenonCents = unset(SLOT_COUNT * PHENOMENON_COUNT);
+
+        for (CompiledRule compiledRule : compiled) {
+            FeeRule rule = compiledRule.rule();
+            int cents = compiledRule.forbidden() ? FeeLookupTable.FORBIDDEN : (int) Math.round(rule.getFee() * 100);
+            for (City city : CITIES) {
+                if (rule.getCity() != null && rule.getCity() != city) {
+                    continue;
+                }
+                int slot = slot(city, rule.getVehicleType());
+                FeeRuleCondition condition = compiledRule.condition();
+                if (condition == null) {
+                    assign(baseCents, slot, cents);
+                } else if (condition instanceof PhenomenonSet phenomena) {
+                    for (WeatherPhenomenonCategory category : phenomena.categories()) {
+                        assign(phenomenonCents, slot * PHENOMENON_COUNT + category.ordinal(), cents);
+                    }
+                } else if (rule.getRuleType().equals("AIR_TEMP")) {
+                    Interval interval = (Interval) condition;
+                    assign(temperatureCents, slot * temperatureBandCount,
+                            temperatureBreakpoints.firstBand(interval), temperatureBreakpoints.lastBand(interval), cents);
+                } else {
+                    Interval interval = (Interval) condition;
+                    assign(windCents, slot * windBandCount,
+                            windBreakpoints.firstBand(interval), windBreakpoints.lastBand(interval), cents);
+                }
+            }
+        }
+
+        return new FeeRuleIntervals(temperatureBreakpoints, windBreakpoints, zeroUnset(baseCents),
+                zeroUnset(temperatureCents), zeroUnset(windCents), zeroUnset(phenomenonCents), version);
+    }
+
+    /**
+     * Evaluates the compiled rules for one combination of weather bands.
+     * The signature matches {@link FeeLookupTable.BandEvaluator}, so the lookup table can be precomputed from it.
+     *
+     * @param city             the city for the delivery
+     * @param vehicleType      the vehicle type used for delivery
+     * @param tempBand         the air temperature band, as returned by {@link #temperatureBand}
+     * @param windBand         the wind speed band, as returned by {@link #windBand}
+     * @param phenomenonClass  the weather phenomenon class
+     * @return the total fee in cents, or {@link FeeLookupTable#FORBIDDEN} if usage of the vehicle type is forbidden
+     */
+    public int evaluateCents(City city, VehicleType vehicleType, int tempBand, int windBand, int phenomenonClass) {
+        int slot = slot(city, vehicleType);
+        int temperatureFee = temperatureCents[slot * temperatureBreakpoints.getBandCount() + tempBand];
+        int windFee = windCents[slot * windBreakpoints.getBandCount() + windBand];
+        int phenomenonFee = phenomenonCents[slot * PHENOMENON_COUNT + phenomenonClass];
+        if (temperatureFee == FeeLookupTable.FORBIDDEN || windFee == FeeLookupTable.FORBIDDEN
+                || phenomenonFee == FeeLookupTable.FORBIDDEN) {
+            return FeeLookupTable.FORBIDDEN;
+        }
+        return baseCents[slot] + temperatureFee + windFee + phenomenonFee;
+    }
+
+    /**
+     * Classifies an air temperature into its band. A missing temperature carries no extra fee.
+     *
+     * @param airTemperature the air temperature in °C, or null if unknown
+     * @return the temperature band
+     */
+    public int temperatureBand(Double airTemperature) {
+        return temperatureBreakpoints.band(airTemperature);
+    }
+
+    /**
+     * Classifies a wind speed into its band. A missing wind speed carries no extra fee.
+     *
+     * @param windSpeed the wind speed in m/s, or null if unknown
+     * @return the wind band
+     */
+    public int windBand(Double windSpeed) {
+        return windBreakpoints.band(windSpeed);
+    }
+
+    public IntervalBreakpoints getTemperatureBreakpoints() {
+        return temperatureBreakpoints;
+    }
+
+    public IntervalBreakpoints getWindBreakpoints() {
+        return windBreakpoints;
+    }
+
+    /**
+     * Returns the rule-set version these rules were compiled from.
+     *
+     * @return the rule-set version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private static void addCompiled(List<CompiledRule> compiled, FeeRule rule, boolean forbidden) {
+        if (rule.getRuleType() == null || rule.getVehicleType() == null) {
+            return;
+        }
+        try {
+            compiled.add(new CompiledRule(rule, FeeRuleCondition.parse(rule.getRuleType(), rule.getCondition()), forbidden));
+        } catch (IllegalArgumentException e) {
+            // Rules are validated when saved; rows that predate the validation cannot be matched.
+            LOGGER.warn("Skipping fee rule {} with condition '{}': {}", rule.getId(), rule.getCondition(), e.getMessage());
+        }
+    }
+
+    private static List<Interval> intervals(List<CompiledRule> compiled, String ruleType) {
+        return compiled.stream()
+                .filter(compiledRule -> compiledRule.rule().getRuleType().equals(ruleType))
+                .map(compiledRule -> (Interval) compiledRule.condition())
+                .toList();
+    }
+
+    private static int[] unset(int length) {
+        int[] cents = new int[length];
+        Arrays.fill(cents, UNSET);
+        return cents;
+    }
+
+    private static int[] zeroUnset(int[] cents) {
+        for (int i = 0; i < cents.length; i++) {
+            if (cents[i] == UNSET) {
+                cents[i] = 0;
+            }
+        }
+        return cents;
+    }
+
+    private static void assign(int[] cents, int index, int value) {
+        // Earlier rules take precedence, so only unset bands are assigned.
+        if (cents[index] == UNSET) {
+            cents[index] = value;
+        }
+    }
+
+    private static void assign(int[] cents, int offset, int firstBand, int lastBand, int value) {
+        for (int band = firstBand; band <= lastBand; band++) {
+            assign(cents, offset + band, value);
+        }
+    }
+
+    private static int slot(City city, VehicleType vehicleType) {
+        return city.ordinal() * VEHICLE_TYPES.length + vehicleType.ordinal();
+    }
+
+    private record CompiledRule(FeeRule rule, FeeRuleCondition condition, boolean forbidden) {
+    }
+}
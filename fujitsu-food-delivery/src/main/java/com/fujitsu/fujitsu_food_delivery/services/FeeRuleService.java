@@ -3,11 +3,13 @@ package com.fujitsu.fujitsu_food_delivery.services;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.fujitsu.fujitsu_food_delivery.entities.FeeRule;
 import com.fujitsu.fujitsu_food_delivery.enums.City;
 import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.events.FeeRulesChangedEvent;
 import com.fujitsu.fujitsu_food_delivery.repositories.FeeRuleRepository;
 
 
@@ -15,19 +17,24 @@ import com.fujitsu.fujitsu_food_delivery.repositories.FeeRuleRepository;
  * Service class for managing FeeRule entities.
  * This service provides CRUD operations for FeeRule objects by interacting with the FeeRuleRepository.
  * It handles the creation, retrieval, updating, and deletion of fee rules used in delivery fee calculations.
+ * Every change is announced with a FeeRulesChangedEvent so that the compiled fee rules can be rebuilt.
+ * Rule conditions are parsed before a rule is saved, so that only rules that compile are stored.
  */
 @Service
 public class FeeRuleService {
     
     private final FeeRuleRepository feeRuleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructs a new FeeRuleService with the specified FeeRuleRepository.
      *
      * @param feeRuleRepository the repository used to manage FeeRule entities
+     * @param eventPublisher    the publisher used to announce fee rule changes
      */
-    public FeeRuleService(FeeRuleRepository feeRuleRepository) {
+    public FeeRuleService(FeeRuleRepository feeRuleRepository, ApplicationEventPublisher eventPublisher) {
         this.feeRuleRepository = feeRuleRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -35,9 +42,13 @@ public class FeeRuleService {
      *
      * @param feeRule the FeeRule object to be created
      * @return the saved FeeRule with any generated fields (e.g., id) populated
+     * @throws IllegalArgumentException if the rule type is unknown or the condition does not parse for it
      */
     public FeeRule createFeeRule(FeeRule feeRule) {
-        return feeRuleRepository.save(feeRule);
+        FeeRuleCondition.parse(feeRule.getRuleType(), feeRule.getCondition());
+        FeeRule created = feeRuleRepository.save(feeRule);
+        eventPublisher.publishEvent(new FeeRulesChangedEvent(this));
+        return created;
     }
 
     public FeeRule getBaseFeeRule(City city, VehicleType vehicleType) {
@@ -71,6 +82,7 @@ public class FeeRuleService {
      */
     public void deleteFeeRule(Long id) {
         feeRuleRepository.deleteById(id);
+        eventPublisher.publishEvent(new FeeRulesChangedEvent(this));
     }
 
     /**
@@ -81,8 +93,10 @@ public class FeeRuleService {
      * @param id             the unique identifier of the FeeRule to update
      * @param updatedFeeRule the FeeRule object containing updated values
      * @return the updated FeeRule if the update was successful; otherwise, returns null if no FeeRule was found
+     * @throws IllegalArgumentException if the rule type is unknown or the condition does not parse for it
      */
     public FeeRule updateFeeRule(Long id, FeeRule updatedFeeRule) {
+        FeeRuleCondition.parse(updatedFeeRule.getRuleType(), updatedFeeRule.getCondition());
         Optional<FeeRule> optionalFeeRule = feeRuleRepository.findById(id);
 
         if (optionalFeeRule.isPresent()) {
@@ -94,7 +108,9 @@ public class FeeRuleService {
             existingFeeRule.setCondition(updatedFeeRule.getCondition());
             existingFeeRule.setFee(updatedFeeRule.getFee());
 
-            return feeRuleRepository.save(existingFeeRule);
+            FeeRule saved = feeRuleRepository.save(existingFeeRule);
+            eventPublisher.publishEvent(new FeeRulesChangedEvent(this));
+            return saved;
         }
         return null;
     }
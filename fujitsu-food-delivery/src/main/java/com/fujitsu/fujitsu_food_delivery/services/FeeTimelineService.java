@@ -0,0 +1,72 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+
+import com.fujitsu.fujitsu_food_delivery.dto.FeeTimelinePoint;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex.StationSeries;
+
+/**
+ * Service for computing how the delivery fee of a region and vehicle type changes over a time range.
+ * <p>
+ * The timeline is computed in a single ordered pass over the station's observations in the weather time-series
+ * index: the scan starts at the observation in effect at the start of the range (found by binary search) and
+ * ends at the last observation within the range. Only the points at which the fee or the forbidden status
+ * changes are emitted, so the cost is proportional to the number of observations in the range.
+ * </p>
+ */
+@Service
+public class FeeTimelineService {
+
+    private final FeeCalculationService feeCalculationService;
+    private final WeatherTimeSeriesIndex weatherTimeSeriesIndex;
+
+    /**
+     * Constructs a new FeeTimelineService.
+     *
+     * @param feeCalculationService  the service used to calculate delivery fees
+     * @param weatherTimeSeriesIndex the index holding the weather history of every station
+     */
+    public FeeTimelineService(FeeCalculationService feeCalculationService, WeatherTimeSeriesIndex weatherTimeSeriesIndex) {
+        this.feeCalculationService = feeCalculationService;
+        this.weatherTimeSeriesIndex = weatherTimeSeriesIndex;
+    }
+
+    /**
+     * Computes the fee timeline of the given region and vehicle type.
+     * The first point starts at {@code from} if an observation was in effect at that time,
+     * otherwise at the first observation within the range.
+     *
+     * @param region       the region of the delivery
+     * @param vehicleType  the vehicle type used for delivery
+     * @param from         the start of the range (in UNIX time seconds, inclusive)
+     * @param to           the end of the range (in UNIX time seconds, inclusive)
+     * @return the change points in chronological order; empty if no observation is in effect within the range
+     */
+    public List<FeeTimelinePoint> timeline(Region region, VehicleType vehicleType, long from, long to) {
+        StationSeries series = weatherTimeSeriesIndex.getSeries(region.stationName());
+        int first = Math.max(series.indexAtOrBefore(from), 0);
+        int last = series.indexAtOrBefore(to);
+
+        List<FeeTimelinePoint> points = new ArrayList<>();
+        Double previousFee = null;
+        for (int i = first; i <= last; i++) {
+            FeeResult result = feeCalculationService.evaluateDeliveryFee(region.tariff(), vehicleType,
+                    series.toWeatherData(i));
+            Double fee = result.isForbidden() ? null : result.fee();
+            // A null fee marks forbidden usage, so comparing fees also detects changes of the forbidden status
+            if (points.isEmpty() || !Objects.equals(fee, previousFee)) {
+                long pointTime = Math.max(series.timestampAt(i), from);
+                points.add(new FeeTimelinePoint(LocalDateTime.ofEpochSecond(pointTime, 0, ZoneOffset.UTC), fee, fee == null));
+                previousFee = fee;
+            }
+        }
+        return points;
+    }
+}
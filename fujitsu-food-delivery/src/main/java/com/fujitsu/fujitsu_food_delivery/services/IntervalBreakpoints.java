@@ -0,0 +1,147 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.services.FeeRuleCondition.Interval;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorted breakpoints of one numeric weather field, merged from the bounds of all rule intervals on that field.
+ * <p>
+ * Every finite bound becomes a breakpoint that a value either passes or not: a closed lower bound {@code [a}
+ * and an open upper bound {@code a)} are passed by values {@code >= a}, an open lower bound {@code (a} and a closed
+ * upper bound {@code a]} by values {@code > a}. The band of a value is the number of breakpoints it passes, found by
+ * binary search, and every interval covers a contiguous range of bands. One extra band after the last one holds
+ * missing values, which no interval covers.
+ * </p>
+ */
+public final class IntervalBreakpoints {
+
+    private static final Comparator<Breakpoint> ORDER = Comparator.comparingDouble(Breakpoint::value)
+            .thenComparing(Breakpoint::passedAtValue, Comparator.reverseOrder());
+
+    private final Breakpoint[] breakpoints;
+    private final double[] values;
+    private final boolean[] passedAtValue;
+
+    private IntervalBreakpoints(Breakpoint[] breakpoints) {
+        this.breakpoints = breakpoints;
+        this.values = new double[breakpoints.length];
+        this.passedAtValue = new boolean[breakpoints.length];
+        for (int i = 0; i < breakpoints.length; i++) {
+            values[i] = breakpoints[i].value();
+            passedAtValue[i] = breakpoints[i].passedAtValue();
+        }
+    }
+
+    /**
+     * Merges the bounds of the given intervals into sorted breakpoints.
+     *
+     * @param intervals the intervals on one weather field
+     * @return the breakpoints
+     */
+    public static IntervalBreakpoints of(Collection<Interval> intervals) {
+        Breakpoint[] breakpoints = intervals.stream()
+                .flatMap(interval -> List.of(lowerBreakpoint(interval), upperBreakpoint(interval)).stream())
+                .filter(breakpoint -> Double.isFinite(breakpoint.value()))
+                .distinct()
+                .sorted(ORDER)
+                .toArray(Breakpoint[]::new);
+        return new IntervalBreakpoints(breakpoints);
+    }
+
+    /**
+     * Classifies a value into its band.
+     *
+     * @param value the value, or NaN if missing
+     * @return the number of breakpoints the value passes, or {@link #getMissingBand()} for NaN
+     */
+    public int band(double value) {
+        if (Double.isNaN(value)) {
+            return getMissingBand();
+        }
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (value > values[mid] || (value == values[mid] && passedAtValue[mid])) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Classifies a boxed value into its band.
+     *
+     * @param value the value, or null if missing
+     * @return the band of the value, or {@link #getMissingBand()} for null
+     */
+    public int band(Double value) {
+        return value == null ? getMissingBand() : band(value.doubleValue());
+    }
+
+    /**
+     * Returns the first band covered by the interval, whose bounds must be part of these breakpoints.
+     *
+     * @param interval the interval
+     * @return the first covered band
+     */
+    public int firstBand(Interval interval) {
+        return Double.isInfinite(interval.lower()) ? 0 : indexOf(lowerBreakpoint(interval)) + 1;
+    }
+
+    /**
+     * Returns the last band covered by the interval, whose bounds must be part of these breakpoints.
+     *
+     * @param interval the interval
+     * @return the last covered band
+     */
+    public int lastBand(Interval interval) {
+        return Double.isInfinite(interval.upper()) ? breakpoints.length : indexOf(upperBreakpoint(interval));
+    }
+
+    /**
+     * Returns the band that holds missing values.
+     *
+     * @return the missing-value band
+     */
+    public int getMissingBand() {
+        return breakpoints.length + 1;
+    }
+
+    /**
+     * Returns the number of bands, including the missing-value band.
+     *
+     * @return the band count
+     */
+    public int getBandCount() {
+        return breakpoints.length + 2;
+    }
+
+    private int indexOf(Breakpoint breakpoint) {
+        int index = Arrays.binarySearch(breakpoints, breakpoint, ORDER);
+        if (index < 0) {
+            throw new IllegalArgumentException("Interval bound is not a breakpoint: " + breakpoint.value());
+        }
+        return index;
+    }
+
+    private static Breakpoint lowerBreakpoint(Interval interval) {
+        return new Breakpoint(interval.lower(), interval.lowerClosed());
+    }
+
+    private static Breakpoint upperBreakpoint(Interval interval) {
+        return new Breakpoint(interval.upper(), !interval.upperClosed());
+    }
+
+    /**
+     * A breakpoint at a value, passed by values at or above it if {@code passedAtValue}, otherwise only above it.
+     */
+    private record Breakpoint(double value, boolean passedAtValue) {
+    }
+}
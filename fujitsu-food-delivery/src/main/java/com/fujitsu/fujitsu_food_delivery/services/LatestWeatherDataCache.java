@@ -0,0 +1,104 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+
+/**
+ * In-memory holder of the latest weather observation of every station.
+ * The cache is seeded from the database once the application is ready and updated with the records
+ * published by the weather importer, so that current-time quotes never need a database round-trip.
+ * Its listeners run first, so that components derived from the cache see the updated observations.
+ * Lookups are counted as hits or misses, which are exported as cache metrics.
+ */
+@Component
+public class LatestWeatherDataCache {
+
+    private final WeatherDataRepository weatherDataRepository;
+    private final Map<String, WeatherData> latestByStation = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a new LatestWeatherDataCache.
+     *
+     * @param weatherDataRepository the repository used to seed the cache at startup
+     */
+    public LatestWeatherDataCache(WeatherDataRepository weatherDataRepository) {
+        this.weatherDataRepository = weatherDataRepository;
+    }
+
+    /**
+     * Seeds the cache with the latest stored observation of every station.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void seed() {
+        update(weatherDataRepository.findLatestOfEachStation());
+    }
+
+    /**
+     * Publishes the records of a finished weather import to the cache.
+     *
+     * @param event the import event carrying the stored records
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onWeatherDataImported(WeatherDataImportedEvent event) {
+        update(event.getWeatherData());
+    }
+
+    /**
+     * Replaces the cached observation of each record's station, unless the cache already holds a newer one.
+     *
+     * @param weatherData the weather data records to publish
+     */
+    public void update(List<WeatherData> weatherData) {
+        for (WeatherData record : weatherData) {
+            latestByStation.merge(record.getStationName(), record,
+                    (current, candidate) -> candidate.getTimestamp() >= current.getTimestamp() ? candidate : current);
+        }
+    }
+
+    /**
+     * Returns the latest observation of the given station.
+     *
+     * @param stationName the name of the weather station
+     * @return an Optional containing the latest WeatherData if known, or empty otherwise
+     */
+    public Optional<WeatherData> getLatest(String stationName) {
+        WeatherData latest = latestByStation.get(stationName);
+        (latest != null ? hits : misses).increment();
+        return Optional.ofNullable(latest);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the age of an observation relative to the current time, so that stale data can be detected.
+     *
+     * @param weatherData the observation
+     * @return the number of seconds since the observation was made
+     */
+    public long getObservationAgeSeconds(WeatherData weatherData) {
+        return System.currentTimeMillis() / 1000L - weatherData.getTimestamp();
+    }
+}
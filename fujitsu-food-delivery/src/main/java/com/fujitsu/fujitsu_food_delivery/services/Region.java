@@ -0,0 +1,20 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+
+/**
+ * A delivery region as resolved by the RegionRegistry.
+ *
+ * @param index        the position of the region in the registry, from 0 to the number of regions (exclusive),
+ *                     so that per-region state can be kept in arrays
+ * @param code         the upper-case code of the region
+ * @param stationName  the name of the weather station that observes the region
+ * @param tariff       the tariff whose fee rules apply to the region
+ */
+public record Region(int index, String code, String stationName, City tariff) {
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
@@ -0,0 +1,155 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.fujitsu.fujitsu_food_delivery.entities.DeliveryRegion;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.repositories.DeliveryRegionRepository;
+
+/**
+ * Registry of the regions that delivery fees can be quoted for.
+ * <p>
+ * The regions are loaded once at startup from the {@code delivery_region} table, so that new regions only need a
+ * new row (and a restart). Each region is numbered with a dense index, which lets the fee paths keep per-region
+ * state in arrays instead of maps.
+ * </p>
+ * <p>
+ * Request names are resolved with a single hash lookup: the code of every region is registered as given, in lower
+ * case and capitalized, each also without diacritics (so that "parnu" resolves as well as "Pärnu"). Only names in
+ * any other case are upper-cased before a second lookup.
+ * </p>
+ */
+@Component
+public class RegionRegistry {
+
+    private final List<Region> regions;
+    private final Map<String, Region> byName;
+    private final Set<String> stationNames;
+
+    /**
+     * Constructs a new RegionRegistry of the regions stored in the database.
+     *
+     * @param deliveryRegionRepository the repository the regions are loaded from
+     */
+    @Autowired
+    public RegionRegistry(DeliveryRegionRepository deliveryRegionRepository) {
+        this(deliveryRegionRepository.findAll(Sort.by("code")));
+    }
+
+    /**
+     * Constructs a new RegionRegistry of the given regions, indexed in the given order.
+     *
+     * @param deliveryRegions the regions
+     * @throws IllegalArgumentException if there are no regions, or two regions have the same code
+     */
+    public RegionRegistry(List<DeliveryRegion> deliveryRegions) {
+        if (deliveryRegions.isEmpty()) {
+            throw new IllegalArgumentException("At least one delivery region must be registered");
+        }
+        List<Region> regions = new ArrayList<>(deliveryRegions.size());
+        Map<String, Region> byName = new HashMap<>();
+        Set<String> stationNames = new HashSet<>();
+        for (DeliveryRegion deliveryRegion : deliveryRegions) {
+            Region region = new Region(regions.size(), deliveryRegion.getCode().toUpperCase(Locale.ROOT),
+                    deliveryRegion.getStationName(), deliveryRegion.getTariff());
+            if (byName.putIfAbsent(region.code(), region) != null) {
+                throw new IllegalArgumentException("Duplicate delivery region: " + region.code());
+            }
+            regions.add(region);
+            stationNames.add(region.stationName());
+        }
+        // Spellings of a region's own code take precedence over the spellings without diacritics of another region
+        for (Region region : regions) {
+            putSpellings(byName, region.code(), region);
+        }
+        for (Region region : regions) {
+            putSpellings(byName, stripDiacritics(region.code()), region);
+        }
+        this.regions = List.copyOf(regions);
+        this.byName = byName;
+        this.stationNames = Collections.unmodifiableSet(stationNames);
+    }
+
+    /**
+     * Returns a registry of the built-in regions: one per City, observed by the city's station.
+     *
+     * @return the registry
+     */
+    public static RegionRegistry defaults() {
+        List<DeliveryRegion> deliveryRegions = new ArrayList<>();
+        for (City city : City.values()) {
+            deliveryRegions.add(new DeliveryRegion(city.name(), city.getStationName(), city));
+        }
+        return new RegionRegistry(deliveryRegions);
+    }
+
+    /**
+     * Resolves a region name as given in a request, ignoring case and accepting the spelling without diacritics.
+     *
+     * @param name the region name, or null
+     * @return the matching region, or null if the name is not a registered region
+     */
+    public Region find(String name) {
+        if (name == null) {
+            return null;
+        }
+        Region region = byName.get(name);
+        return region != null ? region : byName.get(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the region with the given index.
+     *
+     * @param index the index of the region
+     * @return the region
+     */
+    public Region get(int index) {
+        return regions.get(index);
+    }
+
+    /**
+     * Returns all regions in index order.
+     *
+     * @return the regions
+     */
+    public List<Region> getRegions() {
+        return regions;
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    /**
+     * Returns the names of the stations that observe at least one region, i.e. the stations whose observations
+     * need to be imported.
+     *
+     * @return the station names, as a hash set
+     */
+    public Set<String> getStationNames() {
+        return stationNames;
+    }
+
+    private static void putSpellings(Map<String, Region> byName, String name, Region region) {
+        String lowerCase = name.toLowerCase(Locale.ROOT);
+        byName.putIfAbsent(name, region);
+        byName.putIfAbsent(lowerCase, region);
+        byName.putIfAbsent(name.charAt(0) + lowerCase.substring(1), region);
+    }
+
+    private static String stripDiacritics(String name) {
+        return Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+}
@@ -0,0 +1,338 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherHistoryCompactedEvent;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+
+/**
+ * In-memory time-series index of the weather observations of every station.
+ * <p>
+ * Each station's observations are stored column-wise in primitive arrays sorted by timestamp:
+ * timestamps, air temperatures, wind speeds and phenomenon category codes. The latest observation at or
+ * before a given time is found by binary search. The index is rebuilt from the database once the application
+ * is ready and appended to incrementally with the records published by the weather importer. Time ranges that
+ * the history retention task has compacted are replaced with the records that remain in the database.
+ * </p>
+ * <p>
+ * A single writer appends to the arrays, and every append publishes a new immutable {@link StationSeries}
+ * view, so readers never see a partially written observation and never need to lock. Writers are serialized
+ * with a lock rather than a monitor, because a rebuild streams rows from the database while holding it.
+ * Repeated imports of an observation with an already indexed timestamp are ignored.
+ * </p>
+ * <p>
+ * Point lookups are counted as hits or misses, which are exported as cache metrics.
+ * </p>
+ */
+@Component
+public class WeatherTimeSeriesIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final WeatherPhenomenonCategory[] CATEGORIES = WeatherPhenomenonCategory.values();
+
+    private final WeatherDataRepository weatherDataRepository;
+    private final Map<String, StationSeries> seriesByStation = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Constructs a new WeatherTimeSeriesIndex.
+     *
+     * @param weatherDataRepository the repository used to rebuild the index at startup
+     */
+    public WeatherTimeSeriesIndex(WeatherDataRepository weatherDataRepository) {
+        this.weatherDataRepository = weatherDataRepository;
+    }
+
+    /**
+     * Rebuilds the index from all weather data stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        writeLock.lock();
+        try (Stream<Object[]> rows = weatherDataRepository.streamAllObservationsOrderByTimestamp()) {
+            seriesByStation.clear();
+            rows.forEach(row -> append((String) row[0], ((Number) row[1]).longValue(), (Double) row[2], (Double) row[3],
+                    row[4] != null ? (WeatherPhenomenonCategory) row[4] : WeatherPhenomenonCategory.classify((String) row[5])));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the records of a finished weather import to the index.
+     *
+     * @param event the import event carrying the stored records
+     */
+    @EventListener
+    public void onWeatherDataImported(WeatherDataImportedEvent event) {
+        append(event.getWeatherData());
+    }
+
+    /**
+     * Replaces a compacted time range of a station's series with the records that remain in it.
+     *
+     * @param event the compaction event carrying the remaining records
+     */
+    @EventListener
+    public void onWeatherHistoryCompacted(WeatherHistoryCompactedEvent event) {
+        replaceRange(event.getStationName(), event.getFrom(), event.getTo(), event.getRemaining());
+    }
+
+    /**
+     * Replaces the observations of a station within a time range.
+     * The new series is published atomically, so concurrent lookups see either the old or the new range.
+     *
+     * @param stationName  the name of the weather station
+     * @param from         the start of the range (in UNIX time seconds, inclusive)
+     * @param to           the end of the range (in UNIX time seconds, exclusive)
+     * @param replacement  the observations of the range, sorted by timestamp
+     */
+    public void replaceRange(String stationName, long from, long to, List<WeatherData> replacement) {
+        writeLock.lock();
+        try {
+            StationSeries series = seriesByStation.get(stationName);
+            if (series != null) {
+                seriesByStation.put(stationName, series.replacing(from, to, replacement));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the given weather data records to the index.
+     *
+     * @param weatherData the records to append
+     */
+    public void append(List<WeatherData> weatherData) {
+        writeLock.lock();
+        try {
+            for (WeatherData record : weatherData) {
+                append(record.getStationName(), record.getTimestamp(), record.getAirTemperature(),
+                        record.getWindSpeed(), record.getPhenomenonCategory());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the latest observation of the given station at or before the given time.
+     *
+     * @param stationName the name of the weather station
+     * @param timestamp   the maximum timestamp (in UNIX time seconds)
+     * @return an Optional containing the observation if found, or empty otherwise
+     */
+    public Optional<WeatherData> findLatestAtOrBefore(String stationName, long timestamp) {
+        StationSeries series = seriesByStation.get(stationName);
+        int index = series == null ? -1 : series.indexAtOrBefore(timestamp);
+        if (index < 0) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(series.toWeatherData(index));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the current, immutable view of a station's observations.
+     *
+     * @param stationName the name of the weather station
+     * @return the station's series, or an empty series if the station has no observations
+     */
+    public StationSeries getSeries(String stationName) {
+        StationSeries series = seriesByStation.get(stationName);
+        return series != null ? series : StationSeries.empty(stationName);
+    }
+
+    private void append(String stationName, long timestamp, Double airTemperature, Double windSpeed,
+                        WeatherPhenomenonCategory category) {
+        StationSeries series = seriesByStation.get(stationName);
+        if (series == null) {
+            series = StationSeries.empty(stationName);
+        }
+        StationSeries appended = series.with(timestamp, airTemperature, windSpeed, category);
+        if (appended != series) {
+            seriesByStation.put(stationName, appended);
+        }
+    }
+
+    /**
+     * Immutable view of one station's observations, sorted by timestamp.
+     * Missing temperatures and wind speeds are stored as NaN.
+     */
+    public static final class StationSeries {
+
+        private final String stationName;
+        private final long[] timestamps;
+        private final double[] airTemperatures;
+        private final double[] windSpeeds;
+        private final byte[] phenomenonCodes;
+        private final int size;
+
+        private StationSeries(String stationName, long[] timestamps, double[] airTemperatures, double[] windSpeeds,
+                              byte[] phenomenonCodes, int size) {
+            this.stationName = stationName;
+            this.timestamps = timestamps;
+            this.airTemperatures = airTemperatures;
+            this.windSpeeds = windSpeeds;
+            this.phenomenonCodes = phenomenonCodes;
+            this.size = size;
+        }
+
+        private static StationSeries empty(String stationName) {
+            return new StationSeries(stationName, new long[0], new double[0], new double[0], new byte[0], 0);
+        }
+
+        public String getStationName() {
+            return stationName;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long timestampAt(int index) {
+            return timestamps[index];
+        }
+
+        public double airTemperatureAt(int index) {
+            return airTemperatures[index];
+        }
+
+        public double windSpeedAt(int index) {
+            return windSpeeds[index];
+        }
+
+        public WeatherPhenomenonCategory phenomenonCategoryAt(int index) {
+            return CATEGORIES[phenomenonCodes[index]];
+        }
+
+        /**
+         * Finds the position of the latest observation at or before the given time by binary search.
+         *
+         * @param timestamp the maximum timestamp (in UNIX time seconds)
+         * @return the position of the observation, or -1 if all observations are later
+         */
+        public int indexAtOrBefore(long timestamp) {
+            int position = Arrays.binarySearch(timestamps, 0, size, timestamp);
+            return position >= 0 ? position : -position - 2;
+        }
+
+        /**
+         * Materializes the observation at the given position as a (detached) WeatherData object.
+         *
+         * @param index the position of the observation
+         * @return the observation
+         */
+        public WeatherData toWeatherData(int index) {
+            WeatherData weatherData = new WeatherData();
+            weatherData.setStationName(stationName);
+            weatherData.setTimestamp(timestamps[index]);
+            weatherData.setAirTemperature(Double.isNaN(airTemperatures[index]) ? null : airTemperatures[index]);
+            weatherData.setWindSpeed(Double.isNaN(windSpeeds[index]) ? null : windSpeeds[index]);
+            weatherData.setPhenomenonCategory(phenomenonCategoryAt(index));
+            return weatherData;
+        }
+
+        /**
+         * Returns a series that additionally contains the given observation.
+         * Observations later than the last one are written into spare capacity of the shared arrays,
+         * which existing views never read; anything else copies the arrays.
+         *
+         * @return the new series, or this series if an observation with the same timestamp already exists
+         */
+        private StationSeries with(long timestamp, Double airTemperature, Double windSpeed,
+                                   WeatherPhenomenonCategory category) {
+            int position = Arrays.binarySearch(timestamps, 0, size, timestamp);
+            if (position >= 0) {
+                return this;
+            }
+            int insertAt = -position - 1;
+            long[] newTimestamps = timestamps;
+            double[] newAirTemperatures = airTemperatures;
+            double[] newWindSpeeds = windSpeeds;
+            byte[] newPhenomenonCodes = phenomenonCodes;
+
+            if (insertAt < size || size == timestamps.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, size == timestamps.length ? size * 2 : timestamps.length);
+                newTimestamps = insert(timestamps, new long[capacity], insertAt);
+                newAirTemperatures = insert(airTemperatures, new double[capacity], insertAt);
+                newWindSpeeds = insert(windSpeeds, new double[capacity], insertAt);
+                newPhenomenonCodes = insert(phenomenonCodes, new byte[capacity], insertAt);
+            }
+            newTimestamps[insertAt] = timestamp;
+            newAirTemperatures[insertAt] = airTemperature != null ? airTemperature : Double.NaN;
+            newWindSpeeds[insertAt] = windSpeed != null ? windSpeed : Double.NaN;
+            newPhenomenonCodes[insertAt] = (byte) category.ordinal();
+            return new StationSeries(stationName, newTimestamps, newAirTemperatures, newWindSpeeds,
+                    newPhenomenonCodes, size + 1);
+        }
+
+        /**
+         * Returns a series in which the observations within [from, to) are replaced with the given ones.
+         * The arrays are always copied, so existing views are unaffected.
+         */
+        private StationSeries replacing(long from, long to, List<WeatherData> replacement) {
+            int start = indexAtOrBefore(from - 1) + 1;
+            int end = indexAtOrBefore(to - 1) + 1;
+            int newSize = size - (end - start) + replacement.size();
+            int capacity = Math.max(INITIAL_CAPACITY, newSize);
+            long[] newTimestamps = new long[capacity];
+            double[] newAirTemperatures = new double[capacity];
+            double[] newWindSpeeds = new double[capacity];
+            byte[] newPhenomenonCodes = new byte[capacity];
+
+            System.arraycopy(timestamps, 0, newTimestamps, 0, start);
+            System.arraycopy(airTemperatures, 0, newAirTemperatures, 0, start);
+            System.arraycopy(windSpeeds, 0, newWindSpeeds, 0, start);
+            System.arraycopy(phenomenonCodes, 0, newPhenomenonCodes, 0, start);
+            int position = start;
+            for (WeatherData record : replacement) {
+                newTimestamps[position] = record.getTimestamp();
+                newAirTemperatures[position] = record.getAirTemperature() != null ? record.getAirTemperature() : Double.NaN;
+                newWindSpeeds[position] = record.getWindSpeed() != null ? record.getWindSpeed() : Double.NaN;
+                newPhenomenonCodes[position] = (byte) record.getPhenomenonCategory().ordinal();
+                position++;
+            }
+            System.arraycopy(timestamps, end, newTimestamps, position, size - end);
+            System.arraycopy(airTemperatures, end, newAirTemperatures, position, size - end);
+            System.arraycopy(windSpeeds, end, newWindSpeeds, position, size - end);
+            System.arraycopy(phenomenonCodes, end, newPhenomenonCodes, position, size - end);
+            return new StationSeries(stationName, newTimestamps, newAirTemperatures, newWindSpeeds,
+                    newPhenomenonCodes, newSize);
+        }
+
+        private <T> T insert(T source, T target, int insertAt) {
+            System.arraycopy(source, 0, target, 0, insertAt);
+            System.arraycopy(source, insertAt, target, insertAt + 1, size - insertAt);
+            return target;
+        }
+    }
+}
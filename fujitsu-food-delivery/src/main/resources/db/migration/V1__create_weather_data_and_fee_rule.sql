@@ -0,0 +1,32 @@
+-- Weather observations imported from the Estonian Environment Agency feed.
+-- Timestamps are UNIX time seconds; a station reports at most one observation per timestamp.
+CREATE TABLE weather_data (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    station_name        VARCHAR(255) NOT NULL,
+    wmo_code            VARCHAR(255),
+    air_temperature     DOUBLE PRECISION,
+    wind_speed          DOUBLE PRECISION,
+    weather_phenomenon  VARCHAR(255),
+    phenomenon_category VARCHAR(32),
+    timestamp           BIGINT NOT NULL
+);
+
+-- Enforces one observation per station and timestamp, and serves the latest and at-or-before lookups
+-- (WHERE station_name = ? [AND timestamp <= ?] ORDER BY timestamp DESC) without sorting.
+-- A separate ascending unique constraint would be preferred by the planner and force a sort, so one index does both.
+CREATE UNIQUE INDEX uk_weather_data_station_timestamp ON weather_data (station_name, timestamp DESC);
+CREATE INDEX idx_weather_data_phenomenon_category ON weather_data (phenomenon_category);
+
+-- Fee rules evaluated by the DynamicFeeCalculationService.
+CREATE TABLE fee_rule (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rule_type           VARCHAR(255),
+    city                VARCHAR(32),
+    vehicle_type        VARCHAR(32),
+    condition           VARCHAR(255),
+    fee                 DOUBLE PRECISION NOT NULL,
+    effective_timestamp BIGINT NOT NULL
+);
+
+-- Serves rule lookups by type, vehicle type, city and condition
+CREATE INDEX idx_fee_rule_lookup ON fee_rule (rule_type, vehicle_type, city, condition);
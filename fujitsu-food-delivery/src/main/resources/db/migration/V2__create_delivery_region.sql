@@ -0,0 +1,12 @@
+-- Delivery regions served by the RegionRegistry. Each region is quoted with the weather of its station and priced
+-- with the fee rules of its tariff (one of the City constants), so regions can be added without code changes.
+CREATE TABLE delivery_region (
+    code                VARCHAR(64) PRIMARY KEY,
+    station_name        VARCHAR(255) NOT NULL,
+    tariff              VARCHAR(32) NOT NULL
+);
+
+INSERT INTO delivery_region (code, station_name, tariff) VALUES
+    ('TALLINN', 'Tallinn-Harku', 'TALLINN'),
+    ('TARTU', 'Tartu-Tõravere', 'TARTU'),
+    ('PÄRNU', 'Pärnu', 'PÄRNU');
@@ -0,0 +1,7 @@
+-- Progress of the weather history retention per station: the end (UNIX time seconds, exclusive) of the history
+-- that has been compacted and rolled up so far. Stored so that a restart resumes instead of rescanning the history.
+CREATE TABLE weather_retention_watermark (
+    station_name        VARCHAR(255) PRIMARY KEY,
+    compacted_until     BIGINT,
+    rolled_up_until     BIGINT
+);
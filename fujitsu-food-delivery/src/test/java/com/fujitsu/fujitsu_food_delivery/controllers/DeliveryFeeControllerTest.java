@@ -1,38 +1,94 @@
 package com.fujitsu.fujitsu_food_delivery.controllers;
 
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteRequest;
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteResult;
+import com.fujitsu.fujitsu_food_delivery.dto.FeeTimelinePoint;
 import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
 import com.fujitsu.fujitsu_food_delivery.enums.City;
 import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.metrics.DeliveryFeeMetrics;
 import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.services.BatchDeliveryFeeService;
+import com.fujitsu.fujitsu_food_delivery.services.CurrentFeeMatrix;
 import com.fujitsu.fujitsu_food_delivery.services.FeeCalculationService;
+import com.fujitsu.fujitsu_food_delivery.services.FeeResult;
+import com.fujitsu.fujitsu_food_delivery.services.FeeTimelineService;
+import com.fujitsu.fujitsu_food_delivery.services.LatestWeatherDataCache;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(DeliveryFeeController.class)
 @AutoConfigureMockMvc
+@Import({DeliveryFeeQuoter.class, CurrentFeeMatrix.class, BatchDeliveryFeeService.class, DeliveryFeeControllerTest.Regions.class})
 public class DeliveryFeeControllerTest {
 
+    @TestConfiguration
+    static class Regions {
+
+        @Bean
+        RegionRegistry regionRegistry() {
+            return RegionRegistry.defaults();
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CurrentFeeMatrix currentFeeMatrix;
+
+    @Autowired
+    private RegionRegistry regionRegistry;
+
     @MockBean
     private FeeCalculationService feeCalculationService;
 
     @MockBean
-    private WeatherDataRepository weatherDataRepository;
+    private LatestWeatherDataCache latestWeatherDataCache;
+
+    @MockBean
+    private WeatherTimeSeriesIndex weatherTimeSeriesIndex;
+
+    @SpyBean
+    private BatchDeliveryFeeService batchDeliveryFeeService;
+
+    @MockBean
+    private FeeTimelineService feeTimelineService;
+
+    @MockBean
+    private DeliveryFeeMetrics deliveryFeeMetrics;
+
+    @BeforeEach
+    public void setUp() {
+        // The fee matrix evaluates every city and vehicle type, including the ones a test does not stub
+        Mockito.when(feeCalculationService.evaluateDeliveryFee(any(), any(), any())).thenReturn(FeeResult.ok(0.0));
+    }
 
     @Test
     public void testGetDeliveryFeeWithoutDateTime() throws Exception {
@@ -43,18 +99,57 @@ public class DeliveryFeeControllerTest {
         weatherData.setWindSpeed(3.3);
         weatherData.setWeatherPhenomenon("Clear");
 
-        Mockito.when(weatherDataRepository.findFirstByStationNameOrderByTimestampDesc("Tallinn-Harku"))
+        Mockito.when(latestWeatherDataCache.getLatest("Tallinn-Harku"))
                 .thenReturn(java.util.Optional.of(weatherData));
+        Mockito.when(latestWeatherDataCache.getObservationAgeSeconds(weatherData))
+                .thenReturn(120L);
 
-        Mockito.when(feeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData))
-                .thenReturn(4.0);
+        Mockito.when(feeCalculationService.evaluateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData))
+                .thenReturn(FeeResult.ok(4.0));
+        currentFeeMatrix.rebuild();
 
         mockMvc.perform(get("/api/deliveryfee")
                 .param("city", "TALLINN")
                 .param("vehicleType", "CAR")
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(DeliveryFeeController.OBSERVATION_AGE_HEADER, "120"))
                 .andExpect(content().string("4.0"));
+
+        Mockito.verifyNoInteractions(weatherTimeSeriesIndex);
+    }
+
+    @Test
+    public void testGetDeliveryFeeWithoutDateTimeForbidden() throws Exception {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName("Pärnu");
+        weatherData.setTimestamp(1742760780);
+        weatherData.setAirTemperature(1.9);
+        weatherData.setWindSpeed(25.0);
+        weatherData.setWeatherPhenomenon("Clear");
+
+        Mockito.when(latestWeatherDataCache.getLatest("Pärnu"))
+                .thenReturn(java.util.Optional.of(weatherData));
+        Mockito.when(feeCalculationService.evaluateDeliveryFee(City.PÄRNU, VehicleType.BIKE, weatherData))
+                .thenReturn(FeeResult.forbidden());
+        currentFeeMatrix.rebuild();
+
+        mockMvc.perform(get("/api/deliveryfee")
+                .param("city", "PÄRNU")
+                .param("vehicleType", "BIKE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid city or vehicle type. Usage of selected vehicle type is forbidden"));
+
+        // The prepared response is reused without recalculating the fee
+        mockMvc.perform(get("/api/deliveryfee")
+                .param("city", "PÄRNU")
+                .param("vehicleType", "BIKE"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(feeCalculationService, Mockito.times(1))
+                .evaluateDeliveryFee(City.PÄRNU, VehicleType.BIKE, weatherData);
+        Mockito.verify(deliveryFeeMetrics, Mockito.times(2)).recordForbidden(regionRegistry.find("PÄRNU"), VehicleType.BIKE);
+        Mockito.verify(deliveryFeeMetrics, Mockito.times(2))
+                .recordQuote(eq("PÄRNU"), eq("BIKE"), eq(false), eq(400), Mockito.anyLong());
     }
 
     @Test
@@ -70,12 +165,11 @@ public class DeliveryFeeControllerTest {
         LocalDateTime dateTime = LocalDateTime.parse(dateTimeParam);
         long effectiveTimestamp = dateTime.atZone(ZoneId.of("UTC")).toEpochSecond();
 
-        Mockito.when(weatherDataRepository
-                .findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc("Tallinn-Harku", effectiveTimestamp))
+        Mockito.when(weatherTimeSeriesIndex.findLatestAtOrBefore("Tallinn-Harku", effectiveTimestamp))
                 .thenReturn(java.util.Optional.of(weatherData));
 
-        Mockito.when(feeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData))
-                .thenReturn(4.0);
+        Mockito.when(feeCalculationService.evaluateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData))
+                .thenReturn(FeeResult.ok(4.0));
 
         mockMvc.perform(get("/api/deliveryfee")
                 .param("city", "TALLINN")
@@ -88,8 +182,9 @@ public class DeliveryFeeControllerTest {
 
     @Test
     public void testGetDeliveryFeeNotFound() throws Exception {
-        Mockito.when(weatherDataRepository.findFirstByStationNameOrderByTimestampDesc("Tallinn-Harku"))
+        Mockito.when(latestWeatherDataCache.getLatest("Tallinn-Harku"))
                 .thenReturn(java.util.Optional.empty());
+        currentFeeMatrix.rebuild();
 
         mockMvc.perform(get("/api/deliveryfee")
                 .param("city", "TALLINN")
@@ -106,19 +201,166 @@ public class DeliveryFeeControllerTest {
                 .param("vehicleType", "CAR")
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(containsString("Invalid city or vehicle type")));
+                // The body no longer ends with the enum lookup error ("No enum constant ...").
+                .andExpect(content().string("Invalid city or vehicle type"));
+    }
+
+    @Test
+    public void testGetDeliveryFeeAcceptsCityAliases() throws Exception {
+        Mockito.when(latestWeatherDataCache.getLatest("Pärnu"))
+                .thenReturn(java.util.Optional.empty());
+        currentFeeMatrix.rebuild();
+
+        for (String city : List.of("parnu", "Pärnu", "PARNU")) {
+            mockMvc.perform(get("/api/deliveryfee")
+                    .param("city", city)
+                    .param("vehicleType", "car"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().string("No weather data found for city: PÄRNU"));
+        }
     }
 
     @Test
     public void testGetDeliveryFeeExceptionHandling() throws Exception {
-        Mockito.when(weatherDataRepository.findFirstByStationNameOrderByTimestampDesc("Tallinn-Harku"))
+        Mockito.when(weatherTimeSeriesIndex.findLatestAtOrBefore(Mockito.eq("Tallinn-Harku"), Mockito.anyLong()))
                 .thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(get("/api/deliveryfee")
                 .param("city", "TALLINN")
                 .param("vehicleType", "CAR")
+                .param("dateTime", "2025-03-23T22:36:00")
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString("Database error")));
     }
+
+    @Test
+    public void testGetDeliveryFeesBatch() throws Exception {
+        DeliveryFeeQuoteRequest car = new DeliveryFeeQuoteRequest("TALLINN", "CAR", null);
+        DeliveryFeeQuoteRequest bike = new DeliveryFeeQuoteRequest("TARTU", "BIKE", "2025-03-23T22:36:00");
+        Mockito.doReturn(List.of(
+                DeliveryFeeQuoteResult.success(car, 4.0),
+                DeliveryFeeQuoteResult.failure(bike, 400, "Usage of selected vehicle type is forbidden")))
+                .when(batchDeliveryFeeService).quote(List.of(car, bike));
+
+        mockMvc.perform(post("/api/deliveryfee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"city\":\"TALLINN\",\"vehicleType\":\"CAR\"},"
+                        + "{\"city\":\"TARTU\",\"vehicleType\":\"BIKE\",\"dateTime\":\"2025-03-23T22:36:00\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fee").value(4.0))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].error").value("Usage of selected vehicle type is forbidden"));
+    }
+
+    @Test
+    public void testStreamDeliveryFees() throws Exception {
+        WeatherTimeSeriesIndex index = new WeatherTimeSeriesIndex(Mockito.mock(WeatherDataRepository.class));
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName("Tallinn-Harku");
+        weatherData.setTimestamp(1742688000); // 2025-03-23T00:00:00Z
+        weatherData.setAirTemperature(5.0);
+        weatherData.setWindSpeed(25.0);
+        weatherData.setWeatherPhenomenon("Clear");
+        index.append(List.of(weatherData));
+
+        Mockito.when(weatherTimeSeriesIndex.getSeries(Mockito.anyString()))
+                .thenAnswer(invocation -> index.getSeries(invocation.getArgument(0)));
+        Mockito.when(feeCalculationService.evaluateDeliveryFee(eq(City.TALLINN), eq(VehicleType.CAR), any(WeatherData.class)))
+                .thenReturn(FeeResult.ok(4.0));
+        Mockito.when(feeCalculationService.evaluateDeliveryFee(eq(City.TALLINN), eq(VehicleType.BIKE), any(WeatherData.class)))
+                .thenReturn(FeeResult.forbidden());
+
+        String body = "{\"city\":\"TALLINN\",\"vehicleType\":\"CAR\"}\n"
+                + "\n"
+                + "{\"city\":\"TALLINN\",\"vehicleType\":\"BIKE\",\"dateTime\":\"2025-03-23T10:15:00\"}\n"
+                + "{\"city\":\"TALLINN\",\"vehicleType\":\"CAR\",\"dateTime\":\"2025-03-22T10:15:00\"}\n"
+                + "{\"city\":\"NARVA\",\"vehicleType\":\"CAR\"}\n"
+                + "not json\n";
+
+        String response = mockMvc.perform(post("/api/deliveryfee/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].contains("\"status\":200") && lines[0].contains("\"fee\":4.0"));
+        assertTrue(lines[1].contains("\"status\":400") && lines[1].contains("forbidden"));
+        assertTrue(lines[2].contains("\"status\":404"));
+        assertTrue(lines[3].contains("Invalid city or vehicle type"));
+        assertTrue(lines[4].contains("Malformed quote request"));
+    }
+
+    @Test
+    public void testStreamDeliveryFeesRejectsNullAndOverlongLines() throws Exception {
+        Mockito.when(weatherTimeSeriesIndex.getSeries(Mockito.anyString()))
+                .thenReturn(new WeatherTimeSeriesIndex(Mockito.mock(WeatherDataRepository.class)).getSeries("Tallinn-Harku"));
+        String overlong = "{\"city\":\"" + "X".repeat(DeliveryFeeController.MAX_STREAM_LINE_LENGTH) + "\"}";
+
+        String response = mockMvc.perform(post("/api/deliveryfee/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("null\r\n" + overlong + "\n{\"city\":\"TALLINN\",\"vehicleType\":\"CAR\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"status\":400") && lines[0].contains("Missing quote request"));
+        assertTrue(lines[1].contains("\"status\":400") && lines[1].contains("exceeds"));
+        assertTrue(lines[2].contains("\"status\":404"));
+    }
+
+    @Test
+    public void testGetDeliveryFeeTimeline() throws Exception {
+        Mockito.when(feeTimelineService.timeline(regionRegistry.find("TARTU"), VehicleType.BIKE, 1742688000L, 1742774400L))
+                .thenReturn(List.of(
+                        new FeeTimelinePoint(LocalDateTime.of(2025, 3, 23, 0, 0), 2.5, false),
+                        new FeeTimelinePoint(LocalDateTime.of(2025, 3, 23, 6, 0), null, true)));
+
+        mockMvc.perform(get("/api/deliveryfee/timeline")
+                .param("city", "TARTU")
+                .param("vehicleType", "BIKE")
+                .param("from", "2025-03-23T00:00:00")
+                .param("to", "2025-03-24T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].from").value("2025-03-23T00:00:00"))
+                .andExpect(jsonPath("$[0].fee").value(2.5))
+                .andExpect(jsonPath("$[1].forbidden").value(true));
+    }
+
+    @Test
+    public void testGetDeliveryFeeTimelineWithInvalidRange() throws Exception {
+        mockMvc.perform(get("/api/deliveryfee/timeline")
+                .param("city", "TARTU")
+                .param("vehicleType", "BIKE")
+                .param("from", "2025-03-24T00:00:00")
+                .param("to", "2025-03-23T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetDeliveryFeeTimelineHidesCalculationFailures() throws Exception {
+        Mockito.when(feeTimelineService.timeline(any(), any(), Mockito.anyLong(), Mockito.anyLong()))
+                .thenThrow(new NullPointerException("airTemperature is null"));
+
+        mockMvc.perform(get("/api/deliveryfee/timeline")
+                .param("city", "TARTU")
+                .param("vehicleType", "BIKE")
+                .param("from", "2025-03-23T00:00:00")
+                .param("to", "2025-03-24T00:00:00"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string("The delivery fee could not be calculated"));
+
+        mockMvc.perform(get("/api/deliveryfee/timeline")
+                .param("city", "TARTU")
+                .param("vehicleType", "BIKE")
+                .param("from", "yesterday")
+                .param("to", "2025-03-24T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("expected an ISO local date-time")));
+    }
 }
@@ -51,6 +51,20 @@ public class FeeRuleControllerTest {
                 .andExpect(content().string(containsString("\"ruleType\":\"BASE_FEE\"")));
     }
 
+    @Test
+    public void testCreateFeeRuleWithInvalidCondition() throws Exception {
+        FeeRule feeRule = new FeeRule("AIR_TEMP", null, VehicleType.BIKE, "below zero", 0.5);
+
+        Mockito.when(feeRuleService.createFeeRule(any(FeeRule.class)))
+                .thenThrow(new IllegalArgumentException("Invalid interval condition: below zero"));
+
+        mockMvc.perform(post("/api/feerules")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(feeRule)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid interval condition: below zero"));
+    }
+
     @Test
     public void testGetAllFeeRules() throws Exception {
         FeeRule feeRule1 = new FeeRule("BASE_FEE", City.TALLINN, VehicleType.CAR, null, 4.0);
@@ -0,0 +1,72 @@
+package com.fujitsu.fujitsu_food_delivery.controllers;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Checks that the servlet and the reactive stack reject a request missing a required query parameter with the same
+ * error body.
+ */
+public class MissingParameterParityTest {
+
+    private static void assertMissingParameter(WebTestClient webTestClient, String uri, String path) {
+        webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.timestamp").exists()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.error").isEqualTo("Bad Request")
+                .jsonPath("$.path").isEqualTo(path)
+                .jsonPath("$.requestId").doesNotExist()
+                .jsonPath("$.message").doesNotExist();
+    }
+
+    private static void assertMissingParameters(WebTestClient webTestClient) {
+        assertMissingParameter(webTestClient, "/api/deliveryfee?city=TALLINN", "/api/deliveryfee");
+        assertMissingParameter(webTestClient, "/api/deliveryfee?vehicleType=CAR", "/api/deliveryfee");
+        assertMissingParameter(webTestClient,
+                "/api/deliveryfee/timeline?city=TALLINN&vehicleType=CAR&from=2025-03-23T10:00:00",
+                "/api/deliveryfee/timeline");
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "weather.import.adaptive.enabled=false",
+            "weather.import.cron=-",
+            "weather.retention.enabled=false"})
+    public class ServletStack {
+
+        @Autowired
+        private WebTestClient webTestClient;
+
+        @Test
+        public void testMissingParameters() {
+            assertMissingParameters(webTestClient);
+        }
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "weather.import.adaptive.enabled=false",
+            "weather.import.cron=-",
+            "weather.retention.enabled=false"})
+    @ActiveProfiles("reactive")
+    public class ReactiveStack {
+
+        @Autowired
+        private WebTestClient webTestClient;
+
+        @Test
+        public void testMissingParameters() {
+            assertMissingParameters(webTestClient);
+        }
+    }
+}
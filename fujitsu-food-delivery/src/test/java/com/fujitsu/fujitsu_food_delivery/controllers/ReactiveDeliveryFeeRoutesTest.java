@@ -0,0 +1,111 @@
+package com.fujitsu.fujitsu_food_delivery.controllers;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "weather.import.adaptive.enabled=false",
+        "weather.import.cron=-",
+        "weather.retention.enabled=false"})
+@ActiveProfiles("reactive")
+public class ReactiveDeliveryFeeRoutesTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final long observedAt = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS)
+            .minusMinutes(5).toEpochSecond(ZoneOffset.UTC);
+
+    @BeforeEach
+    public void setUp() {
+        eventPublisher.publishEvent(new WeatherDataImportedEvent(this, List.of(
+                weatherData("Tallinn-Harku", 5.0, 3.0),
+                weatherData("Tartu-Tõravere", 5.0, 25.0))));
+    }
+
+    @Test
+    public void testGetDeliveryFeeWithoutDateTime() {
+        webTestClient.get().uri("/api/deliveryfee?city=TALLINN&vehicleType=CAR")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().exists(DeliveryFeeController.OBSERVATION_AGE_HEADER)
+                .expectBody(String.class).isEqualTo("4.0");
+    }
+
+    @Test
+    public void testGetDeliveryFeeWithDateTime() {
+        String dateTime = LocalDateTime.ofEpochSecond(observedAt + 60, 0, ZoneOffset.UTC).toString();
+
+        webTestClient.get().uri("/api/deliveryfee?city=tallinn&vehicleType=Scooter&dateTime=" + dateTime)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("3.5");
+    }
+
+    @Test
+    public void testForbiddenAndInvalidQuotes() {
+        webTestClient.get().uri("/api/deliveryfee?city=TARTU&vehicleType=BIKE")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).value(containsString("Usage of selected vehicle type is forbidden"));
+
+        webTestClient.get().uri("/api/deliveryfee?city=Narva&vehicleType=CAR")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Invalid city or vehicle type");
+
+        webTestClient.get().uri("/api/deliveryfee?city=TALLINN")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Bad Request");
+    }
+
+    @Test
+    public void testGetDeliveryFeesInBatch() {
+        webTestClient.post().uri("/api/deliveryfee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"city\":\"TALLINN\",\"vehicleType\":\"CAR\"},{\"city\":\"TARTU\",\"vehicleType\":\"BIKE\"}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(200)
+                .jsonPath("$[0].fee").isEqualTo(4.0)
+                .jsonPath("$[1].status").isEqualTo(400);
+    }
+
+    @Test
+    public void testFeeRuleAdministrationIsNotServed() {
+        webTestClient.get().uri("/api/feerules")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private WeatherData weatherData(String stationName, double airTemperature, double windSpeed) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName(stationName);
+        weatherData.setTimestamp(observedAt);
+        weatherData.setAirTemperature(airTemperature);
+        weatherData.setWindSpeed(windSpeed);
+        weatherData.setWeatherPhenomenon("Clear");
+        return weatherData;
+    }
+}
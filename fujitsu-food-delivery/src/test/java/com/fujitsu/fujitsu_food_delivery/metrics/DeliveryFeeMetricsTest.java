@@ -0,0 +1,56 @@
+package com.fujitsu.fujitsu_food_delivery.metrics;
+
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryFeeMetricsTest {
+
+    private static final RegionRegistry REGIONS = RegionRegistry.defaults();
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeliveryFeeMetrics deliveryFeeMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deliveryFeeMetrics = new DeliveryFeeMetrics(meterRegistry, REGIONS);
+    }
+
+    @Test
+    void testRecordQuoteTagsByCityVehicleTypeModeAndStatus() {
+        deliveryFeeMetrics.recordQuote("tallinn", "Car", false, 200, 1_000_000);
+        deliveryFeeMetrics.recordQuote("TALLINN", "CAR", false, 200, 3_000_000);
+        deliveryFeeMetrics.recordQuote("TALLINN", "CAR", true, 404, 5_000_000);
+
+        var current = meterRegistry.get(DeliveryFeeMetrics.QUOTE_TIMER)
+                .tags("city", "TALLINN", "vehicle.type", "CAR", "mode", "current", "status", "200").timer();
+        assertEquals(2, current.count());
+        assertEquals(4.0, current.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get(DeliveryFeeMetrics.QUOTE_TIMER).tags("mode", "historical").timer().count());
+    }
+
+    @Test
+    void testRecordQuoteTagsUnknownParametersAsInvalid() {
+        deliveryFeeMetrics.recordQuote("Narva", null, false, 400, 1_000_000);
+
+        assertEquals(1, meterRegistry.get(DeliveryFeeMetrics.QUOTE_TIMER)
+                .tags("city", "invalid", "vehicle.type", "invalid").timer().count());
+    }
+
+    @Test
+    void testRecordForbidden() {
+        deliveryFeeMetrics.recordForbidden(REGIONS.find("PÄRNU"), VehicleType.BIKE);
+        deliveryFeeMetrics.recordForbidden(REGIONS.find("PÄRNU"), VehicleType.BIKE);
+
+        assertEquals(2.0, meterRegistry.get(DeliveryFeeMetrics.FORBIDDEN_COUNTER)
+                .tags("city", "PÄRNU", "vehicle.type", "BIKE").counter().count());
+    }
+}
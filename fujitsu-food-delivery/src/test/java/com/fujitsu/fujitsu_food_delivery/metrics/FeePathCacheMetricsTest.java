@@ -0,0 +1,61 @@
+package com.fujitsu.fujitsu_food_delivery.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.services.CurrentFeeMatrix;
+import com.fujitsu.fujitsu_food_delivery.services.FeeCalculationService;
+import com.fujitsu.fujitsu_food_delivery.services.LatestWeatherDataCache;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeePathCacheMetricsTest {
+
+    @Test
+    void testCacheGetsReflectHitsAndMisses() {
+        WeatherDataRepository repository = Mockito.mock(WeatherDataRepository.class);
+        LatestWeatherDataCache latestWeatherDataCache = new LatestWeatherDataCache(repository);
+        WeatherTimeSeriesIndex weatherTimeSeriesIndex = new WeatherTimeSeriesIndex(repository);
+        RegionRegistry regionRegistry = RegionRegistry.defaults();
+        CurrentFeeMatrix currentFeeMatrix = new CurrentFeeMatrix(new FeeCalculationService(), latestWeatherDataCache,
+                regionRegistry, new ObjectMapper());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new FeePathCacheMetrics(latestWeatherDataCache, weatherTimeSeriesIndex, currentFeeMatrix).bindTo(meterRegistry);
+
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName("Tallinn-Harku");
+        weatherData.setTimestamp(1742760780);
+        weatherData.setAirTemperature(5.0);
+        weatherData.setWindSpeed(5.0);
+        weatherData.setWeatherPhenomenon("Clear");
+        latestWeatherDataCache.update(List.of(weatherData));
+        weatherTimeSeriesIndex.append(List.of(weatherData));
+
+        // The first read computes the matrix, which looks up every city once
+        currentFeeMatrix.get(regionRegistry.find("TALLINN"), VehicleType.CAR);
+        currentFeeMatrix.get(regionRegistry.find("TALLINN"), VehicleType.CAR);
+        weatherTimeSeriesIndex.findLatestAtOrBefore("Tallinn-Harku", 1742760780);
+        weatherTimeSeriesIndex.findLatestAtOrBefore("Tallinn-Harku", 1742760779);
+
+        assertEquals(1.0, count(meterRegistry, "currentFeeMatrix", "hit"));
+        assertEquals(1.0, count(meterRegistry, "currentFeeMatrix", "miss"));
+        assertEquals(1.0, count(meterRegistry, "latestWeatherData", "hit"));
+        assertEquals(2.0, count(meterRegistry, "latestWeatherData", "miss"));
+        assertEquals(1.0, count(meterRegistry, "weatherTimeSeries", "hit"));
+        assertEquals(1.0, count(meterRegistry, "weatherTimeSeries", "miss"));
+    }
+
+    private static double count(SimpleMeterRegistry meterRegistry, String cache, String result) {
+        return meterRegistry.get(FeePathCacheMetrics.CACHE_GETS).tags("cache", cache, "result", result)
+                .functionCounter().count();
+    }
+}
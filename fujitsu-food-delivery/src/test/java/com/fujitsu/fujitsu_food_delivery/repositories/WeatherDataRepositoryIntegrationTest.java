@@ -0,0 +1,73 @@
+package com.fujitsu.fujitsu_food_delivery.repositories;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class WeatherDataRepositoryIntegrationTest {
+
+    private static final String STATION_NAME = "Test-Station";
+
+    @Autowired
+    private WeatherDataRepository weatherDataRepository;
+
+    @Test
+    public void testTimestampsBeyondIntRangeAreStored() {
+        long timestamp = 4_102_444_800L; // 2100-01-01T00:00:00Z
+        weatherDataRepository.saveAndFlush(weatherData(timestamp));
+
+        Optional<WeatherData> latest = weatherDataRepository.findFirstByStationNameOrderByTimestampDesc(STATION_NAME);
+        assertTrue(latest.isPresent());
+        assertEquals(timestamp, latest.get().getTimestamp());
+    }
+
+    @Test
+    public void testFindLatestAtOrBefore() {
+        weatherDataRepository.saveAndFlush(weatherData(1742688000));
+        weatherDataRepository.saveAndFlush(weatherData(1742691600));
+
+        Optional<WeatherData> atOrBefore = weatherDataRepository
+                .findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(STATION_NAME, 1742691599);
+        assertEquals(1742688000, atOrBefore.orElseThrow().getTimestamp());
+    }
+
+    @Test
+    public void testDuplicateObservationIsRejected() {
+        weatherDataRepository.saveAndFlush(weatherData(1742688000));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> weatherDataRepository.saveAndFlush(weatherData(1742688000)));
+    }
+
+    @Test
+    public void testInsertMissingSkipsStoredObservations() {
+        weatherDataRepository.saveAndFlush(weatherData(1742688000));
+
+        List<WeatherData> inserted = weatherDataRepository.insertMissing(
+                List.of(weatherData(1742688000), weatherData(1742691600), weatherData(1742695200)));
+
+        assertEquals(List.of(1742691600L, 1742695200L), inserted.stream().map(WeatherData::getTimestamp).toList());
+        assertEquals(3, weatherDataRepository.findByStationNameInRange(STATION_NAME, 0, Long.MAX_VALUE).size());
+        assertTrue(weatherDataRepository.insertMissing(List.of(weatherData(1742691600))).isEmpty());
+    }
+
+    private static WeatherData weatherData(long timestamp) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName(STATION_NAME);
+        weatherData.setTimestamp(timestamp);
+        weatherData.setAirTemperature(5.0);
+        weatherData.setWindSpeed(3.0);
+        weatherData.setWeatherPhenomenon("Clear");
+        return weatherData;
+    }
+}
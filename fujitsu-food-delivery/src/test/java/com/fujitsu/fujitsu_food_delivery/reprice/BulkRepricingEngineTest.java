@@ -0,0 +1,143 @@
+package com.fujitsu.fujitsu_food_delivery.reprice;
+
+import com.fujitsu.fujitsu_food_delivery.entities.DeliveryRegion;
+import com.fujitsu.fujitsu_food_delivery.entities.FeeRule;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.reprice.BulkRepricingEngine.RepricingSummary;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable;
+import com.fujitsu.fujitsu_food_delivery.services.FeeRuleIntervals;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRepricingEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private WeatherTimeSeriesIndex index;
+    private FeeLookupTable table;
+
+    @BeforeEach
+    void setUp() {
+        index = new WeatherTimeSeriesIndex(Mockito.mock(WeatherDataRepository.class));
+        index.append(List.of(
+                weatherData("Tallinn-Harku", 1000, 5.0, 5.0),
+                weatherData("Tallinn-Harku", 2000, -5.0, 5.0),
+                weatherData("Tallinn-Harku", 3000, 5.0, 25.0),
+                weatherData("Tartu-Tõravere", 1500, 5.0, 5.0)));
+        // 4.00 base fee, +0.50 below 0°C, bikes are forbidden above 20 m/s
+        List<FeeRule> rules = new ArrayList<>();
+        for (VehicleType vehicleType : VehicleType.values()) {
+            rules.add(new FeeRule("BASE_FEE", null, vehicleType, null, 4.0));
+            rules.add(new FeeRule("AIR_TEMP", null, vehicleType, "< 0", 0.5));
+        }
+        FeeRuleIntervals intervals = FeeRuleIntervals.compile(rules,
+                List.of(new FeeRule("WIND_SPEED", null, VehicleType.BIKE, "> 20", 0.0)), 1);
+        table = FeeLookupTable.build(intervals.getTemperatureBreakpoints(), intervals.getWindBreakpoints(),
+                intervals::evaluateCents, 1);
+    }
+
+    @Test
+    void testRepriceMergesRecordsWithWeatherHistory() throws Exception {
+        Path input = tempDir.resolve("deliveries.csv");
+        Path output = tempDir.resolve("priced.csv");
+        Files.writeString(input, String.join("\n",
+                "TALLINN,CAR,500",
+                "tallinn,bike,1000",
+                "TALLINN,BIKE,2500",
+                "TARTU,CAR,2500\r",
+                "TALLINN,BIKE,3500",
+                "TALLINN,CAR,1999",
+                "NARVA,CAR,1000",
+                "TALLINN,CAR,soon",
+                "",
+                "TALLINN,CAR,2000"));
+
+        RepricingSummary summary = new BulkRepricingEngine(table, index, 1, 1024).reprice(input, output);
+
+        assertEquals(List.of(
+                "TALLINN,CAR,500,NO_DATA",
+                "tallinn,bike,1000,4.00",
+                "TALLINN,BIKE,2500,4.50",
+                "TARTU,CAR,2500,4.00",
+                "TALLINN,BIKE,3500,FORBIDDEN",
+                "TALLINN,CAR,1999,4.00",
+                "NARVA,CAR,1000,INVALID",
+                "TALLINN,CAR,soon,INVALID",
+                "TALLINN,CAR,2000,4.50"), Files.readAllLines(output));
+        assertEquals(new RepricingSummary(5, 1, 1, 2), summary);
+    }
+
+    @Test
+    void testParallelRepricingKeepsInputOrder() throws Exception {
+        Path input = tempDir.resolve("deliveries.csv");
+        Path output = tempDir.resolve("priced.csv");
+        List<String> lines = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int timestamp = 900 + i % 2500;
+            lines.add("TALLINN,SCOOTER," + timestamp);
+            String fee = timestamp < 1000 ? "NO_DATA" : timestamp >= 2000 && timestamp < 3000 ? "4.50" : "4.00";
+            expected.add("TALLINN,SCOOTER," + timestamp + "," + fee);
+        }
+        Files.write(input, lines);
+
+        RepricingSummary summary = new BulkRepricingEngine(table, index, 4, 4096).reprice(input, output);
+
+        assertEquals(expected, Files.readAllLines(output));
+        assertEquals(10_000, summary.total());
+    }
+
+    @Test
+    void testRepriceResolvesRegisteredRegions() throws Exception {
+        List<DeliveryRegion> regions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            regions.add(new DeliveryRegion("REGION" + i, "Tallinn-Harku", City.TALLINN));
+        }
+        regions.add(new DeliveryRegion("ELVA", "Tartu-Tõravere", City.TARTU));
+        Path input = tempDir.resolve("deliveries.csv");
+        Path output = tempDir.resolve("priced.csv");
+        Files.writeString(input, String.join("\n",
+                "region137,CAR,1000",
+                "ELVA,CAR,1200",
+                "Elva,CAR,1500",
+                "TALLINN,CAR,1500",
+                "REGION200,CAR,1500"));
+
+        RepricingSummary summary = new BulkRepricingEngine(table, index, new RegionRegistry(regions), 1, 1024)
+                .reprice(input, output);
+
+        assertEquals(List.of(
+                "region137,CAR,1000,4.00",
+                "ELVA,CAR,1200,NO_DATA",
+                "Elva,CAR,1500,4.00",
+                "TALLINN,CAR,1500,INVALID",
+                "REGION200,CAR,1500,INVALID"), Files.readAllLines(output));
+        assertEquals(new RepricingSummary(2, 0, 1, 2), summary);
+    }
+
+    private static WeatherData weatherData(String stationName, int timestamp, double airTemperature, double windSpeed) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName(stationName);
+        weatherData.setTimestamp(timestamp);
+        weatherData.setAirTemperature(airTemperature);
+        weatherData.setWindSpeed(windSpeed);
+        weatherData.setWeatherPhenomenon("Clear");
+        return weatherData;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fujitsu.fujitsu_food_delivery.reprice;
+
+import com.fujitsu.fujitsu_food_delivery.reprice.BulkRepricingEngine.RepricingSummary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRepricingRunnerTest {
+
+    @Test
+    void testExitCodeReflectsRunOutcome() {
+        assertEquals(0, BulkRepricingRunner.exitCode(new RepricingSummary(5, 1, 1, 0)));
+        assertEquals(BulkRepricingRunner.EXIT_INVALID_RECORDS,
+                BulkRepricingRunner.exitCode(new RepricingSummary(5, 0, 0, 1)));
+        assertEquals(BulkRepricingRunner.EXIT_NOTHING_PRICED,
+                BulkRepricingRunner.exitCode(new RepricingSummary(0, 2, 3, 0)));
+        assertEquals(BulkRepricingRunner.EXIT_NOTHING_PRICED,
+                BulkRepricingRunner.exitCode(new RepricingSummary(0, 0, 0, 0)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectoryWeatherSourceTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testOffersNewestSnapshotOnce() throws IOException {
+        DirectoryWeatherSource source = new DirectoryWeatherSource(directory);
+        assertNull(read(source));
+
+        Files.writeString(directory.resolve("observations-20250323T2000.xml"), "first", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("observations-20250323T2100.xml"), "second", StandardCharsets.UTF_8);
+        assertEquals("second", read(source));
+        assertNull(read(source));
+
+        Path third = directory.resolve("observations-20250323T2200.xml");
+        Files.writeString(third, "third", StandardCharsets.UTF_8);
+        assertEquals("third", read(source));
+
+        Files.writeString(third, "third, corrected", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(third, FileTime.from(Instant.now().plusSeconds(60)));
+        assertEquals("third, corrected", read(source));
+    }
+
+    @Test
+    public void testRejectsMissingDirectory() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DirectoryWeatherSource(directory.resolve("missing")));
+    }
+
+    private static String read(WeatherSource source) throws IOException {
+        return source.fetch(document -> new String(document.readAllBytes(), StandardCharsets.UTF_8));
+    }
+}
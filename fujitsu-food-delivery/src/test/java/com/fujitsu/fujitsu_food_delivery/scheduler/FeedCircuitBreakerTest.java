@@ -0,0 +1,68 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedCircuitBreakerTest {
+
+    private static final Instant START = Instant.parse("2025-03-23T20:03:00Z");
+
+    private final FeedCircuitBreaker breaker = new FeedCircuitBreaker(3, Duration.ofMinutes(5));
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        breaker.recordFailure(START);
+        breaker.recordFailure(START);
+        assertTrue(breaker.tryAcquire(START));
+
+        breaker.recordFailure(START);
+
+        assertEquals(FeedCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(START.plus(Duration.ofMinutes(5)), breaker.getOpenUntil());
+        assertFalse(breaker.tryAcquire(START.plusSeconds(299)));
+    }
+
+    @Test
+    public void testSuccessResetsFailureCount() {
+        breaker.recordFailure(START);
+        breaker.recordFailure(START);
+        breaker.recordSuccess();
+        breaker.recordFailure(START);
+        breaker.recordFailure(START);
+
+        assertEquals(FeedCircuitBreaker.State.CLOSED, breaker.getState());
+        assertNull(breaker.getOpenUntil());
+    }
+
+    @Test
+    public void testLetsTrialThroughAfterOpenDuration() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(START);
+        }
+
+        assertTrue(breaker.tryAcquire(START.plusSeconds(300)));
+        assertEquals(FeedCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(START.plusSeconds(300)));
+
+        breaker.recordSuccess();
+        assertEquals(FeedCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testFailedTrialReopensCircuit() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(START);
+        }
+        Instant trial = START.plusSeconds(300);
+        breaker.tryAcquire(trial);
+
+        breaker.recordFailure(trial);
+
+        assertEquals(FeedCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(trial.plus(Duration.ofMinutes(5)), breaker.getOpenUntil());
+    }
+}
@@ -0,0 +1,204 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class HttpWeatherSourceTest {
+
+    private static final String URL = "http://feed.test/observations.php";
+    private static final String DOCUMENT = "<observations timestamp=\"1742760780\"></observations>";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private HttpServer stub;
+
+    @AfterEach
+    public void tearDown() {
+        stalled.countDown();
+        if (stub != null) {
+            stub.stop(0);
+        }
+    }
+
+    @Test
+    public void testRetriesServerErrors() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer feed = MockRestServiceServer.bindTo(restTemplate).build();
+        feed.expect(times(2), requestTo(URL)).andRespond(withServerError());
+        feed.expect(requestTo(URL)).andRespond(withSuccess(DOCUMENT, MediaType.TEXT_XML));
+        HttpWeatherSource source = source(restTemplate, 3, new FeedCircuitBreaker(5, Duration.ofMinutes(5)));
+
+        assertEquals(DOCUMENT, source.fetch(HttpWeatherSourceTest::readString));
+
+        feed.verify();
+        assertEquals(2.0, meterRegistry.get("weather.feed.retries").counter().count());
+        assertEquals(3, meterRegistry.get("weather.feed.phase").tag("phase", "response").timer().count());
+        assertEquals(1, meterRegistry.get("weather.feed.phase").tag("phase", "document").timer().count());
+        assertEquals(1, meterRegistry.get("weather.feed.fetch").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void testDoesNotRetryClientErrorsOrFailedDocuments() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer feed = MockRestServiceServer.bindTo(restTemplate).build();
+        feed.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+        feed.expect(requestTo(URL)).andRespond(withSuccess(DOCUMENT, MediaType.TEXT_XML));
+        HttpWeatherSource source = source(restTemplate, 3, new FeedCircuitBreaker(5, Duration.ofMinutes(5)));
+
+        assertThrows(HttpClientErrorException.NotFound.class, () -> source.fetch(HttpWeatherSourceTest::readString));
+        IOException failure = assertThrows(IOException.class, () -> source.fetch(document -> {
+            throw new IOException("Connection reset");
+        }));
+
+        assertEquals("Connection reset", failure.getMessage());
+        feed.verify();
+        assertEquals(0.0, meterRegistry.get("weather.feed.retries").counter().count());
+        assertEquals(2, meterRegistry.get("weather.feed.fetch").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    public void testRejectsFetchesWhileCircuitIsOpen() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer feed = MockRestServiceServer.bindTo(restTemplate).build();
+        feed.expect(times(2), requestTo(URL)).andRespond(withServerError());
+        FeedCircuitBreaker breaker = new FeedCircuitBreaker(2, Duration.ofMinutes(5));
+        HttpWeatherSource source = source(restTemplate, 1, breaker);
+
+        assertThrows(HttpServerErrorException.class, () -> source.fetch(HttpWeatherSourceTest::readString));
+        assertThrows(HttpServerErrorException.class, () -> source.fetch(HttpWeatherSourceTest::readString));
+        assertThrows(IOException.class, () -> source.fetch(HttpWeatherSourceTest::readString));
+
+        feed.verify();
+        assertEquals(FeedCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1, meterRegistry.get("weather.feed.fetch").tag("outcome", "rejected").timer().count());
+        assertEquals(1.0, meterRegistry.get("weather.feed.circuit.state").gauge().value());
+    }
+
+    @Test
+    public void testHandlerFailureDuringTrialReopensCircuit() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer feed = MockRestServiceServer.bindTo(restTemplate).build();
+        feed.expect(requestTo(URL)).andRespond(withServerError());
+        feed.expect(times(2), requestTo(URL)).andRespond(withSuccess(DOCUMENT, MediaType.TEXT_XML));
+        FeedCircuitBreaker breaker = new FeedCircuitBreaker(1, Duration.ZERO);
+        HttpWeatherSource source = source(restTemplate, 1, breaker);
+
+        assertThrows(HttpServerErrorException.class, () -> source.fetch(HttpWeatherSourceTest::readString));
+        assertThrows(IllegalStateException.class, () -> source.fetch(document -> {
+            throw new IllegalStateException("Malformed weather document");
+        }));
+
+        assertEquals(FeedCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(DOCUMENT, source.fetch(HttpWeatherSourceTest::readString));
+        assertEquals(FeedCircuitBreaker.State.CLOSED, breaker.getState());
+        feed.verify();
+    }
+
+    @Test
+    public void testRequestsAndDecompressesGzip() throws Exception {
+        startStub(exchange -> {
+            assertEquals("gzip", exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+        HttpWeatherSource source = new HttpWeatherSource(stubUrl(), Duration.ofSeconds(5), Duration.ofSeconds(30),
+                DataSize.ofMegabytes(4), 1, Duration.ZERO, 5, Duration.ofMinutes(5), meterRegistry);
+
+        assertEquals(DOCUMENT, source.fetch(HttpWeatherSourceTest::readString));
+    }
+
+    @Test
+    public void testRejectsOversizedDocument() throws Exception {
+        startStub(exchange -> {
+            byte[] body = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        HttpWeatherSource source = new HttpWeatherSource(stubUrl(),
+                HttpWeatherSource.restTemplate(Duration.ofSeconds(5), Duration.ofSeconds(5)), 16, 3, Duration.ZERO,
+                new FeedCircuitBreaker(5, Duration.ofMinutes(5)), meterRegistry);
+
+        IOException failure = assertThrows(IOException.class, () -> source.fetch(HttpWeatherSourceTest::readString));
+
+        assertTrue(failure.getMessage().contains("exceeds 16 bytes"));
+        assertEquals(0.0, meterRegistry.get("weather.feed.retries").counter().count());
+    }
+
+    @Test
+    public void testTimesOutStalledDocument() throws Exception {
+        startStub(exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            OutputStream out = exchange.getResponseBody();
+            out.write("<observations".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                stalled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        HttpWeatherSource source = new HttpWeatherSource(stubUrl(),
+                HttpWeatherSource.restTemplate(Duration.ofSeconds(1), Duration.ofMillis(300)), 1024, 1, Duration.ZERO,
+                new FeedCircuitBreaker(5, Duration.ofMinutes(5)), meterRegistry);
+
+        long start = System.nanoTime();
+        assertThrows(IOException.class, () -> source.fetch(HttpWeatherSourceTest::readString));
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+    }
+
+    private HttpWeatherSource source(RestTemplate restTemplate, int maxAttempts, FeedCircuitBreaker breaker) {
+        return new HttpWeatherSource(URL, restTemplate, 1024, maxAttempts, Duration.ZERO, breaker, meterRegistry);
+    }
+
+    private void startStub(HttpHandler handler) throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.createContext("/observations.php", handler);
+        stub.start();
+    }
+
+    private String stubUrl() {
+        return "http://localhost:" + stub.getAddress().getPort() + "/observations.php";
+    }
+
+    private static String readString(InputStream document) throws IOException {
+        return new String(document.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayWeatherSourceTest {
+
+    private static final Instant START = Instant.parse("2025-03-23T20:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private final MutableClock clock = new MutableClock();
+    private final ObservationFeedParser parser = new ObservationFeedParser(Set.of("Tallinn-Harku"));
+
+    @Test
+    public void testReplaysSnapshotsInTimestampOrderAtAcceleratedSpeed() throws IOException {
+        writeSnapshot("b.xml", 1742760000);
+        writeSnapshot("a.xml", 1742763600);
+        writeSnapshot("c.xml", 1742767200);
+        Files.writeString(directory.resolve("notes.txt"), "not a snapshot");
+        ReplayWeatherSource source = new ReplayWeatherSource(directory, 60, clock);
+
+        assertEquals(1742760000L, fetchTimestamp(source));
+        assertNull(fetchTimestamp(source));
+
+        // One hour of recorded weather per minute
+        clock.advance(Duration.ofSeconds(59));
+        assertNull(fetchTimestamp(source));
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1742763600L, fetchTimestamp(source));
+
+        // Polling slower than the replay still imports every snapshot in order
+        clock.advance(Duration.ofMinutes(10));
+        assertEquals(1742767200L, fetchTimestamp(source));
+        assertEquals(0, source.getRemainingSnapshots());
+        assertNull(fetchTimestamp(source));
+    }
+
+    @Test
+    public void testFailedSnapshotIsOfferedAgain() throws IOException {
+        writeSnapshot("a.xml", 1742760000);
+        ReplayWeatherSource source = new ReplayWeatherSource(directory, 60, clock);
+
+        assertThrows(IOException.class, () -> source.fetch(document -> {
+            throw new IOException("Test exception");
+        }));
+        assertEquals(1742760000L, fetchTimestamp(source));
+    }
+
+    @Test
+    public void testRejectsDirectoryWithoutSnapshots() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplayWeatherSource(directory, 60, clock));
+    }
+
+    private Long fetchTimestamp(WeatherSource source) throws IOException {
+        return source.fetch(document -> {
+            try {
+                return parser.parse(document).timestamp();
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        });
+    }
+
+    private void writeSnapshot(String name, long timestamp) throws IOException {
+        Files.writeString(directory.resolve(name), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<observations timestamp=\"" + timestamp + "\">" +
+                "<station><name>Tallinn-Harku</name><airtemperature>1.0</airtemperature></station>" +
+                "</observations>", StandardCharsets.UTF_8);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
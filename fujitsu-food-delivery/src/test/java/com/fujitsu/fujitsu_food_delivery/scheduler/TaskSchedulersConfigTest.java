@@ -0,0 +1,68 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.SchedulingAwareRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TaskSchedulersConfigTest {
+
+    @Test
+    public void testSchedulersUseVirtualThreadsWhenEnabled() throws Exception {
+        Thread thread = runOn(new TaskSchedulersConfig(true).weatherImportTaskScheduler());
+
+        assertTrue(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("weather-import-"));
+    }
+
+    @Test
+    public void testSchedulersUsePlatformThreadsByDefault() throws Exception {
+        Thread thread = runOn(new TaskSchedulersConfig(false).adminTaskScheduler());
+
+        assertFalse(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("admin-"));
+    }
+
+    @Test
+    public void testUnqualifiedTasksUseDefaultScheduler() throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TaskSchedulersConfig.class)) {
+            TaskScheduler scheduler = context.getBean(TaskScheduler.class);
+
+            assertSame(context.getBean(TaskSchedulersConfig.DEFAULT_SCHEDULER), scheduler);
+            assertTrue(runOn((ThreadPoolTaskScheduler) scheduler).getName().startsWith("scheduling-"));
+        }
+    }
+
+    @Test
+    public void testImportTaskIsRoutedToImportScheduler() {
+        WeatherImportSchedulingConfig config = new WeatherImportSchedulingConfig(mock(WeatherDataScheduler.class),
+                mock(WeatherFeedCadence.class), false, "http", "*/30 * * * * *");
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+
+        config.configureTasks(registrar);
+
+        Runnable task = registrar.getCronTaskList().get(0).getRunnable();
+        SchedulingAwareRunnable schedulingAwareTask = assertInstanceOf(SchedulingAwareRunnable.class, task);
+        assertEquals(TaskSchedulersConfig.WEATHER_IMPORT_SCHEDULER, schedulingAwareTask.getQualifier());
+    }
+
+    private static Thread runOn(ThreadPoolTaskScheduler scheduler) throws Exception {
+        scheduler.initialize();
+        try {
+            CompletableFuture<Thread> thread = new CompletableFuture<>();
+            scheduler.schedule(() -> thread.complete(Thread.currentThread()), Instant.now());
+            return thread.get(5, TimeUnit.SECONDS);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
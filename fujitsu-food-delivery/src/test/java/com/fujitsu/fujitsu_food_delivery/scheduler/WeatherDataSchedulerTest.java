@@ -1,32 +1,65 @@
 package com.fujitsu.fujitsu_food_delivery.scheduler;
 
+import com.fujitsu.fujitsu_food_delivery.entities.DeliveryRegion;
 import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
 import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
 import com.fujitsu.fujitsu_food_delivery.scheduler.WeatherDataScheduler;
+import com.fujitsu.fujitsu_food_delivery.services.RegionRegistry;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.http.ResponseEntity;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 public class WeatherDataSchedulerTest {
 
     private WeatherDataRepository weatherDataRepository;
+    private ApplicationEventPublisher eventPublisher;
     private WeatherDataScheduler scheduler;
-    private RestTemplate restTemplateMock;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer feed;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     public void setUp() {
         weatherDataRepository = mock(WeatherDataRepository.class);
-        scheduler = new WeatherDataScheduler(weatherDataRepository);
-        restTemplateMock = mock(RestTemplate.class);
-        ReflectionTestUtils.setField(scheduler, "restTemplate", restTemplateMock);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(weatherDataRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        restTemplate = new RestTemplate();
+        feed = MockRestServiceServer.bindTo(restTemplate).build();
+        scheduler = new WeatherDataScheduler(weatherDataRepository, eventPublisher,
+                httpSource(HttpWeatherSource.DEFAULT_FEED_URL, restTemplate), cadence(),
+                RegionRegistry.defaults(), meterRegistry);
     }
 
     @Test
@@ -55,19 +88,259 @@ public class WeatherDataSchedulerTest {
                 "</station>" +
                 "</observations>";
 
-        when(restTemplateMock.getForEntity(any(String.class), eq(String.class)))
-                .thenReturn(ResponseEntity.ok(xmlData));
+        feed.expect(requestTo(HttpWeatherSource.DEFAULT_FEED_URL))
+                .andRespond(withSuccess(xmlData, MediaType.TEXT_XML));
 
         scheduler.importWeatherData();
 
-        verify(weatherDataRepository, times(2)).save(any(WeatherData.class));
+        ArgumentCaptor<List<WeatherData>> captor = weatherDataCaptor();
+        verify(weatherDataRepository).insertMissing(captor.capture());
+        assertEquals(List.of("Tallinn-Harku", "Tartu-Tõravere"),
+                captor.getValue().stream().map(WeatherData::getStationName).toList());
+
+        ArgumentCaptor<WeatherDataImportedEvent> eventCaptor = ArgumentCaptor.forClass(WeatherDataImportedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(2, eventCaptor.getValue().getWeatherData().size());
+
+        assertEquals(2.0, meterRegistry.get("weather.import.stations.saved").counter().count());
+        assertEquals(0.0, meterRegistry.get("weather.import.stations.skipped").counter().count());
+        assertEquals(xmlData.getBytes(StandardCharsets.UTF_8).length,
+                meterRegistry.get("weather.import.fetched").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("weather.import").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void testImportWeatherData_classifiesPhenomenon() throws Exception {
+        String xmlData = "<observations timestamp=\"1742760780\">" +
+                "<station>" +
+                "  <name>Pärnu</name>" +
+                "  <wmocode>41803</wmocode>" +
+                "  <airtemperature>-1.5</airtemperature>" +
+                "  <windspeed>4.1</windspeed>" +
+                "  <phenomenon>Light snow shower</phenomenon>" +
+                "</station>" +
+                "</observations>";
+
+        feed.expect(requestTo(HttpWeatherSource.DEFAULT_FEED_URL))
+                .andRespond(withSuccess(xmlData, MediaType.TEXT_XML));
+
+        scheduler.importWeatherData();
+
+        ArgumentCaptor<List<WeatherData>> captor = weatherDataCaptor();
+        verify(weatherDataRepository).insertMissing(captor.capture());
+        assertEquals("Light snow shower", captor.getValue().get(0).getWeatherPhenomenon());
+        assertEquals(WeatherPhenomenonCategory.SNOW_SLEET, captor.getValue().get(0).getPhenomenonCategory());
+    }
+
+    @Test
+    public void testImportWeatherData_skipsStoredObservations() throws Exception {
+        String xmlData = "<observations timestamp=\"1742760780\">" +
+                "<station>" +
+                "  <name>Tallinn-Harku</name>" +
+                "  <wmocode>26038</wmocode>" +
+                "  <airtemperature>1.9</airtemperature>" +
+                "  <windspeed>3.3</windspeed>" +
+                "  <phenomenon>Clear</phenomenon>" +
+                "</station>" +
+                "</observations>";
+
+        feed.expect(requestTo(HttpWeatherSource.DEFAULT_FEED_URL))
+                .andRespond(withSuccess(xmlData, MediaType.TEXT_XML));
+        when(weatherDataRepository.insertMissing(anyList())).thenReturn(List.of());
+
+        scheduler.importWeatherData();
+
+        ArgumentCaptor<WeatherDataImportedEvent> eventCaptor = ArgumentCaptor.forClass(WeatherDataImportedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(0, eventCaptor.getValue().getWeatherData().size());
+        assertEquals(0.0, meterRegistry.get("weather.import.stations.saved").counter().count());
+        assertEquals(1.0, meterRegistry.get("weather.import.stations.skipped").counter().count());
+    }
+
+    @Test
+    public void testImportWeatherData_skipsOtherStationsAndEmptyValues() throws Exception {
+        String xmlData = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<observations timestamp=\"1742760780\">" +
+                "<station>" +
+                "  <name>Kuressaare linn</name>" +
+                "  <wmocode></wmocode>" +
+                "  <airtemperature>not a number</airtemperature>" +
+                "</station>" +
+                "<station>" +
+                "  <name>Pärnu</name>" +
+                "  <wmocode>41803</wmocode>" +
+                "  <longitude>24.4</longitude>" +
+                "  <phenomenon></phenomenon>" +
+                "  <airtemperature></airtemperature>" +
+                "  <windspeed>4.1</windspeed>" +
+                "</station>" +
+                "</observations>";
+        feed.expect(requestTo(HttpWeatherSource.DEFAULT_FEED_URL))
+                .andRespond(withSuccess(xmlData, MediaType.TEXT_XML));
+
+        scheduler.importWeatherData();
+
+        ArgumentCaptor<List<WeatherData>> captor = weatherDataCaptor();
+        verify(weatherDataRepository).insertMissing(captor.capture());
+        assertEquals("Pärnu", captor.getValue().get(0).getStationName());
+        assertEquals(1742760780L, captor.getValue().get(0).getTimestamp());
+        assertNull(captor.getValue().get(0).getAirTemperature());
+        assertEquals(4.1, captor.getValue().get(0).getWindSpeed());
+        assertEquals(WeatherPhenomenonCategory.NONE, captor.getValue().get(0).getPhenomenonCategory());
+    }
+
+    @Test
+    public void testImportWeatherData_importsStationsOfRegisteredRegions() throws Exception {
+        RegionRegistry regionRegistry = new RegionRegistry(List.of(
+                new DeliveryRegion("TALLINN", "Tallinn-Harku", City.TALLINN),
+                new DeliveryRegion("KURESSAARE", "Kuressaare linn", City.PÄRNU)));
+        scheduler = new WeatherDataScheduler(weatherDataRepository, eventPublisher,
+                httpSource(HttpWeatherSource.DEFAULT_FEED_URL, restTemplate), cadence(),
+                regionRegistry, meterRegistry);
+        String xmlData = "<observations timestamp=\"1742760780\">" +
+                "<station><name>Kuressaare linn</name><airtemperature>2.0</airtemperature></station>" +
+                "<station><name>Pärnu</name><airtemperature>3.0</airtemperature></station>" +
+                "</observations>";
+        feed.expect(requestTo(HttpWeatherSource.DEFAULT_FEED_URL))
+                .andRespond(withSuccess(xmlData, MediaType.TEXT_XML));
+
+        scheduler.importWeatherData();
+
+        ArgumentCaptor<List<WeatherData>> captor = weatherDataCaptor();
+        verify(weatherDataRepository).insertMissing(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("Kuressaare linn", captor.getValue().get(0).getStationName());
+        assertEquals(2.0, captor.getValue().get(0).getAirTemperature());
+    }
+
+    @Test
+    public void testImportWeatherData_handlesMalformedDocument() {
+        feed.expect(requestTo(HttpWeatherSource.DEFAULT_FEED_URL))
+                .andRespond(withSuccess("<observations timestamp=\"1742760780\"><station>", MediaType.TEXT_XML));
+
+        assertDoesNotThrow(() -> scheduler.importWeatherData());
+        verify(weatherDataRepository, never()).insertMissing(anyList());
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1.0, meterRegistry.get("weather.import.failures").counter().count());
     }
 
     @Test
     public void testImportWeatherData_handlesException() {
-        when(restTemplateMock.getForEntity(any(String.class), eq(String.class)))
-                .thenThrow(new RuntimeException("Test exception"));
+        feed.expect(requestTo(HttpWeatherSource.DEFAULT_FEED_URL)).andRespond(withServerError());
 
         assertDoesNotThrow(() -> scheduler.importWeatherData());
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1.0, meterRegistry.get("weather.import.failures").counter().count());
+        assertEquals(1, meterRegistry.get("weather.import").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    public void testImportWeatherData_usesConfiguredFeedUrl() {
+        scheduler = new WeatherDataScheduler(weatherDataRepository, eventPublisher,
+                httpSource("http://localhost:8089/observations.php", restTemplate), cadence(),
+                RegionRegistry.defaults(), new SimpleMeterRegistry());
+        feed.expect(requestTo("http://localhost:8089/observations.php"))
+                .andRespond(withSuccess("<observations timestamp=\"1742760780\"></observations>", MediaType.TEXT_XML));
+
+        scheduler.importWeatherData();
+
+        feed.verify();
+    }
+
+    @Test
+    public void testImportWeatherData_sendsValidatorsAndSkipsNotModifiedFeed() throws Exception {
+        List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+        HttpServer stub = startFeedStub(exchange -> {
+            String validator = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.add(String.valueOf(validator));
+            if ("\"v1\"".equals(validator)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            sendDocument(exchange, 1742760780);
+        });
+        try {
+            scheduler = new WeatherDataScheduler(weatherDataRepository, eventPublisher,
+                    httpSource(feedUrl(stub), HttpWeatherSource.restTemplate(Duration.ofSeconds(5), Duration.ofSeconds(30))),
+                    cadence(), RegionRegistry.defaults(), meterRegistry);
+
+            scheduler.importWeatherData();
+            scheduler.importWeatherData();
+
+            assertEquals(List.of("null", "\"v1\""), ifNoneMatch);
+            verify(weatherDataRepository, times(1)).insertMissing(anyList());
+            verify(eventPublisher, times(1)).publishEvent(any(WeatherDataImportedEvent.class));
+            assertEquals(1, meterRegistry.get("weather.import").tag("outcome", "success").timer().count());
+            assertEquals(1, meterRegistry.get("weather.import").tag("outcome", "not_modified").timer().count());
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    @Test
+    public void testImportWeatherData_shortCircuitsUnchangedDocument() throws Exception {
+        AtomicLong timestamp = new AtomicLong(1742760780);
+        HttpServer stub = startFeedStub(exchange -> sendDocument(exchange, timestamp.get()));
+        try {
+            scheduler = new WeatherDataScheduler(weatherDataRepository, eventPublisher,
+                    httpSource(feedUrl(stub), HttpWeatherSource.restTemplate(Duration.ofSeconds(5), Duration.ofSeconds(30))),
+                    cadence(), RegionRegistry.defaults(), meterRegistry);
+
+            scheduler.importWeatherData();
+            scheduler.importWeatherData();
+            verify(weatherDataRepository, times(1)).insertMissing(anyList());
+            assertEquals(1, meterRegistry.get("weather.import").tag("outcome", "unchanged").timer().count());
+
+            timestamp.set(1742764380);
+            scheduler.importWeatherData();
+            verify(weatherDataRepository, times(2)).insertMissing(anyList());
+            verify(eventPublisher, times(2)).publishEvent(any(WeatherDataImportedEvent.class));
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private HttpWeatherSource httpSource(String feedUrl, RestTemplate restTemplate) {
+        return new HttpWeatherSource(feedUrl, restTemplate, DataSize.ofMegabytes(4).toBytes(), 1, Duration.ZERO,
+                new FeedCircuitBreaker(5, Duration.ofMinutes(5)), meterRegistry);
+    }
+
+    private static WeatherFeedCadence cadence() {
+        return new WeatherFeedCadence(Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(2));
+    }
+
+    private static HttpServer startFeedStub(HttpHandler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/observations.php", handler);
+        server.start();
+        return server;
+    }
+
+    private static String feedUrl(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort() + "/observations.php";
+    }
+
+    private static void sendDocument(HttpExchange exchange, long timestamp) throws IOException {
+        byte[] body = ("<observations timestamp=\"" + timestamp + "\">" +
+                "<station>" +
+                "  <name>Tallinn-Harku</name>" +
+                "  <wmocode>26038</wmocode>" +
+                "  <airtemperature>1.9</airtemperature>" +
+                "  <windspeed>3.3</windspeed>" +
+                "  <phenomenon>Clear</phenomenon>" +
+                "</station>" +
+                "</observations>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<WeatherData>> weatherDataCaptor() {
+        return ArgumentCaptor.forClass(List.class);
     }
 }
@@ -0,0 +1,76 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeatherFeedCadenceTest {
+
+    private static final Instant START = Instant.parse("2025-03-23T20:03:00Z");
+    private static final long HOUR = 3600;
+
+    private WeatherFeedCadence cadence;
+
+    @BeforeEach
+    public void setUp() {
+        cadence = new WeatherFeedCadence(Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(2));
+    }
+
+    @Test
+    public void testPollsAtMinimumIntervalUntilCadenceIsKnown() {
+        assertEquals(Duration.ofSeconds(30), cadence.nextPollDelay(START));
+
+        cadence.recordPoll(1742760000, START);
+
+        assertNull(cadence.getEstimatedInterval());
+        assertEquals(Duration.ofSeconds(30), cadence.nextPollDelay(START.plusSeconds(30)));
+    }
+
+    @Test
+    public void testWaitsUntilShortlyBeforeExpectedUpdate() {
+        cadence.recordPoll(1742760000, START.minusSeconds(HOUR));
+        cadence.recordPoll(1742760000 + HOUR, START);
+
+        assertEquals(Duration.ofHours(1), cadence.getEstimatedInterval());
+        // Far from the expected update: wait at most the maximum interval
+        assertEquals(Duration.ofMinutes(10), cadence.nextPollDelay(START.plusSeconds(60)));
+        // Close to the window before the expected update: wait exactly until it opens
+        assertEquals(Duration.ofMinutes(3), cadence.nextPollDelay(START.plus(Duration.ofMinutes(55))));
+        // Within the window: poll at the minimum interval
+        assertEquals(Duration.ofSeconds(30), cadence.nextPollDelay(START.plus(Duration.ofMinutes(59))));
+        assertEquals(Duration.ofSeconds(30), cadence.nextPollDelay(START.plus(Duration.ofMinutes(61))));
+    }
+
+    @Test
+    public void testBacksOffWhenUpdateIsOverdue() {
+        cadence.recordPoll(1742760000, START.minusSeconds(HOUR));
+        cadence.recordPoll(1742760000 + HOUR, START);
+
+        Instant overdue = START.plus(Duration.ofMinutes(63));
+        cadence.recordPoll(1742760000 + HOUR, overdue);
+        assertEquals(Duration.ofMinutes(1), cadence.nextPollDelay(overdue));
+        cadence.recordNotModified(overdue.plusSeconds(60));
+        assertEquals(Duration.ofMinutes(2), cadence.nextPollDelay(overdue.plusSeconds(60)));
+        for (int i = 0; i < 10; i++) {
+            cadence.recordNotModified(overdue.plusSeconds(120 + i));
+        }
+        assertEquals(Duration.ofMinutes(10), cadence.nextPollDelay(overdue.plusSeconds(200)));
+
+        // A new document resets the back-off and refines the estimate
+        cadence.recordPoll(1742760000 + 2 * HOUR + 600, overdue.plusSeconds(300));
+        assertEquals(Duration.ofSeconds(3750), cadence.getEstimatedInterval());
+        assertEquals(Duration.ofMinutes(10), cadence.nextPollDelay(overdue.plusSeconds(330)));
+    }
+
+    @Test
+    public void testRejectsInvalidIntervals() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WeatherFeedCadence(Duration.ZERO, Duration.ofMinutes(10), Duration.ofMinutes(2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WeatherFeedCadence(Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofMinutes(2)));
+    }
+}
@@ -0,0 +1,151 @@
+package com.fujitsu.fujitsu_food_delivery.scheduler;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherHistoryCompactedEvent;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherRetentionWatermarkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "weather.retention.enabled=false")
+@Transactional
+public class WeatherHistoryCompactorIntegrationTest {
+
+    private static final String STATION_NAME = "Test-Station";
+    private static final long BASE = 1_000_000_800L; // 2001-09-09T01:00:00Z
+    private static final long DAY = 86400L;
+
+    @Autowired
+    private WeatherDataRepository weatherDataRepository;
+
+    @Autowired
+    private WeatherRetentionWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+    @Test
+    public void testCompactionRemovesUnchangedObservations() {
+        save(BASE, 5.0, 3.0, "Clear");
+        save(BASE + 600, 5.0, 3.0, "Clear");
+        save(BASE + 1200, -2.0, 3.0, "Light snow shower");
+        save(BASE + 1800, -2.0, 3.0, "Light snow shower");
+        save(BASE + 2400, 5.0, 3.0, "Clear");
+
+        int removed = compactor(30, 0).compact(BASE + 40 * DAY);
+
+        assertEquals(2, removed);
+        assertEquals(List.of(BASE, BASE + 1200, BASE + 2400), timestamps());
+        WeatherData atDeletedTime = weatherDataRepository
+                .findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(STATION_NAME, BASE + 1800)
+                .orElseThrow();
+        assertEquals(-2.0, atDeletedTime.getAirTemperature());
+        assertEquals(WeatherPhenomenonCategory.SNOW_SLEET, atDeletedTime.getPhenomenonCategory());
+
+        ArgumentCaptor<WeatherHistoryCompactedEvent> event = ArgumentCaptor.forClass(WeatherHistoryCompactedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(STATION_NAME, event.getValue().getStationName());
+        assertEquals(BASE, event.getValue().getFrom());
+        assertEquals(3, event.getValue().getRemaining().size());
+    }
+
+    @Test
+    public void testObservationsWithinRetentionPeriodAreKept() {
+        save(BASE, 5.0, 3.0, "Clear");
+        save(BASE + 600, 5.0, 3.0, "Clear");
+
+        assertEquals(0, compactor(30, 0).compact(BASE + 20 * DAY));
+        assertEquals(List.of(BASE, BASE + 600), timestamps());
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testHourlyRollupKeepsWorstConditions() {
+        save(BASE + 300, 2.0, 4.0, "Light rain");
+        save(BASE + 1500, -1.0, 8.0, "Clear");
+        save(BASE + 2700, 1.0, 6.0, "Hail");
+        save(BASE + 3600, 0.0, 1.0, "Clear");
+
+        int removed = compactor(1, 1).compact(BASE + 10 * DAY);
+
+        assertEquals(2, removed);
+        assertEquals(List.of(BASE, BASE + 3600), timestamps());
+        WeatherData aggregate = weatherDataRepository
+                .findFirstByStationNameAndTimestampLessThanEqualOrderByTimestampDesc(STATION_NAME, BASE + 3599)
+                .orElseThrow();
+        assertEquals(-1.0, aggregate.getAirTemperature());
+        assertEquals(8.0, aggregate.getWindSpeed());
+        assertEquals("Hail", aggregate.getWeatherPhenomenon());
+        assertEquals(WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER, aggregate.getPhenomenonCategory());
+    }
+
+    @Test
+    public void testHourlyRollupResumesAfterRestartAtFirstHourNotRolledUp() {
+        save(BASE, 1.0, 2.0, "Clear");
+        save(BASE + 3600, 0.0, 2.0, "Clear");
+        save(BASE + 20 * DAY + 300, 2.0, 4.0, "Clear");
+        save(BASE + 20 * DAY + 900, 3.0, 4.0, "Clear");
+
+        int removed = compactor(1, 1).compact(BASE + 30 * DAY);
+
+        assertEquals(1, removed);
+        assertEquals(List.of(BASE, BASE + 3600, BASE + 20 * DAY), timestamps());
+    }
+
+    @Test
+    public void testCompactionResumesAfterRestartAtStoredWatermark() {
+        save(BASE, 5.0, 3.0, "Clear");
+        save(BASE + 600, 5.0, 3.0, "Clear");
+        save(BASE + 2 * DAY, 5.0, 3.0, "Clear");
+        save(BASE + 2 * DAY + 600, 5.0, 3.0, "Clear");
+
+        assertEquals(1, compactor(1, 0).compact(BASE + 40 * DAY));
+        assertEquals(BASE + DAY, watermarkRepository.findById(STATION_NAME).orElseThrow().getCompactedUntil());
+
+        // A new instance, as after a restart, continues with the next window instead of the first one
+        assertEquals(2, compactor(1, 0).compact(BASE + 40 * DAY));
+        assertEquals(List.of(BASE), timestamps());
+    }
+
+    @Test
+    public void testRollupBeforeRawRetentionEndsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> compactor(30, 7));
+    }
+
+    private WeatherHistoryCompactor compactor(int rawDays, int hourlyRollupDays) {
+        return new WeatherHistoryCompactor(weatherDataRepository, watermarkRepository, eventPublisher,
+                transactionManager, rawDays, hourlyRollupDays, 24, new SimpleMeterRegistry());
+    }
+
+    private List<Long> timestamps() {
+        return weatherDataRepository.findByStationNameInRange(STATION_NAME, 0, Long.MAX_VALUE).stream()
+                .map(WeatherData::getTimestamp)
+                .toList();
+    }
+
+    private void save(long timestamp, double airTemperature, double windSpeed, String phenomenon) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName(STATION_NAME);
+        weatherData.setWmoCode("26038");
+        weatherData.setTimestamp(timestamp);
+        weatherData.setAirTemperature(airTemperature);
+        weatherData.setWindSpeed(windSpeed);
+        weatherData.setWeatherPhenomenon(phenomenon);
+        weatherData.setPhenomenonCategory(WeatherPhenomenonCategory.classify(phenomenon));
+        weatherDataRepository.saveAndFlush(weatherData);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteRequest;
+import com.fujitsu.fujitsu_food_delivery.dto.DeliveryFeeQuoteResult;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.services.WeatherTimeSeriesIndex.StationSeries;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class BatchDeliveryFeeServiceTest {
+
+    private FeeCalculationService feeCalculationService;
+    private WeatherTimeSeriesIndex index;
+    private BatchDeliveryFeeService batchDeliveryFeeService;
+
+    @BeforeEach
+    void setUp() {
+        index = new WeatherTimeSeriesIndex(Mockito.mock(WeatherDataRepository.class));
+        // 2025-03-23T00:00:00Z and 2025-03-23T01:00:00Z
+        index.append(List.of(
+                weatherData("Tallinn-Harku", 1742688000, 5.0, 5.0, "Clear"),
+                weatherData("Tallinn-Harku", 1742691600, 5.0, 25.0, "Clear")));
+        feeCalculationService = Mockito.spy(new FeeCalculationService());
+        batchDeliveryFeeService = new BatchDeliveryFeeService(feeCalculationService, index, RegionRegistry.defaults());
+    }
+
+    @Test
+    void testQuoteResolvesEachObservationOnce() {
+        List<DeliveryFeeQuoteResult> results = batchDeliveryFeeService.quote(List.of(
+                new DeliveryFeeQuoteRequest("TALLINN", "BIKE", "2025-03-23T00:10:00"),
+                new DeliveryFeeQuoteRequest("tallinn", "bike", "2025-03-23T00:50:00"),
+                new DeliveryFeeQuoteRequest("TALLINN", "BIKE", "2025-03-23T01:10:00"),
+                new DeliveryFeeQuoteRequest("TALLINN", "BIKE", null),
+                new DeliveryFeeQuoteRequest("TALLINN", "CAR", null)));
+
+        assertEquals(3.0, results.get(0).fee());
+        assertEquals(3.0, results.get(1).fee());
+        assertEquals(400, results.get(2).status());
+        assertEquals("Usage of selected vehicle type is forbidden", results.get(2).error());
+        assertEquals(400, results.get(3).status());
+        assertEquals(200, results.get(4).status());
+        assertEquals(4.0, results.get(4).fee());
+
+        verify(feeCalculationService, times(2)).evaluateDeliveryFee(eq(City.TALLINN), eq(VehicleType.BIKE), any(WeatherData.class));
+    }
+
+    @Test
+    void testQuoteReportsInvalidItems() {
+        List<DeliveryFeeQuoteResult> results = batchDeliveryFeeService.quote(List.of(
+                new DeliveryFeeQuoteRequest("NARVA", "CAR", null),
+                new DeliveryFeeQuoteRequest("TALLINN", null, null),
+                new DeliveryFeeQuoteRequest("TALLINN", "CAR", "yesterday"),
+                new DeliveryFeeQuoteRequest("TALLINN", "CAR", "2025-03-22T23:00:00"),
+                new DeliveryFeeQuoteRequest("TARTU", "CAR", null)));
+
+        assertEquals("Invalid city or vehicle type", results.get(0).error());
+        assertEquals("Invalid city or vehicle type", results.get(1).error());
+        assertEquals(400, results.get(2).status());
+        assertEquals(404, results.get(3).status());
+        assertEquals("No weather data found for city: TARTU", results.get(4).error());
+        results.forEach(result -> assertNull(result.fee()));
+    }
+
+    @Test
+    void testQuoteReportsMissingItemsAndCalculationFailuresPerItem() {
+        Mockito.doThrow(new IllegalStateException("broken observation")).when(feeCalculationService)
+                .evaluateDeliveryFee(eq(City.TALLINN), eq(VehicleType.SCOOTER), any(WeatherData.class));
+        List<DeliveryFeeQuoteRequest> requests = new ArrayList<>();
+        requests.add(null);
+        requests.add(new DeliveryFeeQuoteRequest("TALLINN", "SCOOTER", null));
+        requests.add(new DeliveryFeeQuoteRequest("TALLINN", "CAR", null));
+
+        List<DeliveryFeeQuoteResult> results = batchDeliveryFeeService.quote(requests);
+
+        assertEquals(400, results.get(0).status());
+        assertEquals("Missing quote request", results.get(0).error());
+        assertEquals(500, results.get(1).status());
+        assertEquals("The delivery fee could not be calculated", results.get(1).error());
+        assertEquals(4.0, results.get(2).fee());
+    }
+
+    @Test
+    void testQuoteSingleRequestsAgainstCapturedSeries() {
+        StationSeries[] seriesByRegion = batchDeliveryFeeService.newSeriesCache();
+
+        DeliveryFeeQuoteResult before = batchDeliveryFeeService.quote(
+                new DeliveryFeeQuoteRequest("TALLINN", "BIKE", null), seriesByRegion);
+        index.append(List.of(weatherData("Tallinn-Harku", 1742695200, 5.0, 5.0, "Clear")));
+        DeliveryFeeQuoteResult after = batchDeliveryFeeService.quote(
+                new DeliveryFeeQuoteRequest("TALLINN", "BIKE", null), seriesByRegion);
+
+        assertEquals(400, before.status());
+        assertEquals(400, after.status());
+        assertEquals(3.0, batchDeliveryFeeService.quote(
+                new DeliveryFeeQuoteRequest("TALLINN", "BIKE", null), batchDeliveryFeeService.newSeriesCache()).fee());
+    }
+
+    private static WeatherData weatherData(String stationName, int timestamp, double airTemperature,
+                                           double windSpeed, String phenomenon) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName(stationName);
+        weatherData.setTimestamp(timestamp);
+        weatherData.setAirTemperature(airTemperature);
+        weatherData.setWindSpeed(windSpeed);
+        weatherData.setWeatherPhenomenon(phenomenon);
+        return weatherData;
+    }
+}
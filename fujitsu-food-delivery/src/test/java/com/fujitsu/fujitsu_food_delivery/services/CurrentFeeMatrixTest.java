@@ -0,0 +1,97 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+import com.fujitsu.fujitsu_food_delivery.services.CurrentFeeMatrix.PreparedFeeResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentFeeMatrixTest {
+
+    private static final RegionRegistry REGIONS = RegionRegistry.defaults();
+
+    private LatestWeatherDataCache latestWeatherDataCache;
+    private CurrentFeeMatrix currentFeeMatrix;
+
+    @BeforeEach
+    void setUp() {
+        latestWeatherDataCache = new LatestWeatherDataCache(Mockito.mock(WeatherDataRepository.class));
+        currentFeeMatrix = new CurrentFeeMatrix(new FeeCalculationService(), latestWeatherDataCache, REGIONS,
+                new ObjectMapper());
+    }
+
+    @Test
+    void testRebuildPreparesAllOutcomes() {
+        latestWeatherDataCache.update(List.of(weatherData("Tallinn-Harku", 1742760780, 5.0, 15.0, "Light rain")));
+        currentFeeMatrix.rebuild();
+
+        PreparedFeeResponse car = currentFeeMatrix.get(REGIONS.find("TALLINN"), VehicleType.CAR);
+        assertEquals(HttpStatus.OK, car.status());
+        assertEquals(MediaType.APPLICATION_JSON, car.contentType());
+        assertEquals("4.0", new String(car.body(), StandardCharsets.UTF_8));
+
+        PreparedFeeResponse bike = currentFeeMatrix.get(REGIONS.find("TALLINN"), VehicleType.BIKE);
+        assertEquals(HttpStatus.OK, bike.status());
+        assertEquals("4.0", new String(bike.body(), StandardCharsets.UTF_8));
+
+        PreparedFeeResponse missing = currentFeeMatrix.get(REGIONS.find("TARTU"), VehicleType.CAR);
+        assertEquals(HttpStatus.NOT_FOUND, missing.status());
+        assertEquals("No weather data found for city: TARTU", new String(missing.body(), StandardCharsets.UTF_8));
+        assertNull(missing.weatherData());
+    }
+
+    @Test
+    void testRebuildAfterImportReflectsNewWeather() {
+        latestWeatherDataCache.update(List.of(weatherData("Pärnu", 1742760780, 5.0, 5.0, "Clear")));
+        currentFeeMatrix.rebuild();
+        assertEquals(HttpStatus.OK, currentFeeMatrix.get(REGIONS.find("PÄRNU"), VehicleType.SCOOTER).status());
+
+        latestWeatherDataCache.update(List.of(weatherData("Pärnu", 1742764380, 5.0, 5.0, "Thunderstorm")));
+        currentFeeMatrix.rebuild();
+
+        PreparedFeeResponse scooter = currentFeeMatrix.get(REGIONS.find("PÄRNU"), VehicleType.SCOOTER);
+        assertEquals(HttpStatus.BAD_REQUEST, scooter.status());
+        assertEquals("Invalid city or vehicle type. Usage of selected vehicle type is forbidden",
+                new String(scooter.body(), StandardCharsets.UTF_8));
+        assertEquals(HttpStatus.OK, currentFeeMatrix.get(REGIONS.find("PÄRNU"), VehicleType.CAR).status());
+    }
+
+    @Test
+    void testRebuildPreparesOtherCellsWhenOneFails() {
+        FeeCalculationService failing = Mockito.spy(new FeeCalculationService());
+        Mockito.doThrow(new IllegalStateException("broken observation")).when(failing)
+                .evaluateDeliveryFee(Mockito.eq(REGIONS.find("TARTU").tariff()), Mockito.any(), Mockito.any());
+        currentFeeMatrix = new CurrentFeeMatrix(failing, latestWeatherDataCache, REGIONS, new ObjectMapper());
+        latestWeatherDataCache.update(List.of(
+                weatherData("Tallinn-Harku", 1742760780, 5.0, 5.0, "Clear"),
+                weatherData("Tartu-Tõravere", 1742760780, 5.0, 5.0, "Clear")));
+
+        currentFeeMatrix.rebuild();
+
+        PreparedFeeResponse tartu = currentFeeMatrix.get(REGIONS.find("TARTU"), VehicleType.CAR);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, tartu.status());
+        assertEquals("The delivery fee could not be calculated", new String(tartu.body(), StandardCharsets.UTF_8));
+        assertEquals(HttpStatus.OK, currentFeeMatrix.get(REGIONS.find("TALLINN"), VehicleType.CAR).status());
+    }
+
+    private static WeatherData weatherData(String stationName, int timestamp, double airTemperature, double windSpeed, String phenomenon) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName(stationName);
+        weatherData.setTimestamp(timestamp);
+        weatherData.setAirTemperature(airTemperature);
+        weatherData.setWindSpeed(windSpeed);
+        weatherData.setWeatherPhenomenon(phenomenon);
+        return weatherData;
+    }
+}
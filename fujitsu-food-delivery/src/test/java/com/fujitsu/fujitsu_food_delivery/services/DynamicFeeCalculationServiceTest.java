@@ -14,6 +14,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class DynamicFeeCalculationServiceTest {
 
@@ -132,4 +134,108 @@ public class DynamicFeeCalculationServiceTest {
         double fee = dynamicFeeCalculationService.calculateDeliveryFee(City.TARTU, VehicleType.BIKE, weatherData);
         assertEquals(3.0, fee);
     }
+
+    @Test
+    public void testCalculateDeliveryFee_LoadsRulesOnce() {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setAirTemperature(-5.0);
+        weatherData.setWindSpeed(15.0);
+        weatherData.setWeatherPhenomenon("Heavy rain");
+
+        dynamicFeeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.BIKE, weatherData);
+        dynamicFeeCalculationService.calculateDeliveryFee(City.TARTU, VehicleType.BIKE, weatherData);
+        dynamicFeeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.SCOOTER, weatherData);
+
+        verify(feeRuleRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testReloadFeeRules_SwapsIntervals() {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setAirTemperature(10.0);
+        weatherData.setWindSpeed(5.0);
+        weatherData.setWeatherPhenomenon("Clear");
+
+        assertEquals(4.0, dynamicFeeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData));
+        long version = dynamicFeeCalculationService.getFeeRuleIntervals().getVersion();
+
+        Mockito.when(feeRuleRepository.findAll()).thenReturn(List.of(
+            new FeeRule("BASE_FEE", City.TALLINN, VehicleType.CAR, null, 5.0)
+        ));
+        dynamicFeeCalculationService.reloadFeeRules();
+
+        assertEquals(5.0, dynamicFeeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData));
+        assertTrue(dynamicFeeCalculationService.getFeeRuleIntervals().getVersion() > version);
+    }
+
+    @Test
+    public void testReloadFeeRules_PublishesIntervalsAndTableTogether() throws Exception {
+        Thread[] reloaders = new Thread[4];
+        for (int i = 0; i < reloaders.length; i++) {
+            reloaders[i] = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    dynamicFeeCalculationService.reloadFeeRules();
+                }
+            });
+            reloaders[i].start();
+        }
+        for (Thread reloader : reloaders) {
+            reloader.join();
+        }
+
+        assertEquals(200, dynamicFeeCalculationService.getFeeRuleIntervals().getVersion());
+        assertEquals(200, dynamicFeeCalculationService.getFeeLookupTable().getRuleSetVersion());
+    }
+
+    @Test
+    public void testReloadFeeRules_AppliesNewThresholds() {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setAirTemperature(3.0);
+        weatherData.setWindSpeed(8.0);
+        weatherData.setWeatherPhenomenon("Light snow shower");
+
+        Mockito.when(feeRuleRepository.findAll()).thenReturn(List.of(
+            new FeeRule("BASE_FEE", City.TARTU, VehicleType.CAR, null, 3.5),
+            new FeeRule("AIR_TEMP", null, VehicleType.CAR, "(0,5]", 0.25),
+            new FeeRule("WIND_SPEED", null, VehicleType.CAR, ">= 7.5", 0.5),
+            new FeeRule("PHENOMENON", City.TARTU, VehicleType.CAR, "sleet", 0.75)
+        ));
+        dynamicFeeCalculationService.reloadFeeRules();
+
+        assertEquals(5.0, dynamicFeeCalculationService.calculateDeliveryFee(City.TARTU, VehicleType.CAR, weatherData));
+        assertEquals(0.75, dynamicFeeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData));
+    }
+
+    @Test
+    public void testCalculateDeliveryFee_LookupTableMatchesRuleEvaluation() {
+        DynamicFeeCalculationService tableService = new DynamicFeeCalculationService(feeRuleRepository, true);
+        double[] temperatures = {-15.0, -10.0, -0.1, 0.0, 10.0};
+        double[] windSpeeds = {5.0, 10.0, 20.0, 20.1};
+        String[] phenomena = {"", "Clear", "Light rain", "Light snow shower", "Thunderstorm"};
+
+        for (double temperature : temperatures) {
+            for (double windSpeed : windSpeeds) {
+                for (String phenomenon : phenomena) {
+                    WeatherData weatherData = new WeatherData();
+                    weatherData.setAirTemperature(temperature);
+                    weatherData.setWindSpeed(windSpeed);
+                    weatherData.setWeatherPhenomenon(phenomenon);
+
+                    for (VehicleType vehicleType : VehicleType.values()) {
+                        Double expected = feeOrNull(dynamicFeeCalculationService, vehicleType, weatherData);
+                        Double actual = feeOrNull(tableService, vehicleType, weatherData);
+                        assertEquals(expected, actual, vehicleType + " " + temperature + " " + windSpeed + " " + phenomenon);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Double feeOrNull(DynamicFeeCalculationService service, VehicleType vehicleType, WeatherData weatherData) {
+        try {
+            return service.calculateDeliveryFee(City.TALLINN, vehicleType, weatherData);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
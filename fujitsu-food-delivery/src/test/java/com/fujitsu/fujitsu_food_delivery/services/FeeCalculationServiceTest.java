@@ -118,6 +118,16 @@ class FeeCalculationServiceTest {
         assertEquals(4.0, fee, 0.001, "Fee for Tallinn Scooter with -10°C should be 4.0");
     }
 
+    @Test
+    void testMissingAirTemperatureCarriesNoExtraFee() {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setWindSpeed(5.0);
+        weatherData.setWeatherPhenomenon("Light snow shower");
+
+        double fee = feeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.SCOOTER, weatherData);
+        assertEquals(4.5, fee, 0.001, "A missing temperature should only leave out the temperature fee");
+    }
+
     @Test
     void testNoExtraFeesForCar() {
         WeatherData weatherData = new WeatherData();
@@ -128,4 +138,20 @@ class FeeCalculationServiceTest {
         double fee = feeCalculationService.calculateDeliveryFee(City.TALLINN, VehicleType.CAR, weatherData);
         assertEquals(4.0, fee, 0.001, "Fee for Tallinn Car should be exactly 4.0 even with extreme weather conditions");
     }
+
+    @Test
+    void testEvaluateDeliveryFeeReportsForbiddenUsageWithoutThrowing() {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setAirTemperature(5.0);
+        weatherData.setWindSpeed(22.0);
+        weatherData.setWeatherPhenomenon("Clear");
+
+        FeeResult bike = feeCalculationService.evaluateDeliveryFee(City.TARTU, VehicleType.BIKE, weatherData);
+        assertTrue(bike.isForbidden());
+        assertSame(FeeResult.forbidden(), bike);
+
+        FeeResult car = feeCalculationService.evaluateDeliveryFee(City.TARTU, VehicleType.CAR, weatherData);
+        assertEquals(FeeResult.Outcome.OK, car.outcome());
+        assertEquals(3.5, car.fee(), 0.001);
+    }
 }
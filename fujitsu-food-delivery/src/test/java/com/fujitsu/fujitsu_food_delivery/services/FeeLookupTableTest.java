@@ -0,0 +1,69 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.services.FeeRuleCondition.Interval;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeLookupTableTest {
+
+    private static final IntervalBreakpoints TEMPERATURE = breakpoints("AIR_TEMP", "< -10", "[-10,0)");
+    private static final IntervalBreakpoints WIND = breakpoints("WIND_SPEED", "[10,20]", "> 20");
+
+    private final FeeLookupTable table = FeeLookupTable.build(TEMPERATURE, WIND,
+            (city, vehicleType, tempBand, windBand, phenomenonClass) ->
+                    phenomenonClass == WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER.ordinal() ? FORBIDDEN
+                            : city.ordinal() * 10000 + vehicleType.ordinal() * 1000 + tempBand * 100 + windBand * 10 + phenomenonClass, 7L);
+
+    @Test
+    void testTemperatureBandsFollowBreakpoints() {
+        assertEquals(0, table.temperatureBand(-10.1));
+        assertEquals(1, table.temperatureBand(-10.0));
+        assertEquals(1, table.temperatureBand(-0.1));
+        assertEquals(2, table.temperatureBand(0.0));
+        assertEquals(3, table.temperatureBand((Double) null));
+        assertEquals(3, table.temperatureBand(Double.NaN));
+    }
+
+    @Test
+    void testWindBandsFollowBreakpoints() {
+        assertEquals(0, table.windBand(9.9));
+        assertEquals(1, table.windBand(10.0));
+        assertEquals(1, table.windBand(20.0));
+        assertEquals(2, table.windBand(20.1));
+        assertEquals(3, table.windBand((Double) null));
+    }
+
+    @Test
+    void testPhenomenonClasses() {
+        assertEquals(0, phenomenonClass(WeatherPhenomenonCategory.classify(null)));
+        assertEquals(1, phenomenonClass(WeatherPhenomenonCategory.classify("Light rain")));
+        assertEquals(2, phenomenonClass(WeatherPhenomenonCategory.classify("Light sleet")));
+        assertEquals(3, phenomenonClass(WeatherPhenomenonCategory.classify("Thunderstorm")));
+    }
+
+    @Test
+    void testBuildStoresEvaluatedSlots() {
+        assertEquals(7L, table.getRuleSetVersion());
+        assertEquals(21111, table.getCents(City.PÄRNU, VehicleType.BIKE, table.temperatureBand(-5.0),
+                table.windBand(15.0), phenomenonClass(WeatherPhenomenonCategory.RAIN)));
+        assertEquals(2331, table.getCents(City.TALLINN, VehicleType.CAR, table.temperatureBand((Double) null),
+                table.windBand((Double) null), phenomenonClass(WeatherPhenomenonCategory.RAIN)));
+        assertEquals(FORBIDDEN, table.getCents(City.TALLINN, VehicleType.CAR, 2, 0,
+                phenomenonClass(WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER)));
+    }
+
+    private static IntervalBreakpoints breakpoints(String ruleType, String... conditions) {
+        List<Interval> intervals = List.of(conditions).stream()
+                .map(condition -> (Interval) FeeRuleCondition.parse(ruleType, condition))
+                .toList();
+        return IntervalBreakpoints.of(intervals);
+    }
+}
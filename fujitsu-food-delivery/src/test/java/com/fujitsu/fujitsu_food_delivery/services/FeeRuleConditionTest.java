@@ -0,0 +1,65 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.services.FeeRuleCondition.Interval;
+import com.fujitsu.fujitsu_food_delivery.services.FeeRuleCondition.PhenomenonSet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeRuleConditionTest {
+
+    @Test
+    void testParsesComparisons() {
+        assertEquals(new Interval(Double.NEGATIVE_INFINITY, false, -10.0, false), FeeRuleCondition.parse("AIR_TEMP", "< -10"));
+        assertEquals(new Interval(Double.NEGATIVE_INFINITY, false, 0.0, true), FeeRuleCondition.parse("AIR_TEMP", "<=0"));
+        assertEquals(new Interval(20.0, false, Double.POSITIVE_INFINITY, false), FeeRuleCondition.parse("WIND_SPEED", "> 20"));
+        assertEquals(new Interval(10.5, true, Double.POSITIVE_INFINITY, false), FeeRuleCondition.parse("WIND_SPEED", " >= 10.5 "));
+    }
+
+    @Test
+    void testParsesIntervals() {
+        Interval interval = (Interval) FeeRuleCondition.parse("AIR_TEMP", "[-10,0)");
+
+        assertEquals(new Interval(-10.0, true, 0.0, false), interval);
+        assertTrue(interval.contains(-10.0));
+        assertTrue(interval.contains(-0.1));
+        assertFalse(interval.contains(0.0));
+        assertEquals(new Interval(10.0, false, 20.0, true), FeeRuleCondition.parse("WIND_SPEED", "( 10 , 20 ]"));
+        assertEquals(new Interval(0.0, true, 0.0, true), FeeRuleCondition.parse("AIR_TEMP", "[-0,0]"));
+    }
+
+    @Test
+    void testParsesPhenomenonSets() {
+        assertEquals(new PhenomenonSet(Set.of(WeatherPhenomenonCategory.SNOW_SLEET)),
+                FeeRuleCondition.parse("PHENOMENON", "snow/sleet"));
+        assertEquals(new PhenomenonSet(Set.of(WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER)),
+                FeeRuleCondition.parse("PHENOMENON", "Glaze/Hail/Thunder"));
+        assertEquals(new PhenomenonSet(Set.of(WeatherPhenomenonCategory.NONE, WeatherPhenomenonCategory.RAIN)),
+                FeeRuleCondition.parse("PHENOMENON", "none / rain"));
+    }
+
+    @Test
+    void testBaseFeeHasNoCondition() {
+        assertNull(FeeRuleCondition.parse("BASE_FEE", null));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("BASE_FEE", "< 0"));
+    }
+
+    @Test
+    void testRejectsInvalidConditions() {
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("AIR_TEMP", null));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("AIR_TEMP", "cold"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("AIR_TEMP", "[0,10"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("AIR_TEMP", "[0,5,10]"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("AIR_TEMP", "< NaN"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("WIND_SPEED", "[20,10]"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("WIND_SPEED", "[10,10)"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("WIND_SPEED", "rain"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("PHENOMENON", "snow/fog"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("PHENOMENON", "< 0"));
+        assertThrows(IllegalArgumentException.class, () -> FeeRuleCondition.parse("HUMIDITY", "> 90"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.entities.FeeRule;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable.FORBIDDEN;
+import static com.fujitsu.fujitsu_food_delivery.services.FeeLookupTable.phenomenonClass;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeRuleIntervalsTest {
+
+    private static final List<FeeRule> RESTRICTIONS = List.of(
+            new FeeRule("WIND_SPEED", null, VehicleType.BIKE, "> 20", 0.0));
+
+    @Test
+    void testEvaluatesIntervalsPerField() {
+        FeeRuleIntervals intervals = FeeRuleIntervals.compile(List.of(
+                new FeeRule("BASE_FEE", City.TALLINN, VehicleType.BIKE, null, 3.0),
+                new FeeRule("AIR_TEMP", null, VehicleType.BIKE, "< -10", 1.0),
+                new FeeRule("AIR_TEMP", null, VehicleType.BIKE, "[-10,0)", 0.5),
+                new FeeRule("WIND_SPEED", null, VehicleType.BIKE, "[10,20]", 0.5),
+                new FeeRule("PHENOMENON", null, VehicleType.BIKE, "snow/sleet", 1.0)), RESTRICTIONS, 3L);
+
+        assertEquals(3L, intervals.getVersion());
+        assertEquals(400, cents(intervals, -10.1, 5.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(350, cents(intervals, -10.0, 5.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(350, cents(intervals, -0.1, 5.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(300, cents(intervals, 0.0, 9.9, WeatherPhenomenonCategory.NONE));
+        assertEquals(350, cents(intervals, 0.0, 10.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(350, cents(intervals, 0.0, 20.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(FORBIDDEN, cents(intervals, 0.0, 20.1, WeatherPhenomenonCategory.NONE));
+        assertEquals(500, cents(intervals, -5.0, 15.0, WeatherPhenomenonCategory.SNOW_SLEET));
+        assertEquals(300, cents(intervals, null, null, WeatherPhenomenonCategory.RAIN));
+    }
+
+    @Test
+    void testNewThresholdsNeedNoCodeChange() {
+        FeeRuleIntervals intervals = FeeRuleIntervals.compile(List.of(
+                new FeeRule("BASE_FEE", City.TARTU, VehicleType.CAR, null, 3.5),
+                new FeeRule("AIR_TEMP", null, VehicleType.CAR, "<= -25", 0.75),
+                new FeeRule("WIND_SPEED", null, VehicleType.CAR, "(25,30]", 0.25),
+                new FeeRule("PHENOMENON", null, VehicleType.CAR, "glaze/hail/thunder", 1.5)), RESTRICTIONS, 1L);
+
+        assertEquals(350, cents(intervals, City.TARTU, VehicleType.CAR, -24.9, 25.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(425, cents(intervals, City.TARTU, VehicleType.CAR, -25.0, 25.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(450, cents(intervals, City.TARTU, VehicleType.CAR, -30.0, 30.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(500, cents(intervals, City.TARTU, VehicleType.CAR, 0.0, 31.0, WeatherPhenomenonCategory.GLAZE_HAIL_THUNDER));
+    }
+
+    @Test
+    void testPrecedence() {
+        FeeRuleIntervals intervals = FeeRuleIntervals.compile(List.of(
+                new FeeRule("AIR_TEMP", null, VehicleType.BIKE, "< 0", 0.5),
+                new FeeRule("AIR_TEMP", City.TARTU, VehicleType.BIKE, "< -10", 1.5),
+                new FeeRule("AIR_TEMP", null, VehicleType.BIKE, "< -5", 0.7),
+                new FeeRule("WIND_SPEED", null, VehicleType.BIKE, ">= 15", 0.5),
+                new FeeRule("WIND_SPEED", null, VehicleType.BIKE, "windy", 2.0)), RESTRICTIONS, 1L);
+
+        assertEquals(150, cents(intervals, City.TARTU, VehicleType.BIKE, -15.0, 0.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(50, cents(intervals, City.TALLINN, VehicleType.BIKE, -15.0, 0.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(50, cents(intervals, City.TARTU, VehicleType.BIKE, -7.0, 0.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(50, cents(intervals, City.TALLINN, VehicleType.BIKE, 0.0, 20.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(FORBIDDEN, cents(intervals, City.TALLINN, VehicleType.BIKE, 0.0, 25.0, WeatherPhenomenonCategory.NONE));
+    }
+
+    @Test
+    void testNegativeFeesAreNotForbidden() {
+        FeeRuleIntervals intervals = FeeRuleIntervals.compile(List.of(
+                new FeeRule("BASE_FEE", City.TALLINN, VehicleType.BIKE, null, 3.0),
+                new FeeRule("AIR_TEMP", null, VehicleType.BIKE, "> 20", -3.01),
+                new FeeRule("WIND_SPEED", null, VehicleType.BIKE, "< 1", -0.01)), RESTRICTIONS, 1L);
+
+        assertEquals(-1, cents(intervals, 25.0, 5.0, WeatherPhenomenonCategory.NONE));
+        assertEquals(299, cents(intervals, 0.0, 0.5, WeatherPhenomenonCategory.NONE));
+    }
+
+    private static int cents(FeeRuleIntervals intervals, Double airTemperature, Double windSpeed,
+                             WeatherPhenomenonCategory category) {
+        return cents(intervals, City.TALLINN, VehicleType.BIKE, airTemperature, windSpeed, category);
+    }
+
+    private static int cents(FeeRuleIntervals intervals, City city, VehicleType vehicleType, Double airTemperature,
+                             Double windSpeed, WeatherPhenomenonCategory category) {
+        return intervals.evaluateCents(city, vehicleType, intervals.temperatureBand(airTemperature),
+                intervals.windBand(windSpeed), phenomenonClass(category));
+    }
+}
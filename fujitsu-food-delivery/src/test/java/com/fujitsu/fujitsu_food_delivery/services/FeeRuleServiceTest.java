@@ -3,25 +3,30 @@ package com.fujitsu.fujitsu_food_delivery.services;
 import com.fujitsu.fujitsu_food_delivery.entities.FeeRule;
 import com.fujitsu.fujitsu_food_delivery.enums.City;
 import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.events.FeeRulesChangedEvent;
 import com.fujitsu.fujitsu_food_delivery.repositories.FeeRuleRepository;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.Arrays;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class FeeRuleServiceTest {
 
     private FeeRuleRepository feeRuleRepository;
+    private ApplicationEventPublisher eventPublisher;
     private FeeRuleService feeRuleService;
 
     @BeforeEach
     void setUp() {
         feeRuleRepository = Mockito.mock(FeeRuleRepository.class);
-        feeRuleService = new FeeRuleService(feeRuleRepository);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        feeRuleService = new FeeRuleService(feeRuleRepository, eventPublisher);
     }
 
     @Test
@@ -32,6 +37,15 @@ class FeeRuleServiceTest {
         assertNotNull(created);
         assertEquals(4.0, created.getFee());
         verify(feeRuleRepository, times(1)).save(feeRule);
+        verify(eventPublisher, times(1)).publishEvent(any(FeeRulesChangedEvent.class));
+    }
+
+    @Test
+    void testCreateFeeRuleRejectsInvalidCondition() {
+        FeeRule feeRule = new FeeRule("WIND_SPEED", null, VehicleType.BIKE, "[20,10]", 0.5);
+        assertThrows(IllegalArgumentException.class, () -> feeRuleService.createFeeRule(feeRule));
+        verify(feeRuleRepository, never()).save(any(FeeRule.class));
+        verify(eventPublisher, never()).publishEvent(any(FeeRulesChangedEvent.class));
     }
 
     @Test
@@ -72,6 +86,7 @@ class FeeRuleServiceTest {
         assertEquals(3.5, result.getFee());
         verify(feeRuleRepository, times(1)).findById(1L);
         verify(feeRuleRepository, times(1)).save(existing);
+        verify(eventPublisher, times(1)).publishEvent(any(FeeRulesChangedEvent.class));
     }
 
     @Test
@@ -80,11 +95,20 @@ class FeeRuleServiceTest {
         when(feeRuleRepository.findById(1L)).thenReturn(Optional.empty());
         FeeRule result = feeRuleService.updateFeeRule(1L, updated);
         assertNull(result);
+        verify(eventPublisher, never()).publishEvent(any(FeeRulesChangedEvent.class));
+    }
+
+    @Test
+    void testUpdateFeeRuleRejectsUnknownPhenomenon() {
+        FeeRule updated = new FeeRule("PHENOMENON", null, VehicleType.SCOOTER, "snow/fog", 1.0);
+        assertThrows(IllegalArgumentException.class, () -> feeRuleService.updateFeeRule(1L, updated));
+        verify(feeRuleRepository, never()).save(any(FeeRule.class));
     }
 
     @Test
     void testDeleteFeeRule() {
         feeRuleService.deleteFeeRule(1L);
         verify(feeRuleRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(FeeRulesChangedEvent.class));
     }
 }
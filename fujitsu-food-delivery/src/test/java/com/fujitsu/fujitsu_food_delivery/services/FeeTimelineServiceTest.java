@@ -0,0 +1,73 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.dto.FeeTimelinePoint;
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.VehicleType;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeTimelineServiceTest {
+
+    // 2025-03-23T00:00:00Z
+    private static final long MIDNIGHT = 1742688000L;
+
+    private static final RegionRegistry REGIONS = RegionRegistry.defaults();
+
+    private FeeTimelineService feeTimelineService;
+
+    @BeforeEach
+    void setUp() {
+        WeatherTimeSeriesIndex index = new WeatherTimeSeriesIndex(Mockito.mock(WeatherDataRepository.class));
+        index.append(List.of(
+                weatherData(MIDNIGHT, 5.0, 5.0, "Clear"),
+                weatherData(MIDNIGHT + 3600, 5.0, 6.0, "Clear"),
+                weatherData(MIDNIGHT + 7200, 5.0, 15.0, "Clear"),
+                weatherData(MIDNIGHT + 10800, 5.0, 25.0, "Clear"),
+                weatherData(MIDNIGHT + 14400, 5.0, 5.0, "Clear")));
+        feeTimelineService = new FeeTimelineService(new FeeCalculationService(), index);
+    }
+
+    @Test
+    void testTimelineEmitsOnlyChangePoints() {
+        List<FeeTimelinePoint> timeline = feeTimelineService.timeline(REGIONS.find("TALLINN"), VehicleType.BIKE,
+                MIDNIGHT + 1800, MIDNIGHT + 20000);
+
+        assertEquals(4, timeline.size());
+        assertEquals(new FeeTimelinePoint(LocalDateTime.of(2025, 3, 23, 0, 30), 3.0, false), timeline.get(0));
+        assertEquals(new FeeTimelinePoint(LocalDateTime.of(2025, 3, 23, 2, 0), 3.5, false), timeline.get(1));
+        assertEquals(new FeeTimelinePoint(LocalDateTime.of(2025, 3, 23, 3, 0), null, true), timeline.get(2));
+        assertEquals(new FeeTimelinePoint(LocalDateTime.of(2025, 3, 23, 4, 0), 3.0, false), timeline.get(3));
+    }
+
+    @Test
+    void testTimelineStartsAtFirstObservationInRange() {
+        List<FeeTimelinePoint> timeline = feeTimelineService.timeline(REGIONS.find("TALLINN"), VehicleType.CAR,
+                MIDNIGHT - 3600, MIDNIGHT + 20000);
+
+        assertEquals(List.of(new FeeTimelinePoint(LocalDateTime.of(2025, 3, 23, 0, 0), 4.0, false)), timeline);
+    }
+
+    @Test
+    void testTimelineWithoutObservationsIsEmpty() {
+        assertTrue(feeTimelineService.timeline(REGIONS.find("TALLINN"), VehicleType.CAR, MIDNIGHT - 7200, MIDNIGHT - 3600).isEmpty());
+        assertTrue(feeTimelineService.timeline(REGIONS.find("TARTU"), VehicleType.CAR, MIDNIGHT, MIDNIGHT + 20000).isEmpty());
+    }
+
+    private static WeatherData weatherData(long timestamp, double airTemperature, double windSpeed, String phenomenon) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName("Tallinn-Harku");
+        weatherData.setTimestamp((int) timestamp);
+        weatherData.setAirTemperature(airTemperature);
+        weatherData.setWindSpeed(windSpeed);
+        weatherData.setWeatherPhenomenon(phenomenon);
+        return weatherData;
+    }
+}
@@ -0,0 +1,65 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestWeatherDataCacheTest {
+
+    private WeatherDataRepository weatherDataRepository;
+    private LatestWeatherDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        weatherDataRepository = Mockito.mock(WeatherDataRepository.class);
+        cache = new LatestWeatherDataCache(weatherDataRepository);
+    }
+
+    @Test
+    void testSeedLoadsLatestObservations() {
+        Mockito.when(weatherDataRepository.findLatestOfEachStation()).thenReturn(List.of(
+                weatherData("Tallinn-Harku", 1742760780),
+                weatherData("Pärnu", 1742760780)));
+
+        cache.seed();
+
+        assertEquals(1742760780, cache.getLatest("Tallinn-Harku").orElseThrow().getTimestamp());
+        assertTrue(cache.getLatest("Pärnu").isPresent());
+        assertTrue(cache.getLatest("Tartu-Tõravere").isEmpty());
+    }
+
+    @Test
+    void testImportReplacesOnlyOlderObservations() {
+        cache.update(List.of(weatherData("Tallinn-Harku", 1742760780)));
+
+        cache.onWeatherDataImported(new WeatherDataImportedEvent(this, List.of(weatherData("Tallinn-Harku", 1742764380))));
+        assertEquals(1742764380, cache.getLatest("Tallinn-Harku").orElseThrow().getTimestamp());
+
+        cache.onWeatherDataImported(new WeatherDataImportedEvent(this, List.of(weatherData("Tallinn-Harku", 1742760780))));
+        assertEquals(1742764380, cache.getLatest("Tallinn-Harku").orElseThrow().getTimestamp());
+        Mockito.verifyNoInteractions(weatherDataRepository);
+    }
+
+    @Test
+    void testObservationAge() {
+        WeatherData weatherData = weatherData("Tallinn-Harku", (int) (System.currentTimeMillis() / 1000L) - 600);
+
+        long age = cache.getObservationAgeSeconds(weatherData);
+        assertTrue(age >= 600 && age < 660, "Observation age should be about 600 seconds");
+    }
+
+    private static WeatherData weatherData(String stationName, int timestamp) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName(stationName);
+        weatherData.setTimestamp(timestamp);
+        return weatherData;
+    }
+}
@@ -0,0 +1,73 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.entities.DeliveryRegion;
+import com.fujitsu.fujitsu_food_delivery.enums.City;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionRegistryTest {
+
+    @Test
+    void testDefaultsRegisterOneRegionPerCity() {
+        RegionRegistry regionRegistry = RegionRegistry.defaults();
+
+        assertEquals(City.values().length, regionRegistry.size());
+        for (City city : City.values()) {
+            Region region = regionRegistry.find(city.name());
+            assertEquals(city, region.tariff());
+            assertEquals(city.getStationName(), region.stationName());
+            assertSame(region, regionRegistry.get(region.index()));
+        }
+        assertEquals(Set.of("Tallinn-Harku", "Tartu-Tõravere", "Pärnu"), regionRegistry.getStationNames());
+    }
+
+    @Test
+    void testFindIgnoresCaseAndDiacritics() {
+        RegionRegistry regionRegistry = RegionRegistry.defaults();
+        Region parnu = regionRegistry.find("PÄRNU");
+
+        for (String name : List.of("Pärnu", "pärnu", "PARNU", "Parnu", "parnu", "pÄrNu", "PaRnU")) {
+            assertSame(parnu, regionRegistry.find(name), name);
+        }
+        assertNull(regionRegistry.find("Narva"));
+        assertNull(regionRegistry.find(""));
+        assertNull(regionRegistry.find(null));
+    }
+
+    @Test
+    void testRegionsMayShareStationsAndTariffs() {
+        RegionRegistry regionRegistry = new RegionRegistry(List.of(
+                new DeliveryRegion("Tartu", "Tartu-Tõravere", City.TARTU),
+                new DeliveryRegion("Elva", "Tartu-Tõravere", City.TARTU),
+                new DeliveryRegion("Võru", "Võru", City.PÄRNU)));
+
+        Region elva = regionRegistry.find("elva");
+        assertEquals(1, elva.index());
+        assertEquals("ELVA", elva.code());
+        assertEquals(City.PÄRNU, regionRegistry.find("voru").tariff());
+        assertEquals(Set.of("Tartu-Tõravere", "Võru"), regionRegistry.getStationNames());
+    }
+
+    @Test
+    void testSpellingVariantsDoNotShadowOtherRegions() {
+        RegionRegistry regionRegistry = new RegionRegistry(List.of(
+                new DeliveryRegion("PÄRNU", "Pärnu", City.PÄRNU),
+                new DeliveryRegion("PARNU", "Pärnu-Sauga", City.PÄRNU)));
+
+        assertEquals("PÄRNU", regionRegistry.find("Pärnu").code());
+        assertEquals("PARNU", regionRegistry.find("parnu").code());
+    }
+
+    @Test
+    void testRejectsDuplicateAndMissingRegions() {
+        assertThrows(IllegalArgumentException.class, () -> new RegionRegistry(List.of(
+                new DeliveryRegion("TARTU", "Tartu-Tõravere", City.TARTU),
+                new DeliveryRegion("tartu", "Tartu-Tõravere", City.TARTU))));
+        assertThrows(IllegalArgumentException.class, () -> new RegionRegistry(List.of()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.fujitsu.fujitsu_food_delivery.services;
+
+import com.fujitsu.fujitsu_food_delivery.entities.WeatherData;
+import com.fujitsu.fujitsu_food_delivery.enums.WeatherPhenomenonCategory;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherDataImportedEvent;
+import com.fujitsu.fujitsu_food_delivery.events.WeatherHistoryCompactedEvent;
+import com.fujitsu.fujitsu_food_delivery.repositories.WeatherDataRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeatherTimeSeriesIndexTest {
+
+    private WeatherDataRepository weatherDataRepository;
+    private WeatherTimeSeriesIndex index;
+
+    @BeforeEach
+    void setUp() {
+        weatherDataRepository = Mockito.mock(WeatherDataRepository.class);
+        index = new WeatherTimeSeriesIndex(weatherDataRepository);
+    }
+
+    @Test
+    void testRebuildAndFindLatestAtOrBefore() {
+        Mockito.when(weatherDataRepository.streamAllObservationsOrderByTimestamp()).thenReturn(Stream.of(
+                new Object[] {"Tallinn-Harku", 1000, 1.5, 4.0, WeatherPhenomenonCategory.NONE, "Clear"},
+                new Object[] {"Pärnu", 1500, -3.0, 12.0, null, "Light rain"},
+                new Object[] {"Tallinn-Harku", 2000, -12.0, null, WeatherPhenomenonCategory.SNOW_SLEET, "Snow"}));
+
+        index.rebuild();
+
+        assertTrue(index.findLatestAtOrBefore("Tallinn-Harku", 999).isEmpty());
+        assertEquals(1.5, index.findLatestAtOrBefore("Tallinn-Harku", 1000).orElseThrow().getAirTemperature());
+        assertEquals(1.5, index.findLatestAtOrBefore("Tallinn-Harku", 1999).orElseThrow().getAirTemperature());
+
+        WeatherData latest = index.findLatestAtOrBefore("Tallinn-Harku", 5000).orElseThrow();
+        assertEquals(2000, latest.getTimestamp());
+        assertEquals(-12.0, latest.getAirTemperature());
+        assertNull(latest.getWindSpeed());
+        assertEquals(WeatherPhenomenonCategory.SNOW_SLEET, latest.getPhenomenonCategory());
+
+        assertEquals(WeatherPhenomenonCategory.RAIN, index.findLatestAtOrBefore("Pärnu", 1500).orElseThrow().getPhenomenonCategory());
+        assertTrue(index.findLatestAtOrBefore("Tartu-Tõravere", 5000).isEmpty());
+    }
+
+    @Test
+    void testAppendGrowsSortedAndSkipsDuplicates() {
+        for (int i = 0; i < 200; i++) {
+            index.onWeatherDataImported(new WeatherDataImportedEvent(this, List.of(weatherData(1000 + i * 10, i))));
+        }
+        index.append(List.of(weatherData(1000, -1.0)));
+        index.append(List.of(weatherData(995, -2.0)));
+        index.append(List.of(weatherData(1005, -3.0)));
+
+        WeatherTimeSeriesIndex.StationSeries series = index.getSeries("Tartu-Tõravere");
+        assertEquals(202, series.size());
+        for (int i = 1; i < series.size(); i++) {
+            assertTrue(series.timestampAt(i - 1) < series.timestampAt(i));
+        }
+        assertEquals(0.0, index.findLatestAtOrBefore("Tartu-Tõravere", 1000).orElseThrow().getAirTemperature());
+        assertEquals(-2.0, index.findLatestAtOrBefore("Tartu-Tõravere", 999).orElseThrow().getAirTemperature());
+        assertEquals(-3.0, index.findLatestAtOrBefore("Tartu-Tõravere", 1009).orElseThrow().getAirTemperature());
+        assertEquals(199.0, index.findLatestAtOrBefore("Tartu-Tõravere", Long.MAX_VALUE).orElseThrow().getAirTemperature());
+    }
+
+    @Test
+    void testReplaceRangeWithCompactedObservations() {
+        for (int i = 0; i < 10; i++) {
+            index.append(List.of(weatherData(1000 + i * 100, i)));
+        }
+        WeatherTimeSeriesIndex.StationSeries before = index.getSeries("Tartu-Tõravere");
+
+        index.onWeatherHistoryCompacted(new WeatherHistoryCompactedEvent(this, "Tartu-Tõravere", 1200, 1600,
+                List.of(weatherData(1200, 2.0), weatherData(1400, 4.0))));
+
+        WeatherTimeSeriesIndex.StationSeries series = index.getSeries("Tartu-Tõravere");
+        assertEquals(8, series.size());
+        assertEquals(10, before.size());
+        assertEquals(1.0, index.findLatestAtOrBefore("Tartu-Tõravere", 1199).orElseThrow().getAirTemperature());
+        assertEquals(2.0, index.findLatestAtOrBefore("Tartu-Tõravere", 1399).orElseThrow().getAirTemperature());
+        assertEquals(4.0, index.findLatestAtOrBefore("Tartu-Tõravere", 1599).orElseThrow().getAirTemperature());
+        assertEquals(6.0, index.findLatestAtOrBefore("Tartu-Tõravere", 1600).orElseThrow().getAirTemperature());
+        assertEquals(9.0, index.findLatestAtOrBefore("Tartu-Tõravere", Long.MAX_VALUE).orElseThrow().getAirTemperature());
+    }
+
+    @Test
+    void testExistingSeriesViewIsUnaffectedByAppends() {
+        index.append(List.of(weatherData(1000, 1.0)));
+        WeatherTimeSeriesIndex.StationSeries before = index.getSeries("Tartu-Tõravere");
+
+        index.append(List.of(weatherData(2000, 2.0)));
+
+        assertEquals(1, before.size());
+        assertEquals(0, before.indexAtOrBefore(5000));
+        assertEquals(2, index.getSeries("Tartu-Tõravere").size());
+    }
+
+    private static WeatherData weatherData(int timestamp, double airTemperature) {
+        WeatherData weatherData = new WeatherData();
+        weatherData.setStationName("Tartu-Tõravere");
+        weatherData.setTimestamp(timestamp);
+        weatherData.setAirTemperature(airTemperature);
+        weatherData.setWindSpeed(3.0);
+        weatherData.setWeatherPhenomenon("Clear");
+        return weatherData;
+    }
+}